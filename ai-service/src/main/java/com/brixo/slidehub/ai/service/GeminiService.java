@@ -29,8 +29,9 @@ public class GeminiService {
     @Value("${slidehub.ai.gemini.api-key}")
     private String apiKey;
 
-    public GeminiService(@Value("${slidehub.ai.gemini.base-url}") String baseUrl) {
-        this.geminiClient = WebClient.builder()
+    public GeminiService(@Value("${slidehub.ai.gemini.base-url}") String baseUrl,
+            WebClient.Builder webClientBuilder) {
+        this.geminiClient = webClientBuilder
                 .baseUrl(baseUrl)
                 .codecs(cfg -> cfg.defaultCodecs().maxInMemorySize(16 * 1024 * 1024)) // 16 MB para imágenes
                 .build();
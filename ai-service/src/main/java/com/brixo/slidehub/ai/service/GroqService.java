@@ -38,8 +38,9 @@ public class GroqService {
     private String model;
 
     public GroqService(@Value("${slidehub.ai.groq.base-url}") String baseUrl,
-            ObjectMapper objectMapper) {
-        this.groqClient = WebClient.builder()
+            ObjectMapper objectMapper,
+            WebClient.Builder webClientBuilder) {
+        this.groqClient = webClientBuilder
                 .baseUrl(baseUrl)
                 .build();
         this.objectMapper = objectMapper;
@@ -6,6 +6,8 @@ import com.brixo.slidehub.ai.model.NoteContent;
 import com.brixo.slidehub.ai.model.PresenterNote;
 import com.brixo.slidehub.ai.model.SlideReference;
 import com.brixo.slidehub.ai.repository.PresenterNoteRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -13,6 +15,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 import java.util.Base64;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Pipeline de generación de notas del presentador (PLAN-EXPANSION.md Fase 3).
@@ -21,6 +24,10 @@ import java.util.Optional;
  * 1. Análisis de imagen con Gemini Vision → descripción del slide
  * 2. Extracción de contexto técnico del repositorio con Gemini
  * 3. Generación de nota estructurada con Groq
+ *
+ * Cada slide es un span {@code slidehub.notes.generate} con un span hijo por
+ * paso ({@code slidehub.notes.step}, tag {@code step}); las llamadas HTTP a
+ * Gemini/Groq y la descarga de S3 cuelgan de su paso.
  */
 @Service
 public class NotesService {
@@ -34,15 +41,19 @@ public class NotesService {
     private final GroqService groqService;
     private final PresenterNoteRepository noteRepository;
     private final WebClient imageDownloadClient;
+    private final ObservationRegistry observationRegistry;
 
     public NotesService(GeminiService geminiService,
             GroqService groqService,
-            PresenterNoteRepository noteRepository) {
+            PresenterNoteRepository noteRepository,
+            WebClient.Builder webClientBuilder,
+            ObservationRegistry observationRegistry) {
         this.geminiService = geminiService;
         this.groqService = groqService;
         this.noteRepository = noteRepository;
+        this.observationRegistry = observationRegistry;
         // Cliente genérico para descargar imágenes desde S3 (URLs públicas)
-        this.imageDownloadClient = WebClient.builder()
+        this.imageDownloadClient = webClientBuilder
                 .codecs(cfg -> cfg.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
                 .build();
     }
@@ -69,21 +80,32 @@ public class NotesService {
         log.info("Generando nota para presentación {} slide {}",
                 request.presentationId(), request.slideNumber());
 
+        return Observation.createNotStarted("slidehub.notes.generate", observationRegistry)
+                .contextualName("notes generate")
+                .highCardinalityKeyValue("presentation.id", request.presentationId())
+                .highCardinalityKeyValue("slide.number", String.valueOf(request.slideNumber()))
+                .observe(() -> runPipeline(request));
+    }
+
+    private PresenterNote runPipeline(GenerateNoteRequest request) {
         // ── Paso 1: Descripción del slide ──────────────────────────────────
-        String slideDescription = resolveSlideDescription(request);
+        String slideDescription = step("describe-slide", () -> resolveSlideDescription(request));
 
         // ── Paso 2: Contexto técnico del repositorio ───────────────────────
         String repoContext = "";
         if (request.repoUrl() != null && !request.repoUrl().isBlank()) {
-            repoContext = geminiService.extractRepoContext(request.repoUrl(), slideDescription);
+            repoContext = step("repo-context",
+                    () -> geminiService.extractRepoContext(request.repoUrl(), slideDescription));
         }
 
         // ── Paso 3: Generación de nota con Groq ────────────────────────────
-        NoteContent noteContent = groqService.generateNote(
-                repoContext, slideDescription, request.slideNumber());
+        String context = repoContext;
+        NoteContent noteContent = step("generate-note",
+                () -> groqService.generateNote(context, slideDescription, request.slideNumber()));
 
         // ── Paso 4: Persistencia (upsert) ─────────────────────────────────
-        return saveOrUpdate(request.presentationId(), request.slideNumber(), noteContent);
+        return step("persist",
+                () -> saveOrUpdate(request.presentationId(), request.slideNumber(), noteContent));
     }
 
     /**
@@ -135,6 +157,14 @@ public class NotesService {
 
     // ── Helpers privados ──────────────────────────────────────────────────────
 
+    /** Ejecuta un paso del pipeline dentro de su propio span. */
+    private <T> T step(String name, Supplier<T> step) {
+        return Observation.createNotStarted("slidehub.notes.step", observationRegistry)
+                .contextualName("notes " + name)
+                .lowCardinalityKeyValue("step", name)
+                .observe(step);
+    }
+
     /**
      * Determina la descripción textual del slide a partir de los parámetros
      * disponibles.
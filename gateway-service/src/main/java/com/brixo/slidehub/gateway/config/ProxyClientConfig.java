@@ -0,0 +1,126 @@
+package com.brixo.slidehub.gateway.config;
+
+import com.brixo.slidehub.gateway.proxy.ClientPoolSettings;
+import com.brixo.slidehub.gateway.proxy.HedgingSettings;
+import com.brixo.slidehub.gateway.proxy.RouteAwareProxyExchange;
+import com.brixo.slidehub.gateway.proxy.UpstreamBalancer;
+import com.brixo.slidehub.gateway.proxy.UpstreamClientPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.cloud.gateway.server.mvc.handler.ProxyExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Clientes HTTP salientes del gateway hacia los servicios.
+ *
+ * Reemplaza el ProxyExchange por defecto de Server MVC (un único cliente
+ * compartido) por un pool independiente por servicio:
+ * - ai: llamadas a Gemini/Groq que pueden tardar minutos.
+ * - state: polls de alta frecuencia (/api/slide, /api/demo).
+ * - ui: vistas Thymeleaf, assets y API de presentaciones.
+ *
+ * Las rutas SSE usan el pool de su servicio pero sin read-timeout (el stream
+ * puede quedar inactivo durante minutos entre eventos).
+ */
+@Configuration
+public class ProxyClientConfig {
+
+    public static final String AI_POOL = "ai";
+    public static final String STATE_POOL = "state";
+    public static final String UI_POOL = "ui";
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final Environment environment;
+    private final ObservationRegistry observationRegistry;
+
+    public ProxyClientConfig(Environment environment, ObservationRegistry observationRegistry) {
+        this.environment = environment;
+        this.observationRegistry = observationRegistry;
+        // jdk.httpclient.keepalive.timeout es una propiedad de sistema: afecta a
+        // todos los HttpClient de la JVM, no solo a estos pools, y el JDK la lee
+        // una sola vez. Solo se fija si nadie la definió (p. ej. con -D).
+        Duration keepAlive = environment.getProperty("slidehub.gateway.clients.keep-alive-timeout", Duration.class);
+        if (keepAlive != null && System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", String.valueOf(keepAlive.toSeconds()));
+        }
+    }
+
+    @Bean
+    public UpstreamClientPool aiClientPool(GatewayMvcProperties properties, MeterRegistry meterRegistry) {
+        return pool(AI_POOL, new ClientPoolSettings(20, Duration.ZERO, CONNECT_TIMEOUT,
+                Duration.ofSeconds(180), httpVersion(UpstreamBalancer.AI_SERVICE)), properties, meterRegistry);
+    }
+
+    @Bean
+    public UpstreamClientPool stateClientPool(GatewayMvcProperties properties, MeterRegistry meterRegistry) {
+        return pool(STATE_POOL, new ClientPoolSettings(200, Duration.ofMillis(100), CONNECT_TIMEOUT,
+                Duration.ofSeconds(5), httpVersion(UpstreamBalancer.STATE_SERVICE)), properties, meterRegistry);
+    }
+
+    @Bean
+    public UpstreamClientPool uiClientPool(GatewayMvcProperties properties, MeterRegistry meterRegistry) {
+        return pool(UI_POOL, new ClientPoolSettings(100, Duration.ofMillis(250), CONNECT_TIMEOUT,
+                Duration.ofSeconds(60), httpVersion(UpstreamBalancer.UI_SERVICE)), properties, meterRegistry);
+    }
+
+    /**
+     * Las rutas JSON con GET idempotentes de estado y notas de IA usan el
+     * exchange con hedging y reintentos de su pool. ui-service no: sus rutas
+     * son sticky (sesión en memoria) y una copia a otra réplica no tiene
+     * sesión.
+     */
+    @Bean
+    public ProxyExchange proxyExchange(UpstreamClientPool aiClientPool,
+            UpstreamClientPool stateClientPool,
+            UpstreamClientPool uiClientPool,
+            UpstreamBalancer balancer,
+            MeterRegistry meterRegistry) {
+        ProxyExchange uiExchange = uiClientPool.exchange();
+        return new RouteAwareProxyExchange(
+                Map.of(
+                        RoutesConfig.AI_ROUTE, aiClientPool.hedgedExchange(UpstreamBalancer.AI_SERVICE, balancer,
+                                HedgingSettings.from(environment, AI_POOL), meterRegistry),
+                        RoutesConfig.PRESENTATION_STREAM_ROUTE, uiClientPool.streamingExchange(),
+                        RoutesConfig.PRESENTATION_API_ROUTE, uiExchange,
+                        RoutesConfig.STATE_STREAM_ROUTE, stateClientPool.streamingExchange(),
+                        RoutesConfig.STATE_ROUTE, stateClientPool.hedgedExchange(UpstreamBalancer.STATE_SERVICE,
+                                balancer, HedgingSettings.from(environment, STATE_POOL), meterRegistry),
+                        RoutesConfig.UI_ASSET_ROUTE, uiExchange,
+                        RoutesConfig.UI_ROUTE, uiExchange,
+                        RoutesConfig.PRESENTATION_ROUTE, uiExchange),
+                uiExchange);
+    }
+
+    /**
+     * Versión HTTP por defecto de un pool: HTTP/2 solo si todas las réplicas
+     * del servicio son https (h2 negociado por ALPN). Contra http:// el JDK
+     * intentaría un upgrade h2c en cada conexión nueva, que los servicios no
+     * aceptan.
+     */
+    private HttpClient.Version httpVersion(String service) {
+        String instances = environment.getProperty("slidehub." + service + ".instances");
+        if (instances == null || instances.isBlank()) {
+            instances = environment.getProperty("slidehub." + service + ".url", "");
+        }
+        boolean allTls = !instances.isBlank() && Arrays.stream(instances.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .allMatch(url -> url.startsWith("https://"));
+        return allTls ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+    }
+
+    private UpstreamClientPool pool(String name, ClientPoolSettings defaults,
+            GatewayMvcProperties properties, MeterRegistry meterRegistry) {
+        return new UpstreamClientPool(name, ClientPoolSettings.from(environment, name, defaults),
+                properties, meterRegistry, observationRegistry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.brixo.slidehub.gateway.config;
+
+import com.brixo.slidehub.gateway.ratelimit.RedisTokenBucketStore;
+import com.brixo.slidehub.gateway.ratelimit.StripedTokenBucketStore;
+import com.brixo.slidehub.gateway.ratelimit.TokenBucketStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Almacén de token buckets del rate limiter.
+ *
+ * slidehub.gateway.rate-limit.store=memory (por defecto) → buckets por réplica.
+ * slidehub.gateway.rate-limit.store=redis → buckets compartidos entre réplicas
+ * del gateway (mismo Redis que state-service), con la memoria local como
+ * respaldo si Redis falla.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${slidehub.gateway.rate-limit.stripes:64}")
+    private int stripes;
+
+    @Value("${slidehub.gateway.rate-limit.max-buckets-per-stripe:4096}")
+    private int maxBucketsPerStripe;
+
+    @Bean
+    @ConditionalOnProperty(name = "slidehub.gateway.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+    public TokenBucketStore memoryTokenBucketStore() {
+        return new StripedTokenBucketStore(stripes, maxBucketsPerStripe);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "slidehub.gateway.rate-limit.store", havingValue = "redis")
+    public TokenBucketStore redisTokenBucketStore(StringRedisTemplate redisTemplate) {
+        return new RedisTokenBucketStore(redisTemplate, new StripedTokenBucketStore(stripes, maxBucketsPerStripe));
+    }
+}
@@ -1,106 +1,259 @@
 package com.brixo.slidehub.gateway.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.brixo.slidehub.gateway.filter.CachingFilters;
+import com.brixo.slidehub.gateway.filter.CircuitBreaker;
+import com.brixo.slidehub.gateway.filter.CompressionFilters;
+import com.brixo.slidehub.gateway.filter.LoadBalancingFilters;
+import com.brixo.slidehub.gateway.filter.LoadSheddingFilters;
+import com.brixo.slidehub.gateway.filter.OpenConnectionTracker;
+import com.brixo.slidehub.gateway.ratelimit.RateLimitFilters;
+import com.brixo.slidehub.gateway.routing.CompiledRouterFunction;
+import com.brixo.slidehub.gateway.routing.RouteTable;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.RequestPredicate;
 import org.springframework.web.servlet.function.RequestPredicates;
 import org.springframework.web.servlet.function.RouterFunction;
 import org.springframework.web.servlet.function.ServerResponse;
 
-import static org.springframework.cloud.gateway.server.mvc.filter.FilterFunctions.uri;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.brixo.slidehub.gateway.proxy.UpstreamBalancer.AI_SERVICE;
+import static com.brixo.slidehub.gateway.proxy.UpstreamBalancer.STATE_SERVICE;
+import static com.brixo.slidehub.gateway.proxy.UpstreamBalancer.UI_SERVICE;
 import static org.springframework.cloud.gateway.server.mvc.handler.GatewayRouterFunctions.route;
 import static org.springframework.cloud.gateway.server.mvc.handler.HandlerFunctions.http;
 
 /**
  * Configuración de rutas del API Gateway (AGENTS.md §2.4).
  *
- * ORDEN IMPORTANTE — evaluado de menor a mayor número:
+ * ORDEN IMPORTANTE — si varias rutas coinciden gana la de menor número:
  * /api/ai/** → ai-service:8083 (Order 1)
- * /api/presentations/** → ui-service:8082 (Order 2) — ANTES del catch-all de
+ * /api/presentations/** con Accept: text/event-stream → ui-service:8082
+ * (Order 2) — streaming SSE sin buffer
+ * /api/presentations/** → ui-service:8082 (Order 3) — ANTES del catch-all de
  * state
- * /api/** → state-service:8081 (Order 3)
+ * /api/** con Accept: text/event-stream → state-service:8081 (Order 4)
+ * /api/** → state-service:8081 (Order 5)
+ * /css/**, /js/**, /favicon.ico → ui-service:8082 (Order 6)
  * /auth/**, /slides, /presenter, /presentations/**, etc. → ui-service:8082
- * (Order 4)
- * /presentation/** → ui-service:8082 (Order 5)
+ * (Order 7)
+ * /presentation/**, /storage/** → ui-service:8082 (Order 8)
+ *
+ * Todas las rutas se compilan en una única {@link RouteTable} (trie de
+ * segmentos de path): resolver una petición cuesta lo mismo con 8 rutas que
+ * con 80. Cada ruta sigue siendo una RouterFunction de Server MVC con sus
+ * filtros; {@link CompiledRouterFunction} solo decide a cuál delegar y mide su
+ * latencia (slidehub.gateway.route.duration).
+ *
+ * Los WebSocket (/ws/**) no pasan por estas rutas: los atiende el relay de
+ * {@link WebSocketProxyConfig}.
+ *
+ * Las rutas de IA y de la API de presentaciones son de baja prioridad: pasan
+ * por {@link LoadSheddingFilters} (concurrencia + circuit breaker, 503 rápido)
+ * para que /api/slide y /api/demo nunca compitan con ellas.
+ *
+ * El destino de cada ruta lo elige {@link LoadBalancingFilters} entre las
+ * réplicas del servicio (slidehub.{servicio}.instances). Los streams y
+ * ui-service (sesión HTTP en memoria) usan afinidad por cookie.
+ *
+ * Las rutas de state-service pasan antes por {@link RateLimitFilters}
+ * (token bucket por dispositivo/IP, 429 + Retry-After).
+ *
+ * Las respuestas de texto no-streaming se comprimen con gzip
+ * ({@link CompressionFilters}); los assets llevan Cache-Control + ETag fuerte
+ * y se responden con 304 si no cambiaron ({@link CachingFilters}).
  */
 @Configuration
 public class RoutesConfig {
 
-        @Value("${slidehub.ai-service.url:http://localhost:8083}")
-        private String aiServiceUrl;
+        public static final String AI_ROUTE = "ai-service-routes";
+        public static final String PRESENTATION_STREAM_ROUTE = "presentation-stream-routes";
+        public static final String PRESENTATION_API_ROUTE = "presentation-api-routes";
+        public static final String STATE_STREAM_ROUTE = "state-service-stream-routes";
+        public static final String STATE_ROUTE = "state-service-routes";
+        public static final String UI_ASSET_ROUTE = "ui-asset-routes";
+        public static final String UI_ROUTE = "ui-service-routes";
+        public static final String PRESENTATION_ROUTE = "presentation-routes";
 
-        @Value("${slidehub.state-service.url:http://localhost:8081}")
-        private String stateServiceUrl;
+        private final LoadBalancingFilters loadBalancing;
+        private final RateLimitFilters rateLimit;
+        private final CompressionFilters compression;
+        private final CachingFilters caching;
+        private final LoadSheddingFilters loadShedding;
+        private final OpenConnectionTracker connectionTracker;
 
-        @Value("${slidehub.ui-service.url:http://localhost:8082}")
-        private String uiServiceUrl;
+        public RoutesConfig(LoadBalancingFilters loadBalancing,
+                        RateLimitFilters rateLimit,
+                        CompressionFilters compression,
+                        CachingFilters caching,
+                        LoadSheddingFilters loadShedding,
+                        OpenConnectionTracker connectionTracker) {
+                this.loadBalancing = loadBalancing;
+                this.rateLimit = rateLimit;
+                this.compression = compression;
+                this.caching = caching;
+                this.loadShedding = loadShedding;
+                this.connectionTracker = connectionTracker;
+        }
 
-        /** IA routes — DEBE evaluarse antes que /api/** (Order=1) */
         @Bean
-        @Order(1)
-        public RouterFunction<ServerResponse> aiRoutes() {
-                return route("ai-service-routes")
-                                .route(RequestPredicates.path("/api/ai/**"), http())
-                                .filter(uri(aiServiceUrl))
+        public RouterFunction<ServerResponse> gatewayRoutes(MeterRegistry meterRegistry) {
+                return new CompiledRouterFunction(routeTable(this::target), meterRegistry);
+        }
+
+        /**
+         * Tabla completa de rutas: id, order, paths y condición. Es estática para
+         * poder compilarla con destinos de prueba (RouteResolutionBenchmark).
+         *
+         * @param targets RouterFunction de Server MVC de cada id de ruta
+         */
+        public static RouteTable routeTable(Function<String, RouterFunction<ServerResponse>> targets) {
+                return RouteTable.builder()
+                                .route(AI_ROUTE, 1, List.of("/api/ai/**"), targets.apply(AI_ROUTE))
+                                .route(PRESENTATION_STREAM_ROUTE, 2, List.of("/api/presentations/**"),
+                                                acceptsEventStream(), targets.apply(PRESENTATION_STREAM_ROUTE))
+                                .route(PRESENTATION_API_ROUTE, 3, List.of("/api/presentations/**"),
+                                                targets.apply(PRESENTATION_API_ROUTE))
+                                .route(STATE_STREAM_ROUTE, 4, List.of("/api/**"), acceptsEventStream(),
+                                                targets.apply(STATE_STREAM_ROUTE))
+                                .route(STATE_ROUTE, 5, List.of("/api/**"), targets.apply(STATE_ROUTE))
+                                .route(UI_ASSET_ROUTE, 6, List.of("/css/**", "/js/**", "/favicon.ico"), // Fase 2
+                                                targets.apply(UI_ASSET_ROUTE))
+                                .route(UI_ROUTE, 7, List.of(
+                                                "/auth/**",
+                                                "/oauth2/**", // /oauth2/authorization/{provider}
+                                                "/login/oauth2/**", // /login/oauth2/code/{provider}
+                                                "/slides",
+                                                "/remote",
+                                                "/presenter",
+                                                "/main-panel",
+                                                "/demo",
+                                                "/showcase",
+                                                "/deploy-tutor",
+                                                "/presentations/**"),
+                                                targets.apply(UI_ROUTE))
+                                .route(PRESENTATION_ROUTE, 8, List.of(
+                                                "/presentation/**", // HU-013
+                                                "/storage/**"), // slides del backend local de ui-service
+                                                targets.apply(PRESENTATION_ROUTE))
+                                .build();
+        }
+
+        private RouterFunction<ServerResponse> target(String routeId) {
+                return switch (routeId) {
+                        case AI_ROUTE -> aiRoutes();
+                        case PRESENTATION_STREAM_ROUTE -> presentationStreamRoutes();
+                        case PRESENTATION_API_ROUTE -> presentationApiRoutes();
+                        case STATE_STREAM_ROUTE -> stateStreamRoutes();
+                        case STATE_ROUTE -> stateRoutes();
+                        case UI_ASSET_ROUTE -> uiAssetRoutes();
+                        case UI_ROUTE -> uiRoutes();
+                        case PRESENTATION_ROUTE -> presentationRoutes();
+                        default -> throw new IllegalArgumentException("Ruta desconocida: " + routeId);
+                };
+        }
+
+        /** IA routes — DEBE ganar a /api/** (Order=1) */
+        private RouterFunction<ServerResponse> aiRoutes() {
+                return route(AI_ROUTE)
+                                .route(RequestPredicates.all(), http())
+                                .filter(loadShedding.protect("ai", 16, new CircuitBreaker.Settings(
+                                                20, 10, 50, Duration.ofSeconds(90), Duration.ofSeconds(30), 2)))
+                                .filter(compression.gzip())
+                                .filter(loadBalancing.balance(AI_SERVICE))
                                 .build();
         }
 
         /**
-         * Presentations API → ui-service (Order=2).
-         * DEBE ir ANTES que /api/** (Order=3) para no caer en state-service.
+         * Eventos SSE de presentaciones → ui-service (Order=2).
+         * Se separa de la ruta JSON para usar el cliente sin read-timeout y contar
+         * las conexiones abiertas.
          */
-        @Bean
-        @Order(2)
-        public RouterFunction<ServerResponse> presentationApiRoutes() {
-                return route("presentation-api-routes")
-                                .route(RequestPredicates.path("/api/presentations/**"), http())
-                                .filter(uri(uiServiceUrl))
+        private RouterFunction<ServerResponse> presentationStreamRoutes() {
+                return route(PRESENTATION_STREAM_ROUTE)
+                                .route(RequestPredicates.all(), http())
+                                .filter(connectionTracker.trackStreams(PRESENTATION_STREAM_ROUTE))
+                                .filter(loadBalancing.sticky(UI_SERVICE))
                                 .build();
         }
 
-        /** State routes (Order=3) */
-        @Bean
-        @Order(3)
-        public RouterFunction<ServerResponse> stateRoutes() {
-                return route("state-service-routes")
-                                .route(RequestPredicates.path("/api/**"), http())
-                                .filter(uri(stateServiceUrl))
+        /**
+         * Presentations API → ui-service (Order=3).
+         * DEBE ganar a /api/** (Order=5) para no caer en state-service.
+         */
+        private RouterFunction<ServerResponse> presentationApiRoutes() {
+                return route(PRESENTATION_API_ROUTE)
+                                .route(RequestPredicates.all(), http())
+                                .filter(loadShedding.protect("presentations", 32, new CircuitBreaker.Settings(
+                                                20, 10, 50, Duration.ofSeconds(120), Duration.ofSeconds(15), 2)))
+                                .filter(compression.gzip())
+                                .filter(loadBalancing.sticky(UI_SERVICE))
                                 .build();
         }
 
-        /** UI application routes + auth + OAuth2 (Order=4) */
-        @Bean
-        @Order(4)
-        public RouterFunction<ServerResponse> uiRoutes() {
-                return route("ui-service-routes")
-                                .route(
-                                                RequestPredicates.path("/auth/**")
-                                                                .or(RequestPredicates.path("/oauth2/**")) // /oauth2/authorization/{provider}
-                                                                .or(RequestPredicates.path("/login/oauth2/**")) // /login/oauth2/code/{provider}
-                                                                .or(RequestPredicates.path("/slides"))
-                                                                .or(RequestPredicates.path("/remote"))
-                                                                .or(RequestPredicates.path("/presenter"))
-                                                                .or(RequestPredicates.path("/main-panel"))
-                                                                .or(RequestPredicates.path("/demo"))
-                                                                .or(RequestPredicates.path("/showcase"))
-                                                                .or(RequestPredicates.path("/deploy-tutor"))
-                                                                .or(RequestPredicates.path("/presentations/**"))
-                                                                .or(RequestPredicates.path("/css/**"))
-                                                                .or(RequestPredicates.path("/js/**"))
-                                                                .or(RequestPredicates.path("/favicon.ico")), // Fase 2
-                                                http())
-                                .filter(uri(uiServiceUrl))
+        /** Eventos SSE de estado (push de slide/demo) → state-service (Order=4) */
+        private RouterFunction<ServerResponse> stateStreamRoutes() {
+                return route(STATE_STREAM_ROUTE)
+                                .route(RequestPredicates.all(), http())
+                                .filter(rateLimit.limit(STATE_STREAM_ROUTE))
+                                .filter(connectionTracker.trackStreams(STATE_STREAM_ROUTE))
+                                .filter(loadBalancing.sticky(STATE_SERVICE))
                                 .build();
         }
 
-        /** Presentation static assets (HU-013, Order=5) */
-        @Bean
-        @Order(5)
-        public RouterFunction<ServerResponse> presentationRoutes() {
-                return route("presentation-routes")
-                                .route(RequestPredicates.path("/presentation/**"), http())
-                                .filter(uri(uiServiceUrl))
+        /** State routes (Order=5) */
+        private RouterFunction<ServerResponse> stateRoutes() {
+                return route(STATE_ROUTE)
+                                .route(RequestPredicates.all(), http())
+                                .filter(rateLimit.limit(STATE_ROUTE))
+                                .filter(compression.gzip())
+                                .filter(loadBalancing.balance(STATE_SERVICE))
+                                .build();
+        }
+
+        /**
+         * CSS/JS de ui-service (Order=6). ETag se calcula sobre el body ya
+         * comprimido: caching va antes que compression en la cadena.
+         */
+        private RouterFunction<ServerResponse> uiAssetRoutes() {
+                return route(UI_ASSET_ROUTE)
+                                .route(RequestPredicates.all(), http())
+                                .filter(caching.assets("static", Duration.ofHours(1), false))
+                                .filter(compression.gzip())
+                                .filter(loadBalancing.sticky(UI_SERVICE))
                                 .build();
         }
+
+        /** UI application routes + auth + OAuth2 (Order=7) */
+        private RouterFunction<ServerResponse> uiRoutes() {
+                return route(UI_ROUTE)
+                                .route(RequestPredicates.all(), http())
+                                .filter(compression.gzip())
+                                .filter(loadBalancing.sticky(UI_SERVICE))
+                                .build();
+        }
+
+        /** Presentation static assets (HU-013, Order=8) */
+        private RouterFunction<ServerResponse> presentationRoutes() {
+                return route(PRESENTATION_ROUTE)
+                                .route(RequestPredicates.all(), http())
+                                .filter(caching.assets("slides", Duration.ofHours(12), false))
+                                .filter(loadBalancing.sticky(UI_SERVICE))
+                                .build();
+        }
+
+        /**
+         * EventSource siempre envía Accept: text/event-stream. No se usa
+         * RequestPredicates.accept() porque un Accept comodín (fetch, curl) también
+         * sería compatible y desviaría los polls JSON a la ruta de streaming.
+         */
+        private static RequestPredicate acceptsEventStream() {
+                return RequestPredicates.headers(headers -> headers.accept().stream()
+                                .anyMatch(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype));
+        }
 }
@@ -0,0 +1,86 @@
+package com.brixo.slidehub.gateway.config;
+
+import com.brixo.slidehub.gateway.filter.OpenConnectionTracker;
+import com.brixo.slidehub.gateway.proxy.UpstreamBalancer;
+import com.brixo.slidehub.gateway.proxy.WebSocketProxyHandler;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+import java.time.Duration;
+
+/**
+ * Proxy de WebSocket del gateway (push de estado a proyectores y remotes).
+ *
+ * /ws/** → réplicas de state-service (mismo path, esquema ws/wss)
+ *
+ * El idle-timeout se aplica tanto a la sesión del cliente como a la del
+ * upstream para que conexiones sin tráfico se liberen en ambos lados.
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketProxyConfig implements WebSocketConfigurer {
+
+    public static final String STATE_WEBSOCKET_ROUTE = "state-service-websocket";
+
+    private final OpenConnectionTracker connectionTracker;
+    private final UpstreamBalancer balancer;
+
+    @Value("${slidehub.gateway.stream.idle-timeout:30m}")
+    private Duration idleTimeout;
+
+    @Value("${slidehub.gateway.proxy.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${slidehub.gateway.websocket.send-time-limit:10s}")
+    private Duration sendTimeLimit;
+
+    @Value("${slidehub.gateway.websocket.buffer-size-limit:524288}")
+    private int bufferSizeLimit;
+
+    public WebSocketProxyConfig(OpenConnectionTracker connectionTracker, UpstreamBalancer balancer) {
+        this.connectionTracker = connectionTracker;
+        this.balancer = balancer;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(stateWebSocketProxyHandler(), "/ws/**")
+                .setAllowedOriginPatterns("*");
+    }
+
+    @Bean
+    public WebSocketProxyHandler stateWebSocketProxyHandler() {
+        return new WebSocketProxyHandler(STATE_WEBSOCKET_ROUTE,
+                UpstreamBalancer.STATE_SERVICE,
+                balancer,
+                upstreamWebSocketClient(),
+                connectionTracker,
+                connectTimeout,
+                (int) sendTimeLimit.toMillis(),
+                bufferSizeLimit);
+    }
+
+    @Bean
+    public WebSocketClient upstreamWebSocketClient() {
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        container.setDefaultMaxSessionIdleTimeout(idleTimeout.toMillis());
+        return new StandardWebSocketClient(container);
+    }
+
+    /** Idle-timeout de las sesiones aceptadas por el contenedor (Tomcat). */
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxSessionIdleTimeout(idleTimeout.toMillis());
+        return container;
+    }
+}
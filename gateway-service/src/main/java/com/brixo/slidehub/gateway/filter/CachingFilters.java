@@ -0,0 +1,378 @@
+package com.brixo.slidehub.gateway.filter;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.env.Environment;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Cache-Control + ETag fuerte para assets servidos a través del gateway
+ * (/css/**, /js/**, imágenes de slides en /presentation/**).
+ *
+ * Para las respuestas del upstream que solo traen Last-Modified, el gateway:
+ * - añade {@code Cache-Control: public, max-age=...} (más {@code immutable} si
+ * el grupo lo declara así),
+ * - calcula un ETag fuerte con el SHA-256 del body tal como se envía al
+ * cliente (si además se comprime, el ETag identifica la versión gzip),
+ * - responde 304 sin body si el If-None-Match del cliente coincide.
+ *
+ * El body se acumula en memoria hasta {@code max-etag-size}; por encima se
+ * envía en streaming sin ETag (solo Cache-Control).
+ *
+ * Lo que decide el upstream se respeta: un Cache-Control propio (p. ej. las
+ * URLs versionadas immutable o el no-cache de SlideAssetController) no se
+ * sobrescribe, y si ya trae ETag la respuesta pasa en streaming sin buffer (el
+ * upstream resuelve If-None-Match y Range). La excepción es el
+ * {@code no-store} que Spring Security añade por defecto a toda respuesta sin
+ * Cache-Control: en un asset público no es una decisión del upstream, así que
+ * se sustituye (junto con su Pragma y Expires) por el del grupo.
+ *
+ * Configuración: slidehub.gateway.caching.{grupo}.* (ver application.properties).
+ */
+@Component
+public class CachingFilters {
+
+    private static final String PREFIX = "slidehub.gateway.caching.";
+
+    /** Cache-Control por defecto de Spring Security (CacheControlHeadersWriter). */
+    static final String SECURITY_DEFAULT_CACHE_CONTROL = "no-cache, no-store, max-age=0, must-revalidate";
+
+    private final Environment environment;
+    private final int maxEtagSize;
+
+    public CachingFilters(Environment environment) {
+        this.environment = environment;
+        this.maxEtagSize = environment.getProperty(PREFIX + "max-etag-size", Integer.class, 8 * 1024 * 1024);
+    }
+
+    /**
+     * @param group            nombre del grupo de assets (clave de configuración)
+     * @param defaultMaxAge    max-age por defecto
+     * @param defaultImmutable si los recursos del grupo nunca cambian de contenido
+     *                         bajo la misma URL
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> assets(String group, Duration defaultMaxAge,
+            boolean defaultImmutable) {
+        String groupPrefix = PREFIX + group + ".";
+        Duration maxAge = environment.getProperty(groupPrefix + "max-age", Duration.class, defaultMaxAge);
+        boolean immutable = environment.getProperty(groupPrefix + "immutable", Boolean.class, defaultImmutable);
+        String cacheControl = CacheControl.maxAge(maxAge).cachePublic().getHeaderValue()
+                + (immutable ? ", immutable" : "");
+
+        return (request, next) -> {
+            ServerResponse response = next.handle(request);
+            if (request.method() != HttpMethod.GET
+                    || response.statusCode().value() != HttpStatus.OK.value()
+                    || GatewayResponses.isRejectedByGateway(response)) {
+                return response;
+            }
+            String upstreamCacheControl = response.headers().getCacheControl();
+            if (upstreamCacheControl == null
+                    || SECURITY_DEFAULT_CACHE_CONTROL.equalsIgnoreCase(upstreamCacheControl)) {
+                response.headers().set(HttpHeaders.CACHE_CONTROL, cacheControl);
+                response.headers().remove(HttpHeaders.PRAGMA);
+                response.headers().remove(HttpHeaders.EXPIRES);
+            }
+            if (response.headers().getETag() != null
+                    || response.headers().getContentLength() > maxEtagSize) {
+                return response;
+            }
+            return new EtagResponse(response, maxEtagSize);
+        };
+    }
+
+    static String strongEtag(byte[] body, int length) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(body, 0, length);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(sha256.digest()) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Respuesta delegada que acumula el body para calcular el ETag antes de
+     * escribir nada al cliente.
+     */
+    private static final class EtagResponse implements ServerResponse {
+
+        private final ServerResponse delegate;
+        private final int maxBufferSize;
+
+        private EtagResponse(ServerResponse delegate, int maxBufferSize) {
+            this.delegate = delegate;
+            this.maxBufferSize = maxBufferSize;
+        }
+
+        @Override
+        public HttpStatusCode statusCode() {
+            return delegate.statusCode();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return delegate.headers();
+        }
+
+        @Override
+        public MultiValueMap<String, Cookie> cookies() {
+            return delegate.cookies();
+        }
+
+        @Override
+        public ModelAndView writeTo(HttpServletRequest request, HttpServletResponse response, Context context)
+                throws ServletException, IOException {
+            BufferingServletResponse buffering = new BufferingServletResponse(response, maxBufferSize);
+            ModelAndView result = delegate.writeTo(request, buffering, context);
+            buffering.flushWriter();
+            if (buffering.overflowed()) {
+                buffering.finishOverflow();
+                return result;
+            }
+
+            BufferingOutputStream body = buffering.body();
+            String etag = strongEtag(body.buffer(), body.size());
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                response.setContentLength(0);
+                return result;
+            }
+            response.setContentLength(body.size());
+            response.getOutputStream().write(body.buffer(), 0, body.size());
+            return result;
+        }
+    }
+
+    private static final class BufferingServletResponse extends HttpServletResponseWrapper {
+
+        private final BufferingOutputStream body;
+        private PrintWriter writer;
+
+        private BufferingServletResponse(HttpServletResponse response, int maxBufferSize) {
+            super(response);
+            this.body = new BufferingOutputStream(response, maxBufferSize);
+        }
+
+        private BufferingOutputStream body() {
+            return body;
+        }
+
+        private boolean overflowed() {
+            return body.overflowed;
+        }
+
+        private void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        private void finishOverflow() throws IOException {
+            // En modo asíncrono no se puede escribir (ni hacer flush) sin isReady()
+            if (body.target().isReady()) {
+                body.target().flush();
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return body;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                String encoding = getCharacterEncoding() != null ? getCharacterEncoding()
+                        : StandardCharsets.UTF_8.name();
+                writer = new PrintWriter(new OutputStreamWriter(body, encoding));
+            }
+            return writer;
+        }
+
+        // Content-Length se fija al conocer el body completo (o nunca, si desborda)
+        @Override
+        public void setContentLength(int len) {
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        // Un flush comprometería la respuesta antes de poder responder 304
+        @Override
+        public void flushBuffer() throws IOException {
+            if (body.overflowed) {
+                body.target().flush();
+            }
+        }
+    }
+
+    /**
+     * Acumula en memoria hasta {@code maxBufferSize} bytes; al superarlo vuelca
+     * lo acumulado al cliente y sigue en modo streaming.
+     */
+    private static final class BufferingOutputStream extends ServletOutputStream {
+
+        private final HttpServletResponse response;
+        private final int maxBufferSize;
+        private final ExposedByteArrayOutputStream buffer = new ExposedByteArrayOutputStream();
+        private ServletOutputStream target;
+        private boolean overflowed;
+
+        private BufferingOutputStream(HttpServletResponse response, int maxBufferSize) {
+            this.response = response;
+            this.maxBufferSize = maxBufferSize;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!overflowed && buffer.size() + len > maxBufferSize) {
+                overflowed = true;
+                target().write(buffer.buffer(), 0, buffer.size());
+                buffer.reset();
+            }
+            if (overflowed) {
+                target().write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (overflowed) {
+                target().flush();
+            }
+        }
+
+        private ServletOutputStream target() throws IOException {
+            if (target == null) {
+                target = response.getOutputStream();
+            }
+            return target;
+        }
+
+        private byte[] buffer() {
+            return buffer.buffer();
+        }
+
+        private int size() {
+            return buffer.size();
+        }
+
+        @Override
+        public boolean isReady() {
+            if (overflowed) {
+                try {
+                    return target().isReady();
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Escritura asíncrona: se delega al stream real, igual que en
+         * CompressionFilters. Lo acumulado se vuelca y la respuesta sigue sin
+         * ETag, como al desbordar: en modo no bloqueante no se puede escribir
+         * al cliente hasta que el contenedor avise con onWritePossible.
+         */
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                ServletOutputStream stream = target();
+                boolean pending = !overflowed && buffer.size() > 0;
+                overflowed = true;
+                stream.setWriteListener(new WriteListener() {
+                    private boolean drained = !pending;
+
+                    @Override
+                    public void onWritePossible() throws IOException {
+                        if (!drained) {
+                            drained = true;
+                            stream.write(buffer.buffer(), 0, buffer.size());
+                            buffer.reset();
+                            if (!stream.isReady()) {
+                                return;
+                            }
+                        }
+                        writeListener.onWritePossible();
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        writeListener.onError(t);
+                    }
+                });
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo obtener el stream de la respuesta", e);
+            }
+        }
+    }
+
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        private byte[] buffer() {
+            return buf;
+        }
+    }
+}
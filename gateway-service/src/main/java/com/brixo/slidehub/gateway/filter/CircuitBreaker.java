@@ -0,0 +1,179 @@
+package com.brixo.slidehub.gateway.filter;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker por ventana deslizante de llamadas (count-based).
+ *
+ * - CLOSED: deja pasar todo; si en las últimas {@code windowSize} llamadas el
+ * porcentaje de fallos (5xx, excepción o llamada lenta) supera el umbral, abre.
+ * - OPEN: rechaza sin llamar al upstream durante {@code openDuration}.
+ * - HALF_OPEN: deja pasar {@code halfOpenCalls} llamadas de prueba; si todas
+ * van bien cierra, si alguna falla vuelve a abrir.
+ *
+ * Las rutas protegidas (IA, presentaciones) tienen poco tráfico, así que un
+ * único monitor es suficiente.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * @param windowSize           llamadas consideradas para la tasa de fallos
+     * @param minimumCalls         llamadas mínimas antes de evaluar la tasa
+     * @param failureRateThreshold porcentaje (0-100) de fallos que abre el
+     *                             circuito
+     * @param slowCallDuration     llamadas más lentas que esto cuentan como fallo
+     * @param openDuration         tiempo en OPEN antes de probar de nuevo
+     * @param halfOpenCalls        llamadas de prueba en HALF_OPEN
+     */
+    public record Settings(int windowSize,
+            int minimumCalls,
+            int failureRateThreshold,
+            Duration slowCallDuration,
+            Duration openDuration,
+            int halfOpenCalls) {
+
+        public static Settings from(Environment environment, String prefix, Settings defaults) {
+            return new Settings(
+                    environment.getProperty(prefix + "window-size", Integer.class, defaults.windowSize()),
+                    environment.getProperty(prefix + "minimum-calls", Integer.class, defaults.minimumCalls()),
+                    environment.getProperty(prefix + "failure-rate-threshold", Integer.class,
+                            defaults.failureRateThreshold()),
+                    environment.getProperty(prefix + "slow-call-duration", Duration.class,
+                            defaults.slowCallDuration()),
+                    environment.getProperty(prefix + "open-duration", Duration.class, defaults.openDuration()),
+                    environment.getProperty(prefix + "half-open-calls", Integer.class, defaults.halfOpenCalls()));
+        }
+    }
+
+    private final String name;
+    private final Settings settings;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] outcomes;
+    private int position;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermitsLeft;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String name, Settings settings) {
+        this(name, settings, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, Settings settings, LongSupplier nanoClock) {
+        this.name = name;
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+        this.outcomes = new boolean[settings.windowSize()];
+    }
+
+    /** Indica si la llamada puede ir al upstream. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAtNanos < settings.openDuration().toNanos()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermitsLeft = settings.halfOpenCalls();
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitsLeft == 0) {
+                return false;
+            }
+            halfOpenPermitsLeft--;
+        }
+        return true;
+    }
+
+    /**
+     * Registra el resultado de una llamada autorizada por {@link #tryAcquire()}.
+     *
+     * @param elapsed duración de la llamada
+     * @param failed  true si el upstream falló (5xx o excepción)
+     */
+    public synchronized void record(Duration elapsed, boolean failed) {
+        boolean failure = failed || elapsed.compareTo(settings.slowCallDuration()) > 0;
+
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                open();
+            } else if (++halfOpenSuccesses >= settings.halfOpenCalls()) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+
+        if (recorded == outcomes.length) {
+            if (outcomes[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % outcomes.length;
+
+        if (recorded >= settings.minimumCalls()
+                && failures * 100 >= settings.failureRateThreshold() * recorded) {
+            open();
+        }
+    }
+
+    /**
+     * Devuelve sin resultado una llamada autorizada que no llegó al upstream
+     * (rechazada por el propio gateway: bulkhead, rate limit...). No cuenta
+     * como éxito ni como fallo; en HALF_OPEN libera la prueba para otra
+     * llamada.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenPermitsLeft < settings.halfOpenCalls() - halfOpenSuccesses) {
+            halfOpenPermitsLeft++;
+        }
+    }
+
+    /** Segundos restantes hasta el siguiente intento (para Retry-After). */
+    public synchronized long retryAfterSeconds() {
+        if (state != State.OPEN) {
+            return 1;
+        }
+        long remainingNanos = settings.openDuration().toNanos() - (nanoClock.getAsLong() - openedAtNanos);
+        return Math.max(1, Duration.ofNanos(remainingNanos).toSeconds());
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,273 @@
+package com.brixo.slidehub.gateway.filter;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresión gzip de respuestas de texto (HTML, CSS, JS, JSON) en el gateway.
+ *
+ * Se comprime solo si:
+ * - el cliente acepta gzip (Accept-Encoding),
+ * - el upstream no envió ya un Content-Encoding (p. ej. br precomprimido, que
+ * pasa tal cual),
+ * - el Content-Type está en {@code mime-types} (nunca text/event-stream: las
+ * rutas SSE no llevan este filtro),
+ * - el Content-Length es desconocido o supera {@code min-response-size}; los
+ * polls de /api/slide (~40 bytes) no compensan el coste de gzip.
+ *
+ * Configuración: slidehub.gateway.compression.* (ver application.properties).
+ */
+@Component
+public class CompressionFilters {
+
+    private static final String PREFIX = "slidehub.gateway.compression.";
+    private static final String GZIP = "gzip";
+
+    private final boolean enabled;
+    private final long minResponseSize;
+    private final int level;
+    private final List<MediaType> mimeTypes;
+
+    public CompressionFilters(Environment environment) {
+        this.enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, true);
+        this.minResponseSize = environment.getProperty(PREFIX + "min-response-size", Long.class, 1024L);
+        this.level = environment.getProperty(PREFIX + "level", Integer.class, 6);
+        this.mimeTypes = Arrays.stream(environment.getProperty(PREFIX + "mime-types",
+                "text/html,text/css,text/plain,text/javascript,application/javascript,application/json,image/svg+xml")
+                .split(","))
+                .map(String::trim)
+                .map(MediaType::parseMediaType)
+                .toList();
+    }
+
+    public HandlerFilterFunction<ServerResponse, ServerResponse> gzip() {
+        return (request, next) -> {
+            ServerResponse response = next.handle(request);
+            if (!enabled || !shouldCompress(request, response)) {
+                return response;
+            }
+            HttpHeaders headers = response.headers();
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return new GzipResponse(response, level);
+        };
+    }
+
+    private boolean shouldCompress(ServerRequest request, ServerResponse response) {
+        if (request.method() == HttpMethod.HEAD
+                || !response.statusCode().is2xxSuccessful()
+                || GatewayResponses.isRejectedByGateway(response)
+                || !acceptsGzip(request)) {
+            return false;
+        }
+        HttpHeaders headers = response.headers();
+        if (headers.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        if (contentType == null || mimeTypes.stream().noneMatch(type -> type.includes(contentType))) {
+            return false;
+        }
+        long contentLength = headers.getContentLength();
+        return contentLength < 0 || contentLength >= minResponseSize;
+    }
+
+    private static boolean acceptsGzip(ServerRequest request) {
+        for (String value : request.headers().header(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase(GZIP) || parts[0].trim().equals("*")) {
+                    return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Respuesta delegada que escribe el body del upstream a través de gzip. */
+    private static final class GzipResponse implements ServerResponse {
+
+        private final ServerResponse delegate;
+        private final int level;
+
+        private GzipResponse(ServerResponse delegate, int level) {
+            this.delegate = delegate;
+            this.level = level;
+        }
+
+        @Override
+        public HttpStatusCode statusCode() {
+            return delegate.statusCode();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return delegate.headers();
+        }
+
+        @Override
+        public MultiValueMap<String, Cookie> cookies() {
+            return delegate.cookies();
+        }
+
+        @Override
+        public ModelAndView writeTo(HttpServletRequest request, HttpServletResponse response, Context context)
+                throws ServletException, IOException {
+            GzipServletResponse gzipResponse = new GzipServletResponse(response, level);
+            try {
+                return delegate.writeTo(request, gzipResponse, context);
+            } finally {
+                gzipResponse.finish();
+            }
+        }
+    }
+
+    private static final class GzipServletResponse extends HttpServletResponseWrapper {
+
+        private final int level;
+        private GzipServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        private GzipServletResponse(HttpServletResponse response, int level) {
+            super(response);
+            this.level = level;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new GzipServletOutputStream(super.getOutputStream(), level);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                String encoding = getCharacterEncoding() != null ? getCharacterEncoding()
+                        : StandardCharsets.UTF_8.name();
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), encoding));
+            }
+            return writer;
+        }
+
+        // El tamaño comprimido no se conoce de antemano: la respuesta va chunked
+        @Override
+        public void setContentLength(int len) {
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.flush();
+            }
+            super.flushBuffer();
+        }
+
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.finish();
+            }
+        }
+    }
+
+    private static final class GzipServletOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream target;
+        private final GZIPOutputStream gzip;
+
+        private GzipServletOutputStream(ServletOutputStream target, int level) throws IOException {
+            this.target = target;
+            this.gzip = new LeveledGzipOutputStream(target, level);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            gzip.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            gzip.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            gzip.flush();
+        }
+
+        private void finish() throws IOException {
+            gzip.finish();
+            target.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            target.setWriteListener(writeListener);
+        }
+    }
+
+    /** GZIPOutputStream con nivel configurable y syncFlush para no retener datos en flush(). */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        private LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, 8192, true);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.brixo.slidehub.gateway.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * Respuestas generadas por el propio gateway (sin llegar al upstream).
+ *
+ * Llevan el header {@link #REJECTED_HEADER} con el motivo para que los
+ * filtros de resiliencia no las confundan con fallos del servicio.
+ */
+public final class GatewayResponses {
+
+    public static final String REJECTED_HEADER = "X-Gateway-Rejected";
+
+    private GatewayResponses() {
+    }
+
+    /**
+     * 503 con {@code Retry-After} para que clientes y TVs reintenten más tarde
+     * en lugar de acumular peticiones.
+     *
+     * @param reason            motivo (bulkhead, shed, circuit-open...)
+     * @param retryAfterSeconds segundos sugeridos antes de reintentar (mínimo 1)
+     */
+    public static ServerResponse unavailable(String reason, long retryAfterSeconds) {
+        return rejected(HttpStatus.SERVICE_UNAVAILABLE, reason, retryAfterSeconds);
+    }
+
+    public static ServerResponse rejected(HttpStatus status, String reason, long retryAfterSeconds) {
+        return ServerResponse.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfterSeconds)))
+                .header(REJECTED_HEADER, reason)
+                .build();
+    }
+
+    public static boolean isRejectedByGateway(ServerResponse response) {
+        return response.headers().containsHeader(REJECTED_HEADER);
+    }
+}
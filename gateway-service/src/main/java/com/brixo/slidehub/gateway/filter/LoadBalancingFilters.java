@@ -0,0 +1,84 @@
+package com.brixo.slidehub.gateway.filter;
+
+import com.brixo.slidehub.gateway.proxy.UpstreamBalancer;
+import com.brixo.slidehub.gateway.proxy.UpstreamInstance;
+import jakarta.servlet.http.Cookie;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * Sustituye a {@code uri(url)} en las rutas: elige la réplica destino con
+ * {@link UpstreamBalancer} y la fija como URL de la petición.
+ *
+ * Variante sticky: la réplica elegida se recuerda en la cookie
+ * {@code SLIDEHUB_UPSTREAM_{servicio}}. Se usa en los streams (un EventSource
+ * que se reconecta vuelve a la réplica que tiene sus suscripciones) y en
+ * ui-service, cuya sesión HTTP vive en memoria de cada réplica.
+ */
+@Component
+public class LoadBalancingFilters {
+
+    /**
+     * Atributo de la petición con el id de la réplica fijada por afinidad: el
+     * exchange con hedging no la envía a otra réplica (ver HedgingProxyExchange).
+     */
+    public static final String PINNED_INSTANCE_ATTRIBUTE = LoadBalancingFilters.class.getName() + ".pinned";
+
+    private static final String AFFINITY_COOKIE_PREFIX = "SLIDEHUB_UPSTREAM_";
+
+    private final UpstreamBalancer balancer;
+
+    public LoadBalancingFilters(UpstreamBalancer balancer) {
+        this.balancer = balancer;
+    }
+
+    /** Least outstanding requests entre las réplicas sanas del servicio. */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> balance(String service) {
+        return (request, next) -> proxyTo(balancer.choose(service), request, next);
+    }
+
+    /** Como {@link #balance(String)} pero con afinidad por cookie. */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> sticky(String service) {
+        String cookieName = AFFINITY_COOKIE_PREFIX + service.replace('-', '_').toUpperCase();
+        return (request, next) -> {
+            Cookie current = request.cookies().getFirst(cookieName);
+            String affinityId = current != null ? current.getValue() : null;
+            UpstreamInstance instance = balancer.choose(service, affinityId);
+            request.attributes().put(PINNED_INSTANCE_ATTRIBUTE, instance.id());
+            ServerResponse response = proxyTo(instance, request, next);
+            // Las respuestas generadas por el gateway tienen headers inmutables
+            if (!instance.id().equals(affinityId) && !GatewayResponses.isRejectedByGateway(response)) {
+                response.headers().add(HttpHeaders.SET_COOKIE, ResponseCookie.from(cookieName, instance.id())
+                        .path("/")
+                        .httpOnly(true)
+                        .sameSite("Lax")
+                        .build()
+                        .toString());
+            }
+            return response;
+        };
+    }
+
+    private ServerResponse proxyTo(UpstreamInstance instance,
+            ServerRequest request,
+            HandlerFunction<ServerResponse> next) throws Exception {
+        MvcUtils.setRequestUrl(request, instance.uri());
+        instance.acquire();
+        try {
+            return next.handle(request);
+        } catch (ResourceAccessException e) {
+            // Conexión rechazada / timeout: la réplica probablemente está caída
+            balancer.reportFailure(instance);
+            throw e;
+        } finally {
+            instance.release();
+        }
+    }
+}
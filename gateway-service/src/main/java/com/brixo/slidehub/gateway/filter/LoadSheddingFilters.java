@@ -0,0 +1,146 @@
+package com.brixo.slidehub.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Protección de las rutas de baja prioridad (IA y presentaciones) para que una
+ * degradación de Gemini/Groq nunca afecte a /api/slide ni /api/demo.
+ *
+ * Cada ruta protegida pasa, en orden, por:
+ * 1. Límite global de baja prioridad: entre todas las rutas protegidas no
+ * pueden ocupar más de N hilos del servidor; el resto queda reservado para
+ * los polls de estado.
+ * 2. Límite de concurrencia de la ruta.
+ * 3. Circuit breaker de la ruta.
+ *
+ * Cualquier rechazo es inmediato: 503 + Retry-After, sin encolar.
+ *
+ * Configuración: slidehub.gateway.shedding.* (ver application.properties).
+ */
+@Component
+public class LoadSheddingFilters {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadSheddingFilters.class);
+
+    private static final String PREFIX = "slidehub.gateway.shedding.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore lowPriorityPermits;
+
+    public LoadSheddingFilters(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        int lowPriorityMax = environment.getProperty(PREFIX + "low-priority-max-concurrent", Integer.class, 120);
+        this.lowPriorityPermits = new Semaphore(lowPriorityMax);
+        Gauge.builder("slidehub.gateway.shedding.low-priority.active", lowPriorityPermits,
+                p -> lowPriorityMax - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Filtro completo de protección para una ruta de baja prioridad.
+     *
+     * @param name                  nombre corto de la ruta (clave de
+     *                              configuración y tag de métricas)
+     * @param defaultMaxConcurrent  límite de concurrencia por defecto
+     * @param defaultCircuitBreaker configuración por defecto del circuit breaker
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> protect(String name,
+            int defaultMaxConcurrent,
+            CircuitBreaker.Settings defaultCircuitBreaker) {
+        String routePrefix = PREFIX + name + ".";
+        int maxConcurrent = environment.getProperty(routePrefix + "max-concurrent", Integer.class,
+                defaultMaxConcurrent);
+        CircuitBreaker circuitBreaker = new CircuitBreaker(name, CircuitBreaker.Settings.from(
+                environment, routePrefix + "circuit-breaker.", defaultCircuitBreaker));
+
+        Gauge.builder("slidehub.gateway.circuit.state", circuitBreaker, cb -> cb.state().ordinal())
+                .description("0=CLOSED, 1=OPEN, 2=HALF_OPEN")
+                .tag("route", name)
+                .register(meterRegistry);
+
+        return lowPriority(name)
+                .andThen(concurrencyLimit(name, maxConcurrent))
+                .andThen(circuitBreaker(circuitBreaker));
+    }
+
+    HandlerFilterFunction<ServerResponse, ServerResponse> lowPriority(String name) {
+        Counter shed = shedCounter(name, "low-priority");
+        return (request, next) -> {
+            if (!lowPriorityPermits.tryAcquire()) {
+                shed.increment();
+                return GatewayResponses.unavailable("shed", 2);
+            }
+            try {
+                return next.handle(request);
+            } finally {
+                lowPriorityPermits.release();
+            }
+        };
+    }
+
+    HandlerFilterFunction<ServerResponse, ServerResponse> concurrencyLimit(String name, int maxConcurrent) {
+        Semaphore permits = new Semaphore(maxConcurrent);
+        Counter shed = shedCounter(name, "concurrency");
+        Gauge.builder("slidehub.gateway.shedding.active", permits, p -> maxConcurrent - p.availablePermits())
+                .tag("route", name)
+                .register(meterRegistry);
+        return (request, next) -> {
+            if (!permits.tryAcquire()) {
+                shed.increment();
+                return GatewayResponses.unavailable("concurrency", 2);
+            }
+            try {
+                return next.handle(request);
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    HandlerFilterFunction<ServerResponse, ServerResponse> circuitBreaker(CircuitBreaker circuitBreaker) {
+        Counter shed = shedCounter(circuitBreaker.name(), "circuit-open");
+        return (request, next) -> {
+            if (!circuitBreaker.tryAcquire()) {
+                shed.increment();
+                return GatewayResponses.unavailable("circuit-open", circuitBreaker.retryAfterSeconds());
+            }
+            long start = System.nanoTime();
+            try {
+                ServerResponse response = next.handle(request);
+                if (GatewayResponses.isRejectedByGateway(response)) {
+                    // No llegó al upstream: no dice nada de su salud
+                    circuitBreaker.release();
+                } else {
+                    circuitBreaker.record(Duration.ofNanos(System.nanoTime() - start),
+                            response.statusCode().is5xxServerError());
+                }
+                return response;
+            } catch (Exception e) {
+                circuitBreaker.record(Duration.ofNanos(System.nanoTime() - start), true);
+                log.warn("Fallo en ruta '{}' (circuito {}): {}", circuitBreaker.name(),
+                        circuitBreaker.state(), e.getMessage());
+                throw e;
+            }
+        };
+    }
+
+    private Counter shedCounter(String name, String reason) {
+        return Counter.builder("slidehub.gateway.shed")
+                .tag("route", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,119 @@
+package com.brixo.slidehub.gateway.filter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cuenta las conexiones de larga duración (SSE y WebSocket) abiertas por ruta.
+ *
+ * Expone el gauge {@code slidehub.gateway.connections.open} con tags
+ * {@code route} y {@code type} (sse | websocket) en /actuator/metrics.
+ */
+@Component
+public class OpenConnectionTracker {
+
+    public static final String TYPE_SSE = "sse";
+    public static final String TYPE_WEBSOCKET = "websocket";
+
+    private static final String METRIC_NAME = "slidehub.gateway.connections.open";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> openConnections = new ConcurrentHashMap<>();
+
+    public OpenConnectionTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Filtro para rutas SSE: la conexión se considera abierta mientras el body
+     * del upstream se copia al cliente (writeTo), no solo mientras dura el
+     * handler.
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> trackStreams(String routeId) {
+        AtomicInteger counter = counter(routeId, TYPE_SSE);
+        return (request, next) -> new TrackedResponse(next.handle(request), counter);
+    }
+
+    public void opened(String routeId, String type) {
+        counter(routeId, type).incrementAndGet();
+    }
+
+    public void closed(String routeId, String type) {
+        counter(routeId, type).decrementAndGet();
+    }
+
+    public int openConnections(String routeId, String type) {
+        return counter(routeId, type).get();
+    }
+
+    private AtomicInteger counter(String routeId, String type) {
+        return openConnections.computeIfAbsent(routeId + '|' + type, key -> {
+            AtomicInteger value = new AtomicInteger();
+            Gauge.builder(METRIC_NAME, value, AtomicInteger::get)
+                    .description("Conexiones SSE/WebSocket abiertas a través del gateway")
+                    .tag("route", routeId)
+                    .tag("type", type)
+                    .register(meterRegistry);
+            return value;
+        });
+    }
+
+    /**
+     * Respuesta delegada que mantiene el contador incrementado durante la
+     * escritura del stream.
+     */
+    private static final class TrackedResponse implements ServerResponse {
+
+        private final ServerResponse delegate;
+        private final AtomicInteger counter;
+
+        private TrackedResponse(ServerResponse delegate, AtomicInteger counter) {
+            this.delegate = delegate;
+            this.counter = counter;
+        }
+
+        @Override
+        public HttpStatusCode statusCode() {
+            return delegate.statusCode();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return delegate.headers();
+        }
+
+        @Override
+        public MultiValueMap<String, Cookie> cookies() {
+            return delegate.cookies();
+        }
+
+        @Override
+        public ModelAndView writeTo(HttpServletRequest request, HttpServletResponse response, Context context)
+                throws ServletException, IOException {
+            counter.incrementAndGet();
+            try {
+                // Evita que proxies intermedios (nginx, Render) acumulen el stream
+                response.setHeader("X-Accel-Buffering", "no");
+                return delegate.writeTo(request, response, context);
+            } finally {
+                counter.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.brixo.slidehub.gateway.proxy;
+
+import org.springframework.core.env.Environment;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Límites de un pool de cliente saliente del gateway.
+ *
+ * Se leen de {@code slidehub.gateway.clients.{pool}.*}; los valores por
+ * defecto de cada pool los define {@code ProxyClientConfig}.
+ *
+ * @param maxConcurrent  peticiones simultáneas hacia el servicio (bulkhead). Con
+ *                       HTTP/1.1 equivale al tamaño máximo del pool de
+ *                       conexiones.
+ * @param acquireTimeout espera máxima por un hueco en el bulkhead antes de
+ *                       responder 503
+ * @param connectTimeout timeout de conexión TCP/TLS
+ * @param readTimeout    timeout hasta recibir la respuesta del upstream
+ * @param httpVersion    HTTP_2 (h2 vía ALPN, con fallback a 1.1) o HTTP_1_1;
+ *                       por defecto HTTP_2 solo contra upstreams https
+ */
+public record ClientPoolSettings(
+        int maxConcurrent,
+        Duration acquireTimeout,
+        Duration connectTimeout,
+        Duration readTimeout,
+        HttpClient.Version httpVersion) {
+
+    private static final String PREFIX = "slidehub.gateway.clients.";
+
+    public static ClientPoolSettings from(Environment environment, String pool, ClientPoolSettings defaults) {
+        String prefix = PREFIX + pool + ".";
+        return new ClientPoolSettings(
+                environment.getProperty(prefix + "max-concurrent", Integer.class, defaults.maxConcurrent()),
+                environment.getProperty(prefix + "acquire-timeout", Duration.class, defaults.acquireTimeout()),
+                environment.getProperty(prefix + "connect-timeout", Duration.class, defaults.connectTimeout()),
+                environment.getProperty(prefix + "read-timeout", Duration.class, defaults.readTimeout()),
+                environment.getProperty(prefix + "http-version", HttpClient.Version.class, defaults.httpVersion()));
+    }
+}
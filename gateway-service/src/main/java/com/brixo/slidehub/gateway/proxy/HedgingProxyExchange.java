@@ -0,0 +1,330 @@
+package com.brixo.slidehub.gateway.proxy;
+
+import com.brixo.slidehub.gateway.filter.LoadBalancingFilters;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.server.mvc.handler.GatewayServerResponse;
+import org.springframework.cloud.gateway.server.mvc.handler.ProxyExchange;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.servlet.function.ServerResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedging y reintentos para los GET idempotentes de un pool (/api/slide,
+ * /api/demo, lectura de notas de IA).
+ *
+ * - Hedging: si la respuesta no llega en el percentil {@code percentile} de la
+ * latencia reciente (acotado a [min-delay, max-delay]) se lanza una copia a
+ * otra réplica y se usa la primera respuesta válida. Cubre los cold starts del
+ * hosting gratuito, en los que una réplica se queda parada varios segundos.
+ * - Reintentos: tras 502/503/504 o error de conexión, hasta
+ * {@code max-retries} veces con backoff exponencial y jitter completo,
+ * preferentemente en otra réplica.
+ *
+ * Copias y reintentos comparten un {@link RetryBudget} por pool, así que
+ * nunca multiplican la carga sobre un upstream degradado.
+ *
+ * Las peticiones de rutas sticky (sesión en memoria de una réplica de
+ * ui-service) nunca se copian ni se reintentan: otra réplica no conoce la
+ * cookie de sesión y respondería 302/401, que no es reintentable y podría
+ * ganar la carrera.
+ *
+ * Las respuestas de estas rutas son JSON pequeños: se leen completas en
+ * memoria para poder descartar la perdedora sin dejar conexiones a medias. El
+ * resto de peticiones pasa tal cual al exchange en streaming.
+ *
+ * Métricas (tag {@code pool}): slidehub.gateway.hedge.requests,
+ * slidehub.gateway.hedge.wins, slidehub.gateway.hedge.delay,
+ * slidehub.gateway.retry.requests, slidehub.gateway.retry.budget-exhausted.
+ */
+public class HedgingProxyExchange implements ProxyExchange {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingProxyExchange.class);
+
+    private static final Set<Integer> RETRYABLE_STATUS = Set.of(502, 503, 504);
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive",
+            "proxy-connection", "transfer-encoding", "te", "trailer", "upgrade", "content-length");
+
+    private final String service;
+    private final ProxyExchange delegate;
+    private final RestClient restClient;
+    private final UpstreamBalancer balancer;
+    private final HedgingSettings settings;
+    private final List<PathPattern> paths;
+    private final RetryBudget budget;
+    private final LatencyTracker latency;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final Counter retries;
+    private final Counter budgetExhausted;
+
+    public HedgingProxyExchange(String pool,
+            String service,
+            ProxyExchange delegate,
+            RestClient restClient,
+            UpstreamBalancer balancer,
+            HedgingSettings settings,
+            MeterRegistry meterRegistry) {
+        this.service = service;
+        this.delegate = delegate;
+        this.restClient = restClient;
+        this.balancer = balancer;
+        this.settings = settings;
+        this.paths = settings.paths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.budget = new RetryBudget(settings.budgetRatio(), settings.budgetMinPerSecond());
+        this.latency = new LatencyTracker(256, settings.percentile());
+
+        this.hedges = Counter.builder("slidehub.gateway.hedge.requests").tag("pool", pool).register(meterRegistry);
+        this.hedgeWins = Counter.builder("slidehub.gateway.hedge.wins").tag("pool", pool).register(meterRegistry);
+        this.retries = Counter.builder("slidehub.gateway.retry.requests").tag("pool", pool).register(meterRegistry);
+        this.budgetExhausted = Counter.builder("slidehub.gateway.retry.budget-exhausted")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("slidehub.gateway.hedge.delay", this, exchange -> exchange.hedgeDelay().toMillis())
+                .description("Espera actual (ms) antes de lanzar la petición hedged")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ServerResponse exchange(Request request) {
+        if (!isEligible(request)) {
+            return delegate.exchange(request);
+        }
+        budget.deposit();
+        long start = System.nanoTime();
+        BufferedResponse response = withRetries(request);
+        latency.record(Duration.ofNanos(System.nanoTime() - start));
+        return response.toServerResponse();
+    }
+
+    private boolean isEligible(Request request) {
+        if (!settings.enabled() || request.getMethod() != HttpMethod.GET) {
+            return false;
+        }
+        if (request.getServerRequest().attribute(LoadBalancingFilters.PINNED_INSTANCE_ATTRIBUTE).isPresent()) {
+            return false;
+        }
+        PathContainer path = PathContainer.parsePath(request.getUri().getRawPath());
+        return paths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    private BufferedResponse withRetries(Request request) {
+        URI uri = request.getUri();
+        UpstreamInstance instance = null; // la réplica inicial ya la contabiliza LoadBalancingFilters
+        BufferedResponse last = null;
+        RuntimeException lastError = null;
+        for (int attempt = 0; attempt <= settings.maxRetries(); attempt++) {
+            if (attempt > 0) {
+                if (!budget.tryWithdraw()) {
+                    budgetExhausted.increment();
+                    break;
+                }
+                retries.increment();
+                sleep(backoff(attempt));
+                Optional<UpstreamInstance> alternative = balancer.alternative(service, uri);
+                if (alternative.isPresent()) {
+                    instance = alternative.get();
+                    uri = relocate(uri, instance.uri());
+                }
+            }
+            try {
+                last = hedged(request, uri, instance);
+                lastError = null;
+                if (!RETRYABLE_STATUS.contains(last.status().value())) {
+                    return last;
+                }
+            } catch (RuntimeException e) {
+                last = null;
+                lastError = e;
+            }
+            log.debug("Intento {} fallido para {}", attempt + 1, uri.getPath());
+        }
+        if (last != null) {
+            return last;
+        }
+        throw lastError;
+    }
+
+    private BufferedResponse hedged(Request request, URI uri, UpstreamInstance instance) {
+        CompletableFuture<BufferedResponse> primary = submit(request, uri, instance);
+        try {
+            return primary.get(hedgeDelay().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // La réplica tarda más que el percentil: se lanza la copia
+        } catch (ExecutionException e) {
+            return await(primary);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrumpido esperando al upstream");
+        }
+
+        Optional<UpstreamInstance> alternative = balancer.alternative(service, uri);
+        if (alternative.isEmpty() || !budget.tryWithdraw()) {
+            return await(primary);
+        }
+        hedges.increment();
+        UpstreamInstance hedgeInstance = alternative.get();
+        CompletableFuture<BufferedResponse> hedge = submit(request, relocate(uri, hedgeInstance.uri()),
+                hedgeInstance);
+        return await(firstValid(primary, hedge));
+    }
+
+    /**
+     * Primera respuesta no reintentable; si ambas fallan, la última en llegar.
+     * La perdedora termina en segundo plano (acotada por el read-timeout).
+     */
+    private CompletableFuture<BufferedResponse> firstValid(CompletableFuture<BufferedResponse> primary,
+            CompletableFuture<BufferedResponse> hedge) {
+        CompletableFuture<BufferedResponse> winner = new CompletableFuture<>();
+        AtomicInteger pendingFailures = new AtomicInteger(2);
+        primary.whenComplete((response, error) -> complete(winner, pendingFailures, response, error, false));
+        hedge.whenComplete((response, error) -> complete(winner, pendingFailures, response, error, true));
+        return winner;
+    }
+
+    private void complete(CompletableFuture<BufferedResponse> winner, AtomicInteger pendingFailures,
+            BufferedResponse response, Throwable error, boolean fromHedge) {
+        boolean valid = error == null && !RETRYABLE_STATUS.contains(response.status().value());
+        if (valid) {
+            if (winner.complete(response) && fromHedge) {
+                hedgeWins.increment();
+            }
+        } else if (pendingFailures.decrementAndGet() == 0) {
+            if (error == null) {
+                winner.complete(response);
+            } else {
+                winner.completeExceptionally(error);
+            }
+        }
+    }
+
+    private CompletableFuture<BufferedResponse> submit(Request request, URI uri, UpstreamInstance instance) {
+        CompletableFuture<BufferedResponse> future = new CompletableFuture<>();
+        // El span del request entrante viaja al hilo virtual: la copia es un span hermano
+        ContextSnapshot snapshot = snapshotFactory.captureAll();
+        executor.execute(snapshot.wrap(() -> {
+            if (instance != null) {
+                instance.acquire();
+            }
+            try {
+                future.complete(call(request, uri));
+            } catch (ResourceAccessException e) {
+                if (instance != null) {
+                    balancer.reportFailure(instance);
+                }
+                future.completeExceptionally(e);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                if (instance != null) {
+                    instance.release();
+                }
+            }
+        }));
+        return future;
+    }
+
+    private BufferedResponse call(Request request, URI uri) {
+        return restClient.method(request.getMethod())
+                .uri(uri)
+                .headers(headers -> headers.putAll(request.getHeaders()))
+                .exchange((clientRequest, clientResponse) -> new BufferedResponse(
+                        clientResponse.getStatusCode(),
+                        clientResponse.getHeaders(),
+                        clientResponse.getBody().readAllBytes()), true);
+    }
+
+    private Duration hedgeDelay() {
+        Duration delay = latency.percentile(settings.maxDelay());
+        if (delay.compareTo(settings.minDelay()) < 0) {
+            return settings.minDelay();
+        }
+        return delay.compareTo(settings.maxDelay()) > 0 ? settings.maxDelay() : delay;
+    }
+
+    /** Backoff exponencial con jitter completo: aleatorio en [0, min(max, base·2^n)). */
+    private Duration backoff(int attempt) {
+        long ceiling = Math.min(settings.backoffMax().toMillis(),
+                settings.backoffBase().toMillis() << Math.min(attempt - 1, 16));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(Math.max(1, ceiling)));
+    }
+
+    private static URI relocate(URI uri, URI target) {
+        return UriComponentsBuilder.fromUri(uri)
+                .scheme(target.getScheme())
+                .host(target.getHost())
+                .port(target.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private static BufferedResponse await(CompletableFuture<BufferedResponse> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrumpido esperando al upstream");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new ResourceAccessException(e.getCause().getMessage());
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record BufferedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+        private ServerResponse toServerResponse() {
+            return GatewayServerResponse.status(status)
+                    .headers(target -> {
+                        headers.forEach((name, values) -> {
+                            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                                target.addAll(name, values);
+                            }
+                        });
+                        target.setContentLength(body.length);
+                    })
+                    .build((servletRequest, servletResponse) -> {
+                        servletResponse.getOutputStream().write(body);
+                        return null;
+                    });
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.brixo.slidehub.gateway.proxy;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hedging y reintentos de los GET idempotentes de un pool.
+ *
+ * Se leen de {@code slidehub.gateway.hedging.*} (comunes) y
+ * {@code slidehub.gateway.hedging.{pool}.enabled}.
+ *
+ * @param enabled            activa hedging + reintentos en el pool
+ * @param paths              patrones de path (GET) que se pueden repetir
+ * @param percentile         percentil de latencia tras el que se lanza la copia
+ * @param minDelay           espera mínima antes de la copia
+ * @param maxDelay           espera máxima (y valor inicial sin muestras)
+ * @param maxRetries         reintentos tras 502/503/504 o error de conexión
+ * @param backoffBase        base del backoff exponencial con jitter completo
+ * @param backoffMax         tope del backoff
+ * @param budgetRatio        copias + reintentos permitidos por petición (0.1
+ *                           = 10 %)
+ * @param budgetMinPerSecond copias + reintentos garantizados por segundo con
+ *                           poco tráfico
+ */
+public record HedgingSettings(boolean enabled,
+        List<String> paths,
+        double percentile,
+        Duration minDelay,
+        Duration maxDelay,
+        int maxRetries,
+        Duration backoffBase,
+        Duration backoffMax,
+        double budgetRatio,
+        int budgetMinPerSecond) {
+
+    private static final String PREFIX = "slidehub.gateway.hedging.";
+
+    public static HedgingSettings from(Environment environment, String pool) {
+        return new HedgingSettings(
+                environment.getProperty(PREFIX + pool + ".enabled", Boolean.class, false),
+                Arrays.stream(environment.getProperty(PREFIX + "paths", "").split(","))
+                        .map(String::trim)
+                        .filter(path -> !path.isEmpty())
+                        .toList(),
+                environment.getProperty(PREFIX + "percentile", Double.class, 0.95),
+                environment.getProperty(PREFIX + "min-delay", Duration.class, Duration.ofMillis(20)),
+                environment.getProperty(PREFIX + "max-delay", Duration.class, Duration.ofSeconds(1)),
+                environment.getProperty(PREFIX + "max-retries", Integer.class, 2),
+                environment.getProperty(PREFIX + "backoff-base", Duration.class, Duration.ofMillis(50)),
+                environment.getProperty(PREFIX + "backoff-max", Duration.class, Duration.ofMillis(500)),
+                environment.getProperty(PREFIX + "budget-ratio", Double.class, 0.1),
+                environment.getProperty(PREFIX + "budget-min-per-second", Integer.class, 5));
+    }
+}
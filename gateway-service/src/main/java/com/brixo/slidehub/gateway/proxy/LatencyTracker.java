@@ -0,0 +1,48 @@
+package com.brixo.slidehub.gateway.proxy;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Percentil de latencia sobre las últimas {@code capacity} respuestas.
+ *
+ * El percentil se recalcula cada {@code capacity / 8} muestras (copia y
+ * ordenación de un array pequeño), de modo que leerlo no cuesta nada en cada
+ * petición.
+ */
+public class LatencyTracker {
+
+    private static final int MIN_SAMPLES = 20;
+
+    private final long[] samples;
+    private final double percentile;
+    private final int recomputeEvery;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long percentileNanos = -1;
+
+    public LatencyTracker(int capacity, double percentile) {
+        this.samples = new long[capacity];
+        this.percentile = percentile;
+        this.recomputeEvery = Math.max(1, capacity / 8);
+    }
+
+    public synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        if (count >= MIN_SAMPLES && ++sinceRecompute >= recomputeEvery) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[(int) Math.min(count - 1, Math.ceil(percentile * count) - 1)];
+        }
+    }
+
+    /** Percentil actual, o {@code fallback} si aún no hay muestras suficientes. */
+    public Duration percentile(Duration fallback) {
+        long nanos = percentileNanos;
+        return nanos < 0 ? fallback : Duration.ofNanos(nanos);
+    }
+}
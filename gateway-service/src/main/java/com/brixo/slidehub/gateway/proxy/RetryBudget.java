@@ -0,0 +1,57 @@
+package com.brixo.slidehub.gateway.proxy;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Presupuesto de peticiones extra (copias hedged y reintentos).
+ *
+ * Cada petición original deposita {@code ratio} tokens y cada petición extra
+ * retira uno, así que como mucho un {@code ratio} del tráfico se duplica.
+ * Además se recargan {@code minPerSecond} tokens por segundo para que con poco
+ * tráfico siga habiendo reintentos. Cuando un upstream está caído el
+ * presupuesto se agota enseguida y no se genera una tormenta de reintentos.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public RetryBudget(double ratio, int minPerSecond) {
+        this(ratio, minPerSecond, System::nanoTime);
+    }
+
+    RetryBudget(double ratio, int minPerSecond, LongSupplier nanoClock) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.capacity = Math.max(10, minPerSecond * 10);
+        this.nanoClock = nanoClock;
+        this.tokens = minPerSecond;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /** Registra una petición original. */
+    public synchronized void deposit() {
+        refill();
+        tokens = Math.min(capacity, tokens + ratio);
+    }
+
+    /** true si se puede lanzar una petición extra (y la descuenta). */
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / 1_000_000_000.0 * minPerSecond);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,38 @@
+package com.brixo.slidehub.gateway.proxy;
+
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.cloud.gateway.server.mvc.handler.ProxyExchange;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.Map;
+
+/**
+ * {@link ProxyExchange} que elige el cliente HTTP saliente según la ruta que
+ * atendió la petición.
+ *
+ * {@code http()} de Server MVC usa un único ProxyExchange para todo el
+ * gateway; esta clase permite que las rutas de streaming usen un cliente sin
+ * read-timeout sin afectar a las rutas JSON.
+ */
+public class RouteAwareProxyExchange implements ProxyExchange {
+
+    private final Map<String, ProxyExchange> exchangesByRoute;
+    private final ProxyExchange defaultExchange;
+
+    public RouteAwareProxyExchange(Map<String, ProxyExchange> exchangesByRoute, ProxyExchange defaultExchange) {
+        this.exchangesByRoute = Map.copyOf(exchangesByRoute);
+        this.defaultExchange = defaultExchange;
+    }
+
+    @Override
+    public ServerResponse exchange(Request request) {
+        return resolve(request).exchange(request);
+    }
+
+    private ProxyExchange resolve(Request request) {
+        return request.getServerRequest()
+                .attribute(MvcUtils.GATEWAY_ROUTE_ID_ATTR)
+                .map(routeId -> exchangesByRoute.get(routeId.toString()))
+                .orElse(defaultExchange);
+    }
+}
@@ -0,0 +1,215 @@
+package com.brixo.slidehub.gateway.proxy;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balanceo client-side entre réplicas de cada servicio.
+ *
+ * Las réplicas se leen de {@code slidehub.{service}.instances} (lista separada
+ * por comas, definida en config-repo/gateway-service.properties); si no existe
+ * se usa {@code slidehub.{service}.url} como única réplica.
+ *
+ * - Selección: menor número de peticiones en vuelo (least outstanding); los
+ * empates se resuelven al azar para no cargar siempre la primera réplica.
+ * - Health check activo: GET {instancia}{health-check.path} cada
+ * {@code health-check.interval}; tras {@code failure-threshold} fallos la
+ * réplica sale de rotación hasta el siguiente check correcto. Los errores de
+ * conexión en peticiones reales cuentan igual (check pasivo).
+ * - Si todas las réplicas están caídas se usan todas (fail-open): es preferible
+ * intentar a responder 503 por un health check desactualizado.
+ */
+@Component
+public class UpstreamBalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamBalancer.class);
+
+    public static final String AI_SERVICE = "ai-service";
+    public static final String STATE_SERVICE = "state-service";
+    public static final String UI_SERVICE = "ui-service";
+
+    private static final String PREFIX = "slidehub.gateway.lb.";
+
+    private final Map<String, List<UpstreamInstance>> instancesByService = new ConcurrentHashMap<>();
+    private final HttpClient healthClient;
+    private final ScheduledExecutorService healthChecker;
+    private final String healthPath;
+    private final Duration healthTimeout;
+    private final int failureThreshold;
+
+    public UpstreamBalancer(Environment environment, MeterRegistry meterRegistry) {
+        this.healthPath = environment.getProperty(PREFIX + "health-check.path", "/actuator/health");
+        this.healthTimeout = environment.getProperty(PREFIX + "health-check.timeout", Duration.class,
+                Duration.ofSeconds(2));
+        this.failureThreshold = environment.getProperty(PREFIX + "failure-threshold", Integer.class, 2);
+        Duration interval = environment.getProperty(PREFIX + "health-check.interval", Duration.class,
+                Duration.ofSeconds(10));
+
+        for (String service : List.of(AI_SERVICE, STATE_SERVICE, UI_SERVICE)) {
+            List<UpstreamInstance> instances = readInstances(environment, service);
+            instancesByService.put(service, instances);
+            Gauge.builder("slidehub.gateway.lb.healthy", instances,
+                    list -> list.stream().filter(UpstreamInstance::isHealthy).count())
+                    .tag("service", service)
+                    .register(meterRegistry);
+            log.info("Réplicas de {}: {}", service, instances);
+        }
+
+        this.healthClient = HttpClient.newBuilder()
+                .connectTimeout(healthTimeout)
+                .build();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gateway-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!interval.isZero()) {
+            healthChecker.scheduleWithFixedDelay(this::checkAll, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Réplica sana con menos peticiones en vuelo. */
+    public UpstreamInstance choose(String service) {
+        List<UpstreamInstance> candidates = candidates(service);
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        // Dos candidatos al azar y se queda el menos cargado (power of two choices):
+        // evita que todas las peticiones simultáneas elijan la misma réplica vacía.
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UpstreamInstance first = candidates.get(random.nextInt(candidates.size()));
+        UpstreamInstance second = candidates.get(random.nextInt(candidates.size()));
+        return first.outstanding() <= second.outstanding() ? first : second;
+    }
+
+    /**
+     * Réplica indicada por la afinidad del cliente si sigue sana; si no, la
+     * elegida por {@link #choose(String)}.
+     */
+    public UpstreamInstance choose(String service, String affinityId) {
+        if (affinityId != null) {
+            Optional<UpstreamInstance> pinned = candidates(service).stream()
+                    .filter(instance -> instance.id().equals(affinityId))
+                    .findFirst();
+            if (pinned.isPresent()) {
+                return pinned.get();
+            }
+        }
+        return choose(service);
+    }
+
+    /**
+     * Réplica sana distinta de la que atiende {@code requestUri} (destino de
+     * peticiones hedged y reintentos), la menos cargada.
+     */
+    public Optional<UpstreamInstance> alternative(String service, URI requestUri) {
+        return candidates(service).stream()
+                .filter(instance -> !sameAuthority(instance.uri(), requestUri))
+                .min(Comparator.comparingInt(UpstreamInstance::outstanding));
+    }
+
+    public List<UpstreamInstance> instances(String service) {
+        return instancesByService.getOrDefault(service, List.of());
+    }
+
+    /** Registra un error de conexión en una petición real. */
+    public void reportFailure(UpstreamInstance instance) {
+        instance.markFailure(failureThreshold);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        healthChecker.shutdownNow();
+    }
+
+    private List<UpstreamInstance> candidates(String service) {
+        List<UpstreamInstance> all = instances(service);
+        if (all.isEmpty()) {
+            throw new IllegalStateException("No hay réplicas configuradas para " + service);
+        }
+        List<UpstreamInstance> healthy = all.stream().filter(UpstreamInstance::isHealthy).toList();
+        return healthy.isEmpty() ? all : healthy;
+    }
+
+    private static boolean sameAuthority(URI instance, URI requestUri) {
+        return instance.getHost().equalsIgnoreCase(requestUri.getHost())
+                && effectivePort(instance) == effectivePort(requestUri);
+    }
+
+    private static int effectivePort(URI uri) {
+        if (uri.getPort() >= 0) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) || "wss".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private void checkAll() {
+        instancesByService.values().forEach(instances -> {
+            if (instances.size() > 1) {
+                instances.forEach(this::check);
+            }
+        });
+    }
+
+    private void check(UpstreamInstance instance) {
+        boolean wasHealthy = instance.isHealthy();
+        try {
+            HttpResponse<Void> response = healthClient.send(
+                    HttpRequest.newBuilder(instance.uri().resolve(healthPath))
+                            .timeout(healthTimeout)
+                            .GET()
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                instance.markUp();
+            } else {
+                instance.markFailure(failureThreshold);
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            instance.markFailure(failureThreshold);
+        }
+        if (wasHealthy != instance.isHealthy()) {
+            log.warn("Réplica {} cambió de estado: {}", instance.uri(), instance.isHealthy() ? "UP" : "DOWN");
+        }
+    }
+
+    private static List<UpstreamInstance> readInstances(Environment environment, String service) {
+        String configured = environment.getProperty("slidehub." + service + ".instances");
+        if (configured == null || configured.isBlank()) {
+            configured = environment.getProperty("slidehub." + service + ".url");
+        }
+        if (configured == null || configured.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(configured.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> new UpstreamInstance(URI.create(url)))
+                .toList();
+    }
+}
@@ -0,0 +1,167 @@
+package com.brixo.slidehub.gateway.proxy;
+
+import com.brixo.slidehub.gateway.filter.GatewayResponses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.cloud.gateway.server.mvc.handler.ProxyExchange;
+import org.springframework.cloud.gateway.server.mvc.handler.RestClientProxyExchange;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de cliente saliente dedicado a un servicio (bulkhead).
+ *
+ * Cada pool tiene su propio {@link HttpClient} (y por tanto su propio pool de
+ * conexiones) y un semáforo que limita las peticiones en vuelo. Así una ráfaga
+ * de llamadas lentas a ai-service nunca consume las conexiones que usan los
+ * polls de /api/slide.
+ *
+ * El permiso del bulkhead se mantiene hasta recibir los headers del upstream;
+ * la copia del body (incluido SSE) ocurre después y no lo retiene.
+ *
+ * Métricas (tag {@code pool}):
+ * - slidehub.gateway.client.active: peticiones en vuelo
+ * - slidehub.gateway.client.max: límite configurado
+ * - slidehub.gateway.client.rejected: peticiones rechazadas con 503
+ * - slidehub.gateway.client.requests: tiempo hasta recibir la respuesta
+ *
+ * El RestClient se observa con el ObservationRegistry de la aplicación: cada
+ * petición al upstream genera un span hijo del span del request entrante y
+ * propaga {@code traceparent}.
+ */
+public class UpstreamClientPool {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamClientPool.class);
+
+    private final String name;
+    private final ClientPoolSettings settings;
+    private final HttpClient httpClient;
+    private final GatewayMvcProperties gatewayProperties;
+    private final ObservationRegistry observationRegistry;
+    private final Semaphore permits;
+    private final Counter rejected;
+    private final Timer requests;
+
+    public UpstreamClientPool(String name,
+            ClientPoolSettings settings,
+            GatewayMvcProperties gatewayProperties,
+            MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.gatewayProperties = gatewayProperties;
+        this.observationRegistry = observationRegistry;
+        this.permits = new Semaphore(settings.maxConcurrent());
+        this.httpClient = HttpClient.newBuilder()
+                .version(settings.httpVersion())
+                .connectTimeout(settings.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        Gauge.builder("slidehub.gateway.client.active", permits,
+                p -> settings.maxConcurrent() - p.availablePermits())
+                .tag("pool", name)
+                .register(meterRegistry);
+        Gauge.builder("slidehub.gateway.client.max", settings, ClientPoolSettings::maxConcurrent)
+                .tag("pool", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("slidehub.gateway.client.rejected")
+                .tag("pool", name)
+                .register(meterRegistry);
+        this.requests = Timer.builder("slidehub.gateway.client.requests")
+                .tag("pool", name)
+                .register(meterRegistry);
+
+        log.info("Pool de cliente '{}': max={} connect={} read={} {}", name, settings.maxConcurrent(),
+                settings.connectTimeout(), settings.readTimeout(), settings.httpVersion());
+    }
+
+    /** Exchange con el read-timeout del pool (rutas JSON/HTML). */
+    public ProxyExchange exchange() {
+        return new BulkheadProxyExchange(restClientExchange(true));
+    }
+
+    /** Exchange sin read-timeout para SSE; comparte conexiones y bulkhead. */
+    public ProxyExchange streamingExchange() {
+        return new BulkheadProxyExchange(restClientExchange(false));
+    }
+
+    /**
+     * Exchange con hedging y reintentos para los GET idempotentes configurados
+     * (ver {@link HedgingProxyExchange}); el resto se comporta como
+     * {@link #exchange()}.
+     */
+    public ProxyExchange hedgedExchange(String service, UpstreamBalancer balancer, HedgingSettings hedging,
+            MeterRegistry meterRegistry) {
+        if (!hedging.enabled()) {
+            return exchange();
+        }
+        return new BulkheadProxyExchange(new HedgingProxyExchange(name, service, restClientExchange(true),
+                restClient(true), balancer, hedging, meterRegistry));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    private ProxyExchange restClientExchange(boolean withReadTimeout) {
+        return new RestClientProxyExchange(restClient(withReadTimeout), gatewayProperties);
+    }
+
+    private RestClient restClient(boolean withReadTimeout) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        if (withReadTimeout) {
+            requestFactory.setReadTimeout(settings.readTimeout());
+        }
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .observationRegistry(observationRegistry)
+                .build();
+    }
+
+    private boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(settings.acquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private final class BulkheadProxyExchange implements ProxyExchange {
+
+        private final ProxyExchange delegate;
+
+        private BulkheadProxyExchange(ProxyExchange delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ServerResponse exchange(Request request) {
+            if (!tryAcquire()) {
+                rejected.increment();
+                log.warn("Pool '{}' saturado ({} en vuelo) — 503 para {}", name, settings.maxConcurrent(),
+                        request.getUri().getPath());
+                return GatewayResponses.unavailable("bulkhead", 1);
+            }
+            Timer.Sample sample = Timer.start();
+            try {
+                return delegate.exchange(request);
+            } finally {
+                sample.stop(requests);
+                permits.release();
+            }
+        }
+    }
+}
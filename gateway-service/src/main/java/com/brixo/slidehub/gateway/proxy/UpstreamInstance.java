@@ -0,0 +1,68 @@
+package com.brixo.slidehub.gateway.proxy;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Réplica de un servicio detrás del gateway.
+ *
+ * El id es estable entre reinicios del gateway (derivado de la URL) para que
+ * la cookie de afinidad siga siendo válida.
+ */
+public class UpstreamInstance {
+
+    private final String id;
+    private final URI uri;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean healthy = true;
+
+    public UpstreamInstance(URI uri) {
+        this.uri = uri;
+        this.id = Integer.toHexString(uri.toString().hashCode());
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public URI uri() {
+        return uri;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    public void acquire() {
+        outstanding.incrementAndGet();
+    }
+
+    public void release() {
+        outstanding.decrementAndGet();
+    }
+
+    void markUp() {
+        consecutiveFailures.set(0);
+        healthy = true;
+    }
+
+    /**
+     * Registra un fallo (health check o error de conexión) y marca la réplica
+     * como caída al llegar al umbral.
+     */
+    void markFailure(int threshold) {
+        if (consecutiveFailures.incrementAndGet() >= threshold) {
+            healthy = false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return uri + (healthy ? " (UP, " : " (DOWN, ") + outstanding.get() + " en vuelo)";
+    }
+}
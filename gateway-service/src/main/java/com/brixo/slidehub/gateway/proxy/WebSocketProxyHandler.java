@@ -0,0 +1,185 @@
+package com.brixo.slidehub.gateway.proxy;
+
+import com.brixo.slidehub.gateway.filter.OpenConnectionTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relay WebSocket del gateway: por cada sesión aceptada del cliente abre una
+ * sesión equivalente contra el servicio upstream y copia los frames en ambos
+ * sentidos.
+ *
+ * Spring Cloud Gateway Server MVC no proxya upgrades de WebSocket, por eso el
+ * relay vive fuera de RoutesConfig.
+ *
+ * La réplica se elige al abrir la sesión (least outstanding) y cuenta como
+ * petición en vuelo mientras la sesión siga abierta.
+ */
+public class WebSocketProxyHandler extends AbstractWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketProxyHandler.class);
+
+    /** Headers del handshake que se reenvían al upstream (sesión y auth). */
+    private static final List<String> FORWARDED_HEADERS = List.of(HttpHeaders.COOKIE, HttpHeaders.AUTHORIZATION);
+
+    private final String routeId;
+    private final String service;
+    private final UpstreamBalancer balancer;
+    private final WebSocketClient webSocketClient;
+    private final OpenConnectionTracker connectionTracker;
+    private final Duration connectTimeout;
+    private final int sendTimeLimitMs;
+    private final int bufferSizeLimit;
+
+    private final Map<String, WebSocketSession> upstreamSessions = new ConcurrentHashMap<>();
+    private final Map<String, UpstreamInstance> upstreamInstances = new ConcurrentHashMap<>();
+
+    public WebSocketProxyHandler(String routeId,
+            String service,
+            UpstreamBalancer balancer,
+            WebSocketClient webSocketClient,
+            OpenConnectionTracker connectionTracker,
+            Duration connectTimeout,
+            int sendTimeLimitMs,
+            int bufferSizeLimit) {
+        this.routeId = routeId;
+        this.service = service;
+        this.balancer = balancer;
+        this.webSocketClient = webSocketClient;
+        this.connectionTracker = connectionTracker;
+        this.connectTimeout = connectTimeout;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.bufferSizeLimit = bufferSizeLimit;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession clientSession) throws Exception {
+        WebSocketSession client = decorate(clientSession);
+        UpstreamInstance instance = balancer.choose(service);
+        URI target = upstreamUri(instance, clientSession.getUri());
+
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        FORWARDED_HEADERS.forEach(name -> {
+            List<String> values = clientSession.getHandshakeHeaders().get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        });
+        List<String> protocols = clientSession.getHandshakeHeaders().getOrEmpty(WebSocketHttpHeaders.SEC_WEBSOCKET_PROTOCOL);
+        if (!protocols.isEmpty()) {
+            headers.setSecWebSocketProtocol(protocols);
+        }
+
+        try {
+            WebSocketSession upstream = webSocketClient
+                    .execute(new UpstreamRelay(client), headers, target)
+                    .get(connectTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            upstreamSessions.put(clientSession.getId(), decorate(upstream));
+            upstreamInstances.put(clientSession.getId(), instance);
+            instance.acquire();
+            connectionTracker.opened(routeId, OpenConnectionTracker.TYPE_WEBSOCKET);
+            log.debug("WebSocket {} conectado a {}", clientSession.getId(), target);
+        } catch (Exception e) {
+            log.warn("No se pudo abrir WebSocket upstream {}: {}", target, e.getMessage());
+            balancer.reportFailure(instance);
+            clientSession.close(CloseStatus.SERVICE_RESTARTED);
+        }
+    }
+
+    @Override
+    public void handleMessage(WebSocketSession clientSession, WebSocketMessage<?> message) throws Exception {
+        WebSocketSession upstream = upstreamSessions.get(clientSession.getId());
+        if (upstream != null && upstream.isOpen()) {
+            upstream.sendMessage(message);
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession clientSession, Throwable exception) {
+        log.debug("Error de transporte en WebSocket {}: {}", clientSession.getId(), exception.getMessage());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession clientSession, CloseStatus status) {
+        WebSocketSession upstream = upstreamSessions.remove(clientSession.getId());
+        if (upstream == null) {
+            return;
+        }
+        UpstreamInstance instance = upstreamInstances.remove(clientSession.getId());
+        if (instance != null) {
+            instance.release();
+        }
+        connectionTracker.closed(routeId, OpenConnectionTracker.TYPE_WEBSOCKET);
+        closeQuietly(upstream, status);
+    }
+
+    private WebSocketSession decorate(WebSocketSession session) {
+        return new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, bufferSizeLimit);
+    }
+
+    private URI upstreamUri(UpstreamInstance instance, URI clientUri) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUri(toWebSocketUri(instance.uri()));
+        if (clientUri != null) {
+            builder.path(clientUri.getRawPath()).query(clientUri.getRawQuery());
+        }
+        return builder.build(true).toUri();
+    }
+
+    private static URI toWebSocketUri(URI uri) {
+        String scheme = "https".equalsIgnoreCase(uri.getScheme()) ? "wss" : "ws";
+        return UriComponentsBuilder.fromUri(uri).scheme(scheme).build(true).toUri();
+    }
+
+    private static void closeQuietly(WebSocketSession session, CloseStatus status) {
+        if (!session.isOpen()) {
+            return;
+        }
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Error cerrando WebSocket {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Handler de la sesión upstream: reenvía al cliente y cierra el cliente
+     * cuando el servicio cierra.
+     */
+    private static final class UpstreamRelay extends AbstractWebSocketHandler {
+
+        private final WebSocketSession clientSession;
+
+        private UpstreamRelay(WebSocketSession clientSession) {
+            this.clientSession = clientSession;
+        }
+
+        @Override
+        public void handleMessage(WebSocketSession upstream, WebSocketMessage<?> message) throws Exception {
+            if (clientSession.isOpen()) {
+                clientSession.sendMessage(message);
+            }
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession upstream, CloseStatus status) {
+            closeQuietly(clientSession, status);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.brixo.slidehub.gateway.ratelimit;
+
+import com.brixo.slidehub.gateway.filter.GatewayResponses;
+import com.brixo.slidehub.gateway.ratelimit.TokenBucketStore.BucketLimit;
+import com.brixo.slidehub.gateway.ratelimit.TokenBucketStore.Decision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rate limiting por cliente con token buckets.
+ *
+ * Clave del cliente: su IP. Sin proxies de confianza es la IP remota de la
+ * conexión. Detrás del proxy de Render ({@code trusted-proxies=1}) es la
+ * entrada de X-Forwarded-For que añadió ese proxy, contando desde la derecha:
+ * las entradas de la izquierda las pone el propio cliente y no sirven como
+ * clave. Tampoco se usan headers del cliente como X-Device-Token sin
+ * validarlos contra el registro de dispositivos.
+ *
+ * Cada cliente tiene dos presupuestos independientes:
+ * - read: GET/HEAD/OPTIONS — el poll de /api/slide y /api/demo (~1 req/s por
+ * dispositivo). Ráfaga generosa para recargas de página.
+ * - write: resto de métodos — cambios de slide, registro de dispositivos.
+ * Un remote que abusa de POST no agota el presupuesto de polling.
+ *
+ * Al agotarse el bucket se responde 429 + Retry-After.
+ *
+ * Configuración: slidehub.gateway.rate-limit.* (ver application.properties).
+ */
+@Component
+public class RateLimitFilters {
+
+    private static final String PREFIX = "slidehub.gateway.rate-limit.";
+    private static final Set<HttpMethod> READ_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    private final TokenBucketStore store;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final BucketLimit readLimit;
+    private final BucketLimit writeLimit;
+    private final int trustedProxies;
+
+    public RateLimitFilters(TokenBucketStore store, Environment environment, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, true);
+        this.readLimit = limit(environment, "read", 40, 20);
+        this.writeLimit = limit(environment, "write", 20, 5);
+        this.trustedProxies = environment.getProperty(PREFIX + "trusted-proxies", Integer.class, 0);
+    }
+
+    /** Filtro de rate limiting para la ruta {@code routeId}. */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> limit(String routeId) {
+        Counter readRejected = rejectedCounter(routeId, "read");
+        Counter writeRejected = rejectedCounter(routeId, "write");
+        return (request, next) -> {
+            if (!enabled) {
+                return next.handle(request);
+            }
+            boolean read = READ_METHODS.contains(request.method());
+            Decision decision = store.tryConsume((read ? "read:" : "write:") + clientKey(request, trustedProxies),
+                    read ? readLimit : writeLimit);
+            if (!decision.allowed()) {
+                (read ? readRejected : writeRejected).increment();
+                long retryAfterSeconds = (decision.retryAfterMillis() + 999) / 1000;
+                return GatewayResponses.rejected(HttpStatus.TOO_MANY_REQUESTS, "rate-limit", retryAfterSeconds);
+            }
+            return next.handle(request);
+        };
+    }
+
+    /**
+     * IP del cliente.
+     *
+     * @param trustedProxies proxies de confianza delante del gateway; cada uno
+     *                       añade una entrada al final de X-Forwarded-For
+     */
+    static String clientKey(ServerRequest request, int trustedProxies) {
+        if (trustedProxies > 0) {
+            List<String> hops = new ArrayList<>();
+            for (String header : request.headers().header("X-Forwarded-For")) {
+                for (String hop : header.split(",")) {
+                    if (!hop.isBlank()) {
+                        hops.add(hop.trim());
+                    }
+                }
+            }
+            if (hops.size() >= trustedProxies) {
+                return "ip:" + hops.get(hops.size() - trustedProxies);
+            }
+        }
+        return "ip:" + request.servletRequest().getRemoteAddr();
+    }
+
+    private Counter rejectedCounter(String routeId, String budget) {
+        return Counter.builder("slidehub.gateway.ratelimit.rejected")
+                .tag("route", routeId)
+                .tag("budget", budget)
+                .register(meterRegistry);
+    }
+
+    private static BucketLimit limit(Environment environment, String budget, int defaultCapacity,
+            double defaultRefillPerSecond) {
+        return new BucketLimit(
+                environment.getProperty(PREFIX + budget + ".capacity", Integer.class, defaultCapacity),
+                environment.getProperty(PREFIX + budget + ".refill-per-second", Double.class,
+                        defaultRefillPerSecond));
+    }
+}
@@ -0,0 +1,73 @@
+package com.brixo.slidehub.gateway.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Token buckets compartidos entre réplicas del gateway en Redis.
+ *
+ * Cada bucket es un hash {tokens, ts} actualizado atómicamente por un script
+ * Lua que usa el reloj de Redis (TIME), así las réplicas no dependen de tener
+ * los relojes sincronizados. La clave expira cuando el bucket se llenaría de
+ * nuevo, de modo que los clientes inactivos no ocupan memoria.
+ *
+ * Si Redis no responde se usa el store en memoria de la réplica: es preferible
+ * un límite por réplica a bloquear todos los polls.
+ */
+public class RedisTokenBucketStore implements TokenBucketStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisTokenBucketStore.class);
+
+    private static final String KEY_PREFIX = "gateway:ratelimit:";
+
+    /** Devuelve 0 si se concede el token, o los ms de espera hasta el siguiente. */
+    private static final RedisScript<Long> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) / 1000 * rate)
+            local allowed = 0
+            if tokens >= 1 then
+              tokens = tokens - 1
+              allowed = 1
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil((capacity - tokens) / rate * 1000) + 1000)
+            if allowed == 1 then
+              return 0
+            end
+            return math.max(1, math.ceil((1 - tokens) / rate * 1000))
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final TokenBucketStore fallback;
+
+    public RedisTokenBucketStore(StringRedisTemplate redis, TokenBucketStore fallback) {
+        this.redis = redis;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Decision tryConsume(String key, BucketLimit limit) {
+        try {
+            Long waitMillis = redis.execute(TOKEN_BUCKET_SCRIPT, List.of(KEY_PREFIX + key),
+                    String.valueOf(limit.capacity()), String.valueOf(limit.refillPerSecond()));
+            if (waitMillis == null) {
+                return fallback.tryConsume(key, limit);
+            }
+            return waitMillis == 0 ? Decision.allow() : new Decision(false, waitMillis);
+        } catch (Exception e) {
+            log.warn("Rate limit en Redis no disponible, usando memoria local: {}", e.getMessage());
+            return fallback.tryConsume(key, limit);
+        }
+    }
+}
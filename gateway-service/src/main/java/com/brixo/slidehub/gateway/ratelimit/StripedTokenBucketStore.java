@@ -0,0 +1,134 @@
+package com.brixo.slidehub.gateway.ratelimit;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets en memoria con lock striping.
+ *
+ * Las claves se reparten en {@code stripes} segmentos, cada uno con su propio
+ * lock y mapa: dos clientes solo compiten por el mismo lock si caen en el
+ * mismo segmento.
+ *
+ * Cada segmento es un LRU (LinkedHashMap en orden de acceso) acotado a
+ * {@code maxBucketsPerStripe}. Al entrar una clave nueva en un segmento lleno
+ * se descartan, desde el menos usado, los buckets que ya se habrían recargado
+ * del todo con su propio límite (clientes inactivos, equivalen a no tener
+ * bucket); si no basta, se descarta el menos usado. Cada bucket guarda su
+ * límite: los presupuestos read y write conviven en el mismo almacén.
+ */
+public class StripedTokenBucketStore implements TokenBucketStore {
+
+    private final Stripe[] stripes;
+    private final int maxBucketsPerStripe;
+    private final LongSupplier nanoClock;
+
+    public StripedTokenBucketStore(int stripes, int maxBucketsPerStripe) {
+        this(stripes, maxBucketsPerStripe, System::nanoTime);
+    }
+
+    StripedTokenBucketStore(int stripes, int maxBucketsPerStripe, LongSupplier nanoClock) {
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.maxBucketsPerStripe = maxBucketsPerStripe;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Decision tryConsume(String key, BucketLimit limit) {
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        long now = nanoClock.getAsLong();
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= maxBucketsPerStripe) {
+                    stripe.evict(now, maxBucketsPerStripe - 1);
+                }
+                bucket = new Bucket(limit, now);
+                stripe.buckets.put(key, bucket);
+            }
+            bucket.limit = limit;
+            bucket.refill(now);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return Decision.allow();
+            }
+            return Decision.reject(1 - bucket.tokens, limit.refillPerSecond());
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /** Buckets vivos (tests). */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * Deja como mucho {@code target} buckets. Recorre desde el menos usado
+         * y se detiene en el primero que sigue activo, así que el coste es el
+         * de los buckets descartados, no el del segmento.
+         */
+        private void evict(long now, int target) {
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext() && buckets.size() > target) {
+                Bucket bucket = iterator.next();
+                if (!bucket.isFullAt(now)) {
+                    break;
+                }
+                iterator.remove();
+            }
+            // Límite duro: el menos usado, aunque no esté lleno
+            iterator = buckets.values().iterator();
+            while (iterator.hasNext() && buckets.size() > target) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        private BucketLimit limit;
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Bucket(BucketLimit limit, long now) {
+            this.limit = limit;
+            this.tokens = limit.capacity();
+            this.lastRefillNanos = now;
+        }
+
+        private void refill(long now) {
+            double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+            tokens = Math.min(limit.capacity(), tokens + elapsedSeconds * limit.refillPerSecond());
+            lastRefillNanos = now;
+        }
+
+        /** Si el tiempo inactivo ya habría recargado el bucket con su propio límite. */
+        private boolean isFullAt(long now) {
+            double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+            return tokens + elapsedSeconds * limit.refillPerSecond() >= limit.capacity();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.brixo.slidehub.gateway.ratelimit;
+
+/**
+ * Almacén de token buckets del rate limiter del gateway.
+ *
+ * Implementaciones:
+ * - {@link StripedTokenBucketStore}: en memoria, por réplica del gateway.
+ * - {@link RedisTokenBucketStore}: compartido entre réplicas vía Redis.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Intenta consumir un token del bucket {@code key}.
+     *
+     * @param key   clave del bucket (presupuesto + cliente)
+     * @param limit capacidad y ritmo de recarga del bucket
+     * @return decisión con el tiempo de espera sugerido si se rechaza
+     */
+    Decision tryConsume(String key, BucketLimit limit);
+
+    /**
+     * @param capacity        ráfaga máxima (tokens)
+     * @param refillPerSecond tokens recargados por segundo
+     */
+    record BucketLimit(int capacity, double refillPerSecond) {
+    }
+
+    /**
+     * @param allowed          true si se consumió un token
+     * @param retryAfterMillis espera hasta el próximo token (0 si allowed)
+     */
+    record Decision(boolean allowed, long retryAfterMillis) {
+
+        static Decision allow() {
+            return new Decision(true, 0);
+        }
+
+        static Decision reject(double missingTokens, double refillPerSecond) {
+            return new Decision(false, (long) Math.ceil(missingTokens / refillPerSecond * 1000));
+        }
+    }
+}
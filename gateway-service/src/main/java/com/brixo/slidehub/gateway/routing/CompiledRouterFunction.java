@@ -0,0 +1,63 @@
+package com.brixo.slidehub.gateway.routing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Único RouterFunction del gateway: resuelve la ruta con {@link RouteTable} y
+ * delega en la RouterFunction de Server MVC de esa ruta (que aplica sus
+ * filtros y fija el id de ruta).
+ *
+ * Métrica {@code slidehub.gateway.route.duration} (tag {@code route}, con
+ * histograma de percentiles): tiempo desde que la ruta recibe la petición
+ * hasta que el upstream devuelve los headers. La copia del body (streams SSE
+ * incluidos) queda fuera para no distorsionar los percentiles.
+ */
+public class CompiledRouterFunction implements RouterFunction<ServerResponse> {
+
+    private final RouteTable table;
+    private final Map<String, Timer> timers = new HashMap<>();
+
+    public CompiledRouterFunction(RouteTable table, MeterRegistry meterRegistry) {
+        this.table = table;
+        for (RouteTable.Route route : table.routes()) {
+            timers.put(route.id(), Timer.builder("slidehub.gateway.route.duration")
+                    .description("Latencia por ruta hasta recibir la respuesta del upstream")
+                    .tag("route", route.id())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Optional<HandlerFunction<ServerResponse>> route(ServerRequest request) {
+        RouteTable.Route route = table.resolve(request);
+        if (route == null) {
+            return Optional.empty();
+        }
+        Timer timer = timers.get(route.id());
+        return route.target().route(request)
+                .map(handler -> timedRequest -> {
+                    Timer.Sample sample = Timer.start();
+                    try {
+                        return handler.handle(timedRequest);
+                    } finally {
+                        sample.stop(timer);
+                    }
+                });
+    }
+
+    /** Expone cada ruta al visitor (endpoint /actuator/gateway). */
+    @Override
+    public void accept(Visitor visitor) {
+        table.routes().forEach(route -> route.target().accept(visitor));
+    }
+}
@@ -0,0 +1,175 @@
+package com.brixo.slidehub.gateway.routing;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.PathContainer.PathSegment;
+import org.springframework.web.servlet.function.RequestPredicate;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabla de rutas del gateway compilada en un trie de segmentos de path.
+ *
+ * Sustituye a la cadena de RouterFunctions evaluadas en orden (cada una con
+ * sus predicados {@code path} OR'd): la resolución recorre el path una sola
+ * vez, segmento a segmento, y en cada nodo ya están precalculadas las rutas
+ * candidatas ordenadas por prioridad. El coste depende de la profundidad del
+ * path, no del número de rutas ni de patrones.
+ *
+ * Patrones admitidos (los que usa RoutesConfig):
+ * - {@code /a/b} exacto.
+ * - {@code /a/**} prefijo: coincide con /a y con cualquier path bajo /a.
+ *
+ * Los segmentos se comparan decodificados y sin matrix variables
+ * ({@link PathSegment#valueToMatch()}), igual que {@code RequestPredicates.path}:
+ * {@code /api/%61i/...} es la ruta de IA, no /api/**.
+ *
+ * Las condiciones que no dependen del path (p. ej. Accept: text/event-stream)
+ * se evalúan solo sobre las candidatas, en orden.
+ */
+public final class RouteTable {
+
+    private final Node root;
+    private final List<Route> routes;
+
+    private RouteTable(Node root, List<Route> routes) {
+        this.root = root;
+        this.routes = List.copyOf(routes);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Route> routes() {
+        return routes;
+    }
+
+    /** Ruta de menor order cuyo path y condición coinciden, o null. */
+    public Route resolve(ServerRequest request) {
+        for (Route route : candidates(request.requestPath().pathWithinApplication())) {
+            if (route.condition() == null || route.condition().test(request)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /** Rutas cuyo patrón de path coincide, ordenadas por prioridad. */
+    public List<Route> candidates(String path) {
+        return candidates(PathContainer.parsePath(path));
+    }
+
+    /** Rutas cuyo patrón de path coincide, ordenadas por prioridad. */
+    public List<Route> candidates(PathContainer path) {
+        Node node = root;
+        for (PathContainer.Element element : path.elements()) {
+            if (!(element instanceof PathSegment segment) || segment.valueToMatch().isEmpty()) {
+                continue;
+            }
+            Node child = node.children.get(segment.valueToMatch());
+            if (child == null) {
+                return node.prefixCandidates;
+            }
+            node = child;
+        }
+        return node.terminalCandidates;
+    }
+
+    /**
+     * Ruta compilada.
+     *
+     * @param id        id de la ruta (atributo de Server MVC, tag de métricas)
+     * @param order     prioridad: menor gana
+     * @param paths     patrones de path
+     * @param condition condición adicional no basada en el path (nullable)
+     * @param target    RouterFunction de Server MVC con los filtros de la ruta
+     */
+    public record Route(String id,
+            int order,
+            List<String> paths,
+            RequestPredicate condition,
+            RouterFunction<ServerResponse> target) {
+    }
+
+    public static final class Builder {
+
+        private final List<Route> routes = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder route(String id, int order, List<String> paths, RequestPredicate condition,
+                RouterFunction<ServerResponse> target) {
+            routes.add(new Route(id, order, List.copyOf(paths), condition, target));
+            return this;
+        }
+
+        public Builder route(String id, int order, List<String> paths, RouterFunction<ServerResponse> target) {
+            return route(id, order, paths, null, target);
+        }
+
+        public RouteTable build() {
+            Node root = new Node();
+            for (Route route : routes) {
+                for (String pattern : route.paths()) {
+                    insert(root, pattern, route);
+                }
+            }
+            root.compile(List.of());
+            return new RouteTable(root, routes);
+        }
+
+        private static void insert(Node root, String pattern, Route route) {
+            boolean prefix = pattern.endsWith("/**");
+            String path = prefix ? pattern.substring(0, pattern.length() - 3) : pattern;
+            Node node = root;
+            for (String segment : path.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.contains("*") || segment.contains("{")) {
+                    throw new IllegalArgumentException("Patrón no soportado por la tabla de rutas: " + pattern);
+                }
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+            (prefix ? node.prefixRoutes : node.exactRoutes).add(route);
+        }
+    }
+
+    private static final class Node {
+
+        private static final Comparator<Route> BY_ORDER = Comparator.comparingInt(Route::order);
+
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Route> exactRoutes = new ArrayList<>();
+        private final List<Route> prefixRoutes = new ArrayList<>();
+
+        /** Rutas prefijo de este nodo y sus ancestros (path que continúa más allá). */
+        private List<Route> prefixCandidates = List.of();
+        /** prefixCandidates + rutas exactas (path que termina en este nodo). */
+        private List<Route> terminalCandidates = List.of();
+
+        private void compile(List<Route> inheritedPrefixes) {
+            List<Route> prefixes = new ArrayList<>(inheritedPrefixes);
+            prefixes.addAll(prefixRoutes);
+            prefixes.sort(BY_ORDER);
+            List<Route> terminal = new ArrayList<>(prefixes);
+            terminal.addAll(exactRoutes);
+            terminal.sort(BY_ORDER);
+            this.prefixCandidates = distinct(prefixes);
+            this.terminalCandidates = distinct(terminal);
+            children.values().forEach(child -> child.compile(prefixCandidates));
+        }
+
+        private static List<Route> distinct(List<Route> routes) {
+            return routes.stream().distinct().toList();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.brixo.slidehub.gateway;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Harness de latencia de cola: dos réplicas de state-service, una de ellas se
+ * queda parada {@link #STALL} en una de cada cuatro peticiones (cold start del
+ * hosting gratuito). Con hedging, /api/slide nunca debe esperar el stall
+ * completo. Las notas de IA se sirven desde una réplica que falla con 503 en
+ * peticiones alternas: los reintentos deben ocultarlo.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class GatewayHedgingTests {
+
+    private static final Duration STALL = Duration.ofSeconds(2);
+
+    private static final HttpServer stallingState = startStandIn(new AtomicInteger(),
+            n -> n % 4 == 0 ? STALL : Duration.ZERO, n -> 200);
+    private static final HttpServer fastState = startStandIn(new AtomicInteger(), n -> Duration.ZERO, n -> 200);
+    private static final HttpServer flakyAi = startStandIn(new AtomicInteger(), n -> Duration.ZERO,
+            n -> n % 2 == 0 ? 503 : 200);
+    private static final HttpServer healthyAi = startStandIn(new AtomicInteger(), n -> Duration.ZERO, n -> 200);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(4))
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void upstreams(DynamicPropertyRegistry registry) {
+        registry.add("slidehub.state-service.instances", () -> baseUrl(stallingState) + "," + baseUrl(fastState));
+        registry.add("slidehub.ai-service.instances", () -> baseUrl(flakyAi) + "," + baseUrl(healthyAi));
+        registry.add("slidehub.gateway.hedging.max-delay", () -> "150ms");
+        registry.add("slidehub.gateway.hedging.budget-ratio", () -> "0.5");
+        registry.add("slidehub.gateway.lb.health-check.interval", () -> "0s");
+        registry.add("slidehub.gateway.rate-limit.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopStandIns() {
+        stallingState.stop(0);
+        fastState.stop(0);
+        flakyAi.stop(0);
+        healthyAi.stop(0);
+    }
+
+    @Test
+    void hedgingCutsTailLatencyOfSlidePolls() throws Exception {
+        long[] latencies = new long[80];
+        for (int i = 0; i < latencies.length; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(gateway("/api/slide")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            latencies[i] = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        Arrays.sort(latencies);
+
+        assertThat(latencies[latencies.length - 1]).isLessThan(STALL.toMillis() / 2);
+        assertThat(meterRegistry.counter("slidehub.gateway.hedge.requests", "pool", "state").count())
+                .isGreaterThan(0);
+        assertThat(meterRegistry.counter("slidehub.gateway.hedge.wins", "pool", "state").count())
+                .isGreaterThan(0);
+    }
+
+    @Test
+    void retriesHideTransient503OnNotesReads() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(gateway("/api/ai/notes/p-" + i)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        assertThat(meterRegistry.counter("slidehub.gateway.retry.requests", "pool", "ai").count())
+                .isGreaterThan(0);
+    }
+
+    @Test
+    void writesAreNeverRetried() throws Exception {
+        double before = meterRegistry.counter("slidehub.gateway.retry.requests", "pool", "ai").count();
+        for (int i = 0; i < 6; i++) {
+            client.send(HttpRequest.newBuilder(gateway("/api/ai/notes/generate"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                    .header("Content-Type", "application/json")
+                    .build(), HttpResponse.BodyHandlers.ofString());
+        }
+        assertThat(meterRegistry.counter("slidehub.gateway.retry.requests", "pool", "ai").count())
+                .isEqualTo(before);
+    }
+
+    private URI gateway(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String baseUrl(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static HttpServer startStandIn(AtomicInteger requests,
+            IntFunction<Duration> delay,
+            IntUnaryOperator status) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                int n = requests.incrementAndGet();
+                try {
+                    Thread.sleep(delay.apply(n).toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] bytes = "{\"slide\":1,\"totalSlides\":10}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status.applyAsInt(n), bytes.length);
+                exchange.getResponseBody().write(bytes);
+                exchange.close();
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
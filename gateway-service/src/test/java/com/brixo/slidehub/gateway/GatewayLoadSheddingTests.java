@@ -0,0 +1,124 @@
+package com.brixo.slidehub.gateway;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Con ai-service degradado (stand-in que tarda 3 s por respuesta), el gateway
+ * debe rechazar rápido el exceso de /api/ai/** y /api/slide debe seguir
+ * respondiendo con latencia baja.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class GatewayLoadSheddingTests {
+
+    private static final Duration SLOW_AI_DELAY = Duration.ofSeconds(3);
+
+    private static final HttpServer slowAiService = startStandIn("/api/ai", SLOW_AI_DELAY,
+            "{\"notesGenerated\":1}");
+    private static final HttpServer stateService = startStandIn("/api", Duration.ZERO,
+            "{\"slide\":1,\"totalSlides\":10}");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(40))
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void upstreams(DynamicPropertyRegistry registry) {
+        registry.add("slidehub.ai-service.url", () -> baseUrl(slowAiService));
+        registry.add("slidehub.state-service.url", () -> baseUrl(stateService));
+        registry.add("slidehub.gateway.shedding.ai.max-concurrent", () -> "4");
+    }
+
+    @AfterAll
+    static void stopStandIns() {
+        slowAiService.stop(0);
+        stateService.stop(0);
+    }
+
+    @Test
+    void slowAiServiceDoesNotDelaySlidePolls() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> aiCalls = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            aiCalls.add(client.sendAsync(
+                    HttpRequest.newBuilder(gateway("/api/ai/notes/generate-all"))
+                            .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                            .header("Content-Type", "application/json")
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        Thread.sleep(200); // las 4 llamadas admitidas ya están bloqueadas en el stand-in
+
+        long worstSlideMillis = 0;
+        for (int i = 0; i < 20; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> slide = client.send(
+                    HttpRequest.newBuilder(gateway("/api/slide")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            worstSlideMillis = Math.max(worstSlideMillis, Duration.ofNanos(System.nanoTime() - start).toMillis());
+            assertThat(slide.statusCode()).isEqualTo(200);
+        }
+
+        List<HttpResponse<String>> aiResponses = aiCalls.stream().map(CompletableFuture::join).toList();
+        List<HttpResponse<String>> shed = aiResponses.stream().filter(r -> r.statusCode() == 503).toList();
+
+        assertThat(worstSlideMillis).isLessThan(SLOW_AI_DELAY.toMillis() / 6);
+        assertThat(shed).hasSizeGreaterThanOrEqualTo(20);
+        assertThat(shed).allSatisfy(r -> assertThat(r.headers().firstValue("Retry-After")).isPresent());
+        assertThat(aiResponses.stream().filter(r -> r.statusCode() == 200)).hasSizeLessThanOrEqualTo(4);
+    }
+
+    private URI gateway(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String baseUrl(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static HttpServer startStandIn(String context, Duration delay, String body) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext(context, exchange -> {
+                try {
+                    Thread.sleep(delay.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+                exchange.close();
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.brixo.slidehub.gateway;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos réplicas de ui-service con sesión en memoria: solo {@link #owner} conoce
+ * la sesión del usuario y responde lento; {@link #stranger} contesta 302 a
+ * login al instante. Aun con hedging activado para ui, las peticiones con
+ * cookie de afinidad nunca deben llegar a la otra réplica.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class GatewayStickyHedgingTests {
+
+    private static final String SESSION_COOKIE = "JSESSIONID=s-1";
+    private static final Duration SLOW = Duration.ofMillis(400);
+
+    private static final AtomicInteger ownerRequests = new AtomicInteger();
+    private static final AtomicInteger strangerRequests = new AtomicInteger();
+    private static final HttpServer owner = startStandIn(ownerRequests, SLOW, true);
+    private static final HttpServer stranger = startStandIn(strangerRequests, Duration.ZERO, false);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void upstreams(DynamicPropertyRegistry registry) {
+        registry.add("slidehub.ui-service.instances", () -> baseUrl(owner) + "," + baseUrl(stranger));
+        registry.add("slidehub.gateway.hedging.ui.enabled", () -> "true");
+        registry.add("slidehub.gateway.hedging.paths", () -> "/api/presentations,/api/presentations/*/notes");
+        registry.add("slidehub.gateway.hedging.max-delay", () -> "50ms");
+        registry.add("slidehub.gateway.hedging.budget-ratio", () -> "1.0");
+        registry.add("slidehub.gateway.lb.health-check.interval", () -> "0s");
+        registry.add("slidehub.gateway.rate-limit.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopStandIns() {
+        owner.stop(0);
+        stranger.stop(0);
+    }
+
+    @Test
+    void pinnedSessionIsNeverHedgedToAnotherReplica() throws Exception {
+        String affinity = "SLIDEHUB_UPSTREAM_UI_SERVICE=" + Integer.toHexString(baseUrl(owner).hashCode());
+        for (int i = 0; i < 8; i++) {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(gateway("/api/presentations"))
+                    .header("Cookie", SESSION_COOKIE + "; " + affinity)
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+
+        assertThat(ownerRequests.get()).isEqualTo(8);
+        assertThat(strangerRequests.get()).isZero();
+        assertThat(meterRegistry.counter("slidehub.gateway.hedge.requests", "pool", "ui").count()).isZero();
+        assertThat(meterRegistry.counter("slidehub.gateway.retry.requests", "pool", "ui").count()).isZero();
+    }
+
+    private URI gateway(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String baseUrl(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static HttpServer startStandIn(AtomicInteger requests, Duration delay, boolean knowsSession) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                requests.incrementAndGet();
+                try {
+                    Thread.sleep(delay.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                String cookies = String.join("; ", exchange.getRequestHeaders().getOrDefault("Cookie", List.of()));
+                if (!knowsSession || !cookies.contains(SESSION_COOKIE)) {
+                    exchange.getResponseHeaders().add("Location", "/auth/login");
+                    exchange.sendResponseHeaders(302, -1);
+                    exchange.close();
+                    return;
+                }
+                byte[] bytes = "[]".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+                exchange.close();
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.brixo.slidehub.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache-Control y ETag del gateway solo rellenan lo que el upstream no envía:
+ * las URLs versionadas de slides siguen siendo immutable y no se bufferizan.
+ * El no-store por defecto de Spring Security cuenta como no enviado.
+ */
+class CachingFiltersTests {
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private final HandlerFilterFunction<ServerResponse, ServerResponse> slides = new CachingFilters(
+            new MockEnvironment()).assets("slides", Duration.ofHours(12), false);
+
+    @Test
+    void upstreamCacheControlAndEtagPassThroughUntouched() throws Exception {
+        ServerResponse upstream = ServerResponse.ok()
+                .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE)
+                .eTag("\"sha-1\"")
+                .body("slide");
+
+        ServerResponse response = slides.filter(request(), r -> upstream);
+
+        assertThat(response).isSameAs(upstream);
+        assertThat(response.headers().getCacheControl()).isEqualTo(IMMUTABLE);
+        assertThat(response.headers().getETag()).isEqualTo("\"sha-1\"");
+    }
+
+    @Test
+    void upstreamWithoutCachingHeadersGetsGatewayDefaults() throws Exception {
+        ServerResponse response = slides.filter(request(), r -> ServerResponse.ok().body("slide"));
+
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        List<HttpMessageConverter<?>> converters = List.of(new StringHttpMessageConverter());
+        response.writeTo(new MockHttpServletRequest("GET", "/presentation/p-1/logo.png"), servletResponse,
+                () -> converters);
+
+        assertThat(servletResponse.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=43200, public");
+        assertThat(servletResponse.getHeader(HttpHeaders.ETAG)).isNotBlank();
+    }
+
+    @Test
+    void springSecurityDefaultNoStoreIsReplacedOnAssets() throws Exception {
+        ServerResponse upstream = ServerResponse.ok()
+                .header(HttpHeaders.CACHE_CONTROL, CachingFilters.SECURITY_DEFAULT_CACHE_CONTROL)
+                .header(HttpHeaders.PRAGMA, "no-cache")
+                .header(HttpHeaders.EXPIRES, "0")
+                .eTag("\"sha-1\"")
+                .body("slide");
+
+        ServerResponse response = slides.filter(request(), r -> upstream);
+
+        assertThat(response.headers().getCacheControl()).isEqualTo("max-age=43200, public");
+        assertThat(response.headers().containsKey(HttpHeaders.PRAGMA)).isFalse();
+        assertThat(response.headers().containsKey(HttpHeaders.EXPIRES)).isFalse();
+        assertThat(response.headers().getETag()).isEqualTo("\"sha-1\"");
+    }
+
+    @Test
+    void deliberateNoStoreIsRespected() throws Exception {
+        ServerResponse upstream = ServerResponse.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .eTag("\"sha-1\"")
+                .body("slide");
+
+        ServerResponse response = slides.filter(request(), r -> upstream);
+
+        assertThat(response.headers().getCacheControl()).isEqualTo("no-store");
+    }
+
+    private static ServerRequest request() {
+        return ServerRequest.create(new MockHttpServletRequest("GET", "/presentation/p-1/slides/1"), List.of());
+    }
+}
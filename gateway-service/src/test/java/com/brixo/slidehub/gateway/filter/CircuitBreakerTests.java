@@ -0,0 +1,57 @@
+package com.brixo.slidehub.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * En HALF_OPEN solo las respuestas del upstream cierran el circuito: una
+ * prueba rechazada por el propio gateway se devuelve sin contar.
+ */
+class CircuitBreakerTests {
+
+    private static final CircuitBreaker.Settings SETTINGS = new CircuitBreaker.Settings(
+            4, 2, 50, Duration.ofSeconds(10), Duration.ofSeconds(5), 1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker("test", SETTINGS, clock::get);
+
+    @Test
+    void gatewayRejectionDoesNotCloseHalfOpenCircuit() {
+        openAndWait();
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        circuitBreaker.release();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        // La prueba liberada queda disponible para una llamada real
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        circuitBreaker.record(Duration.ofMillis(5), false);
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void releaseNeverGrantsMoreProbesThanConfigured() {
+        openAndWait();
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        circuitBreaker.release();
+        circuitBreaker.release();
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    private void openAndWait() {
+        for (int i = 0; i < 2; i++) {
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+            circuitBreaker.record(Duration.ofMillis(5), true);
+        }
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+    }
+}
@@ -0,0 +1,78 @@
+package com.brixo.slidehub.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * La clave del rate limit no la controla el cliente: cambiar X-Forwarded-For
+ * o X-Device-Token en cada petición no da un bucket nuevo.
+ */
+class RateLimitFiltersTests {
+
+    private static final String CLIENT_IP = "203.0.113.7";
+
+    @Test
+    void withoutTrustedProxiesKeyIsRemoteAddress() {
+        ServerRequest request = request("GET", "198.51.100.1, 10.0.0.1", "token-1");
+
+        assertThat(RateLimitFilters.clientKey(request, 0)).isEqualTo("ip:10.1.1.1");
+    }
+
+    @Test
+    void behindOneProxyKeyIsRightmostForwardedHop() {
+        ServerRequest request = request("GET", "198.51.100.1, " + CLIENT_IP, null);
+
+        assertThat(RateLimitFilters.clientKey(request, 1)).isEqualTo("ip:" + CLIENT_IP);
+    }
+
+    @Test
+    void missingForwardedHopsFallBackToRemoteAddress() {
+        ServerRequest request = request("GET", null, null);
+
+        assertThat(RateLimitFilters.clientKey(request, 1)).isEqualTo("ip:10.1.1.1");
+    }
+
+    @Test
+    void rotatingSpoofedHeadersDoesNotResetTheBucket() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("slidehub.gateway.rate-limit.trusted-proxies", "1")
+                .withProperty("slidehub.gateway.rate-limit.write.capacity", "3")
+                .withProperty("slidehub.gateway.rate-limit.write.refill-per-second", "0.01");
+        HandlerFilterFunction<ServerResponse, ServerResponse> filter = new RateLimitFilters(
+                new StripedTokenBucketStore(4, 64), environment, new SimpleMeterRegistry()).limit("state");
+
+        int rejected = 0;
+        for (int i = 0; i < 10; i++) {
+            // El cliente inventa una IP y un token distintos; el proxy añade la real
+            ServerRequest request = request("POST", "192.0.2." + i + ", " + CLIENT_IP, "token-" + i);
+            ServerResponse response = filter.filter(request, r -> ServerResponse.ok().build());
+            if (response.statusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                rejected++;
+            }
+        }
+
+        assertThat(rejected).isEqualTo(7);
+    }
+
+    private static ServerRequest request(String method, String forwardedFor, String deviceToken) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest(method, "/api/slide");
+        servletRequest.setRemoteAddr("10.1.1.1");
+        if (forwardedFor != null) {
+            servletRequest.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        if (deviceToken != null) {
+            servletRequest.addHeader("X-Device-Token", deviceToken);
+        }
+        return ServerRequest.create(servletRequest, List.of());
+    }
+}
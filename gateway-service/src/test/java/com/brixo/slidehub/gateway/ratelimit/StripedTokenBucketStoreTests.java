@@ -0,0 +1,54 @@
+package com.brixo.slidehub.gateway.ratelimit;
+
+import com.brixo.slidehub.gateway.ratelimit.TokenBucketStore.BucketLimit;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Buckets read y write en el mismo almacén: la expulsión de inactivos no
+ * recarga ni recorta un bucket con el límite del otro presupuesto, y el
+ * tamaño de cada segmento es un límite duro.
+ */
+class StripedTokenBucketStoreTests {
+
+    private static final BucketLimit READ = new BucketLimit(40, 20);
+    private static final BucketLimit WRITE = new BucketLimit(20, 5);
+    private static final long MILLI = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void writeTriggeredEvictionKeepsReadBucketsWithTheirOwnLimit() {
+        StripedTokenBucketStore store = new StripedTokenBucketStore(1, 2, clock::get);
+        store.tryConsume("write:idle", WRITE);
+        clock.addAndGet(5_000 * MILLI);
+        // El poller gasta 15 de sus 40 tokens: con el límite write (20) parecería lleno
+        for (int i = 0; i < 15; i++) {
+            assertThat(store.tryConsume("read:poller", READ).allowed()).isTrue();
+        }
+
+        // Clave nueva en un segmento lleno: solo sobra write:idle
+        store.tryConsume("write:new", WRITE);
+
+        int allowed = 0;
+        while (store.tryConsume("read:poller", READ).allowed()) {
+            allowed++;
+        }
+        assertThat(allowed).isEqualTo(READ.capacity() - 15);
+    }
+
+    @Test
+    void segmentSizeIsAHardCap() {
+        StripedTokenBucketStore store = new StripedTokenBucketStore(1, 8, clock::get);
+        for (int i = 0; i < 100; i++) {
+            // Ningún bucket llega a recargarse: todos están activos
+            store.tryConsume("write:" + i, WRITE);
+            store.tryConsume("write:" + i, WRITE);
+        }
+
+        assertThat(store.size()).isEqualTo(8);
+    }
+}
@@ -0,0 +1,111 @@
+package com.brixo.slidehub.gateway.routing;
+
+import com.brixo.slidehub.gateway.config.RoutesConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.RequestPredicate;
+import org.springframework.web.servlet.function.RequestPredicates;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolución de rutas: tabla compilada ({@link RouteTable}) frente a la cadena
+ * de RouterFunctions con predicados path OR'd que usaba RoutesConfig.
+ *
+ * Ambas se construyen con la misma tabla ({@link RoutesConfig#routeTable}) y
+ * destinos de prueba. Ejecutar con:
+ *
+ * mvn -pl gateway-service test-compile exec:java \
+ * -Dexec.mainClass=com.brixo.slidehub.gateway.routing.RouteResolutionBenchmark \
+ * -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteResolutionBenchmark {
+
+    /** Peticiones representativas: poll, SSE, vistas, assets y el peor caso (/presentation/**). */
+    @Param({ "/api/slide", "/api/presentations/42/events", "/api/ai/notes/generate-all",
+            "/presenter", "/css/app.css", "/presentation/Slide12.PNG" })
+    public String path;
+
+    private RouteTable table;
+    private RouterFunction<ServerResponse> chain;
+    private ServerRequest request;
+
+    @Setup
+    public void setUp() {
+        Map<String, HandlerFunction<ServerResponse>> handlers = new HashMap<>();
+        table = RoutesConfig.routeTable(routeId -> {
+            HandlerFunction<ServerResponse> handler = req -> ServerResponse.ok().build();
+            handlers.put(routeId, handler);
+            return RouterFunctions.route(RequestPredicates.all(), handler);
+        });
+        chain = table.routes().stream()
+                .map(route -> RouterFunctions.route(predicate(route), handlers.get(route.id())))
+                .reduce(RouterFunction::and)
+                .orElseThrow();
+
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", path);
+        if (path.endsWith("/events")) {
+            servletRequest.addHeader(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+        }
+        request = ServerRequest.create(servletRequest, List.of());
+
+        // Las dos estrategias deben elegir la misma ruta
+        HandlerFunction<ServerResponse> expected = chain.route(request).orElseThrow();
+        if (handlers.get(table.resolve(request).id()) != expected) {
+            throw new IllegalStateException("La tabla compilada y la cadena difieren para " + path);
+        }
+    }
+
+    @Benchmark
+    public RouteTable.Route compiledTable() {
+        return table.resolve(request);
+    }
+
+    @Benchmark
+    public Object orderedPredicateChain() {
+        return chain.route(request).orElse(null);
+    }
+
+    private static RequestPredicate predicate(RouteTable.Route route) {
+        RequestPredicate paths = route.paths().stream()
+                .map(RequestPredicates::path)
+                .reduce(RequestPredicate::or)
+                .orElseThrow();
+        return route.condition() == null ? paths : paths.and(route.condition());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RouteResolutionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
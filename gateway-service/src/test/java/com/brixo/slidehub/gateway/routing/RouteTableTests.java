@@ -0,0 +1,47 @@
+package com.brixo.slidehub.gateway.routing;
+
+import com.brixo.slidehub.gateway.config.RoutesConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.function.RequestPredicates;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Resolución sobre la tabla real de RoutesConfig: los segmentos se comparan
+ * decodificados, así que un path codificado no esquiva la ruta que le toca.
+ */
+class RouteTableTests {
+
+    private final RouteTable table = RoutesConfig.routeTable(
+            routeId -> RouterFunctions.route(RequestPredicates.all(), req -> ServerResponse.ok().build()));
+
+    @Test
+    void encodedSegmentsResolveLikeTheirDecodedForm() {
+        assertThat(resolve("/api/%61i/notes/generate-all")).isEqualTo(RoutesConfig.AI_ROUTE);
+        assertThat(resolve("/api/presentation%73/42")).isEqualTo(RoutesConfig.PRESENTATION_API_ROUTE);
+    }
+
+    @Test
+    void matrixVariablesAreIgnoredWhenMatching() {
+        assertThat(resolve("/api/ai;v=1/notes")).isEqualTo(RoutesConfig.AI_ROUTE);
+    }
+
+    @Test
+    void unknownSegmentsFallBackToTheClosestPrefix() {
+        assertThat(resolve("/api/slide")).isEqualTo(RoutesConfig.STATE_ROUTE);
+        assertThat(resolve("/presenter")).isEqualTo(RoutesConfig.UI_ROUTE);
+        assertThat(resolve("/nothing-here")).isNull();
+    }
+
+    private String resolve(String path) {
+        ServerRequest request = ServerRequest.create(new MockHttpServletRequest("GET", path), List.of());
+        RouteTable.Route route = table.resolve(request);
+        return route == null ? null : route.id();
+    }
+}
@@ -3,15 +3,25 @@ package com.brixo.slidehub.ui.config;
 import javax.sql.DataSource;
 
 import java.net.URI;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Transforma URLs de base de datos en formato libpq (postgres://...)
@@ -28,6 +38,21 @@ import org.springframework.context.annotation.Configuration;
  * → jdbc:postgresql://host:port/db?user=user&password=pass
  *
  * Si la URL ya comienza con jdbc:, se usa tal cual (sin transformación).
+ *
+ * El pool (HikariCP) se configura con slidehub.datasource.* (ver
+ * application.properties): tamaño, timeouts y detección de fugas. Contra
+ * PostgreSQL además activa la caché de prepared statements del driver y
+ * reWriteBatchedInserts (los INSERT en batch de Hibernate viajan como un solo
+ * INSERT multi-fila). Las métricas del pool se publican en Micrometer
+ * (hikaricp.connections.*).
+ *
+ * Con slidehub.datasource.replica-url, solo las transacciones
+ * {@code @Transactional(readOnly = true)} declaradas en los servicios
+ * (com.brixo.slidehub.ui.service) van a un segundo pool contra la réplica; el
+ * resto, al primario. Los métodos de Spring Data llamados fuera de una
+ * transacción también son readOnly por defecto, pero siguen en el primario:
+ * leen justo después de escribir (jobs, usuario autenticado) y la réplica
+ * puede ir por detrás lo que tarde la replicación.
  */
 @Configuration
 public class DatabaseConfig {
@@ -40,25 +65,99 @@ public class DatabaseConfig {
     @Value("${spring.datasource.driver-class-name:org.postgresql.Driver}")
     private String driverClassName;
 
+    @Value("${slidehub.datasource.replica-url:}")
+    private String replicaUrl;
+
+    @Value("${slidehub.datasource.pool.maximum-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${slidehub.datasource.pool.minimum-idle:2}")
+    private int minimumIdle;
+
+    @Value("${slidehub.datasource.pool.connection-timeout:10s}")
+    private Duration connectionTimeout;
+
+    @Value("${slidehub.datasource.pool.idle-timeout:10m}")
+    private Duration idleTimeout;
+
+    @Value("${slidehub.datasource.pool.max-lifetime:30m}")
+    private Duration maxLifetime;
+
+    @Value("${slidehub.datasource.pool.leak-detection-threshold:0s}")
+    private Duration leakDetectionThreshold;
+
+    @Value("${slidehub.datasource.postgres.prepare-threshold:3}")
+    private int prepareThreshold;
+
+    @Value("${slidehub.datasource.postgres.prepared-statement-cache-queries:256}")
+    private int preparedStatementCacheQueries;
+
+    @Value("${slidehub.datasource.postgres.prepared-statement-cache-size-mib:5}")
+    private int preparedStatementCacheSizeMiB;
+
+    @Value("${slidehub.datasource.postgres.rewrite-batched-inserts:true}")
+    private boolean reWriteBatchedInserts;
+
     @Bean
-    public DataSource dataSource() {
-        JdbcConnectionInfo connectionInfo = parseConnectionInfo(databaseUrl);
-        String jdbcUrl = connectionInfo.jdbcUrl();
+    public DataSource dataSource(ObjectProvider<MeterRegistry> meterRegistry) {
+        JdbcConnectionInfo primary = parseConnectionInfo(databaseUrl);
+        String jdbcUrl = primary.jdbcUrl();
         log.info("DataSource URL scheme: {}",
                 jdbcUrl.substring(0, Math.min(jdbcUrl.indexOf("://") + 3, jdbcUrl.length())));
 
-        DataSourceBuilder<?> builder = DataSourceBuilder.create()
-                .url(jdbcUrl)
-                .driverClassName(driverClassName);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        HikariDataSource primaryPool = pool("slidehub-primary", primary, false, registry);
+        if (replicaUrl == null || replicaUrl.isBlank()) {
+            return primaryPool;
+        }
 
+        JdbcConnectionInfo replica = parseConnectionInfo(replicaUrl);
+        if (replica.username() == null) {
+            // Réplica con las mismas credenciales que el primario
+            replica = new JdbcConnectionInfo(replica.jdbcUrl(), primary.username(), primary.password());
+        }
+        HikariDataSource replicaPool = pool("slidehub-replica", replica, true, registry);
+        log.info("Transacciones de solo lectura de los servicios enrutadas a la réplica");
+        return new ReadReplicaDataSource(primaryPool, replicaPool);
+    }
+
+    /**
+     * Pool HikariCP para una base de datos. El nombre del pool es la etiqueta
+     * {@code pool} de las métricas.
+     */
+    private HikariDataSource pool(String poolName, JdbcConnectionInfo connectionInfo, boolean readOnly,
+            MeterRegistry registry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(connectionInfo.jdbcUrl());
+        config.setDriverClassName(driverClassName);
         if (connectionInfo.username() != null && !connectionInfo.username().isBlank()) {
-            builder.username(connectionInfo.username());
+            config.setUsername(connectionInfo.username());
         }
         if (connectionInfo.password() != null) {
-            builder.password(connectionInfo.password());
+            config.setPassword(connectionInfo.password());
         }
+        config.setReadOnly(readOnly);
+
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(Math.min(minimumIdle, maximumPoolSize));
+        config.setConnectionTimeout(connectionTimeout.toMillis());
+        config.setIdleTimeout(idleTimeout.toMillis());
+        config.setMaxLifetime(maxLifetime.toMillis());
+        config.setLeakDetectionThreshold(leakDetectionThreshold.toMillis());
 
-        return builder.build();
+        // Propiedades del driver PostgreSQL; H2 rechaza las que no conoce
+        if (connectionInfo.jdbcUrl().startsWith("jdbc:postgresql:")) {
+            config.addDataSourceProperty("prepareThreshold", prepareThreshold);
+            config.addDataSourceProperty("preparedStatementCacheQueries", preparedStatementCacheQueries);
+            config.addDataSourceProperty("preparedStatementCacheSizeMiB", preparedStatementCacheSizeMiB);
+            config.addDataSourceProperty("reWriteBatchedInserts", reWriteBatchedInserts);
+        }
+
+        if (registry != null) {
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        return new HikariDataSource(config);
     }
 
     /**
@@ -137,4 +236,47 @@ public class DatabaseConfig {
 
     private record JdbcConnectionInfo(String jdbcUrl, String username, String password) {
     }
+
+    /**
+     * Enruta por transacción: la conexión real se pide al ejecutar la primera
+     * sentencia, cuando ya se sabe si la transacción es de solo lectura y qué
+     * método la declaró. Cierra ambos pools al parar el contexto.
+     */
+    static final class ReadReplicaDataSource extends LazyConnectionDataSourceProxy
+            implements AutoCloseable {
+
+        /** Prefijo del nombre de las transacciones que pueden leer de la réplica. */
+        static final String REPLICA_TRANSACTION_PREFIX = "com.brixo.slidehub.ui.service.";
+
+        private final HikariDataSource primaryPool;
+        private final HikariDataSource replicaPool;
+
+        ReadReplicaDataSource(HikariDataSource primaryPool, HikariDataSource replicaPool) {
+            super(primaryPool);
+            setReadOnlyDataSource(new DelegatingDataSource(replicaPool) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return (usesReplica() ? replicaPool : primaryPool).getConnection();
+                }
+            });
+            this.primaryPool = primaryPool;
+            this.replicaPool = replicaPool;
+        }
+
+        /**
+         * Solo se consulta en transacciones readOnly. El nombre es el método
+         * anotado con @Transactional (clase.método); los métodos de los
+         * repositorios de Spring Data quedan fuera del prefijo.
+         */
+        private static boolean usesReplica() {
+            String name = TransactionSynchronizationManager.getCurrentTransactionName();
+            return name != null && name.startsWith(REPLICA_TRANSACTION_PREFIX);
+        }
+
+        @Override
+        public void close() {
+            replicaPool.close();
+            primaryPool.close();
+        }
+    }
 }
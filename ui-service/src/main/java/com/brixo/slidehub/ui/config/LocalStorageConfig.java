@@ -0,0 +1,44 @@
+package com.brixo.slidehub.ui.config;
+
+import com.brixo.slidehub.ui.storage.LocalSlideStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Publica los slides del backend local (slidehub.storage.backend=local) bajo
+ * {@code public-path}, que es la URL que {@link LocalSlideStorage} guarda en
+ * cada Slide.
+ *
+ * El handler de recursos estáticos de Spring ya resuelve Range,
+ * Last-Modified y If-Modified-Since sobre archivos; el Cache-Control lo fija
+ * {@code slidehub.storage.local.max-age}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "slidehub.storage.backend", havingValue = "local")
+public class LocalStorageConfig implements WebMvcConfigurer {
+
+    private final LocalSlideStorage storage;
+
+    @Value("${slidehub.storage.local.public-path:/storage}")
+    private String publicPath;
+
+    @Value("${slidehub.storage.local.max-age:12h}")
+    private Duration maxAge;
+
+    public LocalStorageConfig(LocalSlideStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(publicPath + "/**")
+                .addResourceLocations(storage.root().toUri().toString())
+                .setCacheControl(CacheControl.maxAge(maxAge).cachePublic());
+    }
+}
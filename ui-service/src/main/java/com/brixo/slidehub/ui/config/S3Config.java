@@ -2,17 +2,27 @@ package com.brixo.slidehub.ui.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
 
 /**
  * Configura el cliente AWS S3 v2 (CLAUDE.md §9.5.2).
  *
  * AWS SDK v2 es la única excepción justificada al patrón WebClient-only
  * porque S3 requiere firma SigV4 que el SDK maneja automáticamente.
+ *
+ * S3Client (síncrono) siempre existe: lo usan los borrados y el modo sync.
+ * Con slidehub.upload.mode=async se añade S3AsyncClient + S3TransferManager
+ * para las subidas (ver S3SlideStorage).
  */
 @Configuration
 public class S3Config {
@@ -28,4 +38,40 @@ public class S3Config {
                         AwsBasicCredentials.create(accessKeyId, secretKey)))
                 .build();
     }
+
+    // ── Modo async (slidehub.upload.mode=async) ───────────────────────────────
+
+    /**
+     * Cliente asíncrono (Netty) con multipart automático: los objetos mayores
+     * que {@code multipart-threshold} se suben en partes concurrentes.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "slidehub.upload.mode", havingValue = "async")
+    public S3AsyncClient s3AsyncClient(
+            @Value("${aws.s3.region}") String region,
+            @Value("${aws.access-key-id}") String accessKeyId,
+            @Value("${aws.secret-access-key}") String secretKey,
+            @Value("${slidehub.upload.multipart-threshold:16MB}") DataSize multipartThreshold,
+            @Value("${slidehub.upload.part-size:8MB}") DataSize partSize,
+            @Value("${slidehub.upload.async.max-concurrency:32}") int maxConcurrency) {
+        return S3AsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(accessKeyId, secretKey)))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(maxConcurrency))
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(multipartThreshold.toBytes())
+                        .minimumPartSizeInBytes(partSize.toBytes())
+                        .build())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "slidehub.upload.mode", havingValue = "async")
+    public S3TransferManager s3TransferManager(S3AsyncClient s3AsyncClient) {
+        return S3TransferManager.builder()
+                .s3Client(s3AsyncClient)
+                .build();
+    }
 }
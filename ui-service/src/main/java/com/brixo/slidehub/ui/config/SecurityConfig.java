@@ -10,17 +10,34 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.security.web.header.writers.DelegatingRequestMatcherHeaderWriter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 /**
  * Configuración de seguridad de ui-service (CLAUDE.md §11).
  *
  * Fase 1: auth local (BCrypt + PostgreSQL) + OAuth2 (GitHub, Google).
  * Estrategia de autorización según AGENTS.md §2.2.
+ *
+ * El {@code Cache-Control: no-store} que Spring Security añade por defecto no
+ * se aplica a los assets públicos: su caché la deciden SlideAssetController y
+ * los resource handlers (spring.web.resources.cache.*, LocalStorageConfig).
  */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final RequestMatcher PUBLIC_ASSETS = new OrRequestMatcher(
+            PathPatternRequestMatcher.withDefaults().matcher("/css/**"),
+            PathPatternRequestMatcher.withDefaults().matcher("/js/**"),
+            PathPatternRequestMatcher.withDefaults().matcher("/images/**"),
+            PathPatternRequestMatcher.withDefaults().matcher("/presentation/**"),
+            PathPatternRequestMatcher.withDefaults().matcher("/storage/**"));
+
     private final CustomUserDetailsService userDetailsService;
     private final CustomOAuth2UserService oAuth2UserService;
 
@@ -40,7 +57,7 @@ public class SecurityConfig {
                         // Auth pública — incluye rutas OAuth2 de Spring Security
                         .requestMatchers("/auth/**", "/oauth2/**", "/login/oauth2/**").permitAll()
                         // Assets estáticos de slides
-                        .requestMatchers("/presentation/**").permitAll()
+                        .requestMatchers("/presentation/**", "/storage/**").permitAll()
                         // Importación y gestión de presentaciones — requiere PRESENTER o ADMIN
                         .requestMatchers("/presentations/**").hasAnyRole("PRESENTER", "ADMIN")
                         .requestMatchers("/api/presentations/**").hasAnyRole("PRESENTER", "ADMIN")
@@ -71,7 +88,12 @@ public class SecurityConfig {
                 .logout(logout -> logout
                         .logoutUrl("/auth/logout")
                         .logoutSuccessUrl("/auth/login?logout=true")
-                        .invalidateHttpSession(true));
+                        .invalidateHttpSession(true))
+                // no-store en todo salvo los assets públicos
+                .headers(headers -> headers
+                        .cacheControl(cacheControl -> cacheControl.disable())
+                        .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(
+                                new NegatedRequestMatcher(PUBLIC_ASSETS), new CacheControlHeadersWriter())));
         return http.build();
     }
 
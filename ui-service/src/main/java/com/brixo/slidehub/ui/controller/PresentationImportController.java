@@ -2,13 +2,17 @@ package com.brixo.slidehub.ui.controller;
 
 import com.brixo.slidehub.ui.model.DriveFile;
 import com.brixo.slidehub.ui.model.DriveFolder;
-import com.brixo.slidehub.ui.model.Presentation;
+import com.brixo.slidehub.ui.model.ImportJob;
+import com.brixo.slidehub.ui.model.ImportJobSummary;
+import com.brixo.slidehub.ui.model.PresentationPage;
 import com.brixo.slidehub.ui.model.PresentationSummary;
 import com.brixo.slidehub.ui.model.User;
-import com.brixo.slidehub.ui.repository.UserRepository;
+import com.brixo.slidehub.ui.service.AuthenticatedUserCache;
+import com.brixo.slidehub.ui.service.ImportJobService;
 import com.brixo.slidehub.ui.service.PresentationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
@@ -24,9 +28,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 /**
  * Controller de importación y gestión de presentaciones (PLAN-EXPANSION.md Fase
@@ -44,15 +48,24 @@ public class PresentationImportController {
 
     private static final Logger log = LoggerFactory.getLogger(PresentationImportController.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final PresentationService presentationService;
-    private final UserRepository userRepository;
+    private final ImportJobService importJobService;
+    private final AuthenticatedUserCache authenticatedUserCache;
     private final OAuth2AuthorizedClientService authorizedClientService;
 
+    @Value("${slidehub.poll.import.interval-ms:1000}")
+    private long importPollIntervalMs;
+
     public PresentationImportController(PresentationService presentationService,
-            UserRepository userRepository,
+            ImportJobService importJobService,
+            AuthenticatedUserCache authenticatedUserCache,
             OAuth2AuthorizedClientService authorizedClientService) {
         this.presentationService = presentationService;
-        this.userRepository = userRepository;
+        this.importJobService = importJobService;
+        this.authenticatedUserCache = authenticatedUserCache;
         this.authorizedClientService = authorizedClientService;
     }
 
@@ -65,69 +78,84 @@ public class PresentationImportController {
      */
     @GetMapping("/presentations/import")
     public String importPage(Authentication authentication, Model model) {
-        User user = resolveUser(authentication);
-        List<PresentationSummary> presentations = presentationService
-                .listPresentations(user.getId())
-                .stream()
-                .map(PresentationSummary::from)
-                .toList();
+        String userId = resolveUserId(authentication);
+        List<PresentationSummary> presentations = presentationService.listPresentations(userId);
         model.addAttribute("presentations", presentations);
         model.addAttribute("hasGoogleToken", hasGoogleToken(authentication));
+        model.addAttribute("pollIntervalMs", importPollIntervalMs);
         return "presentations/import";
     }
 
     // ── API JSON ──────────────────────────────────────────────────────────────
 
     /**
-     * Lista las presentaciones del usuario en formato JSON.
+     * Lista las presentaciones del usuario en formato JSON, más recientes
+     * primero, paginadas por cursor (keyset).
+     *
+     * @param q      prefijo del nombre (opcional, sin distinguir mayúsculas)
+     * @param cursor {@code nextCursor} de la respuesta anterior (opcional)
+     * @param limit  tamaño de página (1–{@value #MAX_PAGE_SIZE})
      */
     @GetMapping("/api/presentations")
     @ResponseBody
-    public ResponseEntity<List<PresentationSummary>> listPresentations(Authentication authentication) {
-        User user = resolveUser(authentication);
-        List<PresentationSummary> list = presentationService
-                .listPresentations(user.getId())
-                .stream()
-                .map(PresentationSummary::from)
-                .toList();
-        return ResponseEntity.ok(list);
+    public ResponseEntity<?> listPresentations(@RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            Authentication authentication) {
+        String userId = resolveUserId(authentication);
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        try {
+            PresentationPage page = presentationService.listPresentations(userId, q, cursor, pageSize);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     /**
      * Lista las carpetas de Google Drive del usuario.
      * Requiere que el usuario haya iniciado sesión con Google (token OAuth2
-     * disponible).
+     * disponible). El listado se cachea unos segundos; {@code refresh=true}
+     * fuerza a listar de nuevo.
      */
     @GetMapping("/api/presentations/drive/folders")
     @ResponseBody
-    public ResponseEntity<?> listDriveFolders(Authentication authentication) {
+    public ResponseEntity<?> listDriveFolders(@RequestParam(defaultValue = "false") boolean refresh,
+            Authentication authentication) {
         String accessToken = resolveGoogleAccessToken(authentication);
         if (accessToken == null) {
             return ResponseEntity.status(401)
                     .body(Map.of("error", "No hay token de Google. Inicia sesión con Google para acceder a Drive."));
         }
-        List<DriveFolder> folders = presentationService.listDriveFolders(accessToken);
+        String userId = resolveUserId(authentication);
+        List<DriveFolder> folders = presentationService.listDriveFolders(userId, accessToken, refresh);
         return ResponseEntity.ok(Map.of("folders", folders));
     }
 
     /**
-     * Lista las imágenes disponibles en una carpeta de Google Drive.
+     * Lista las imágenes disponibles en una carpeta de Google Drive (cacheado
+     * igual que las carpetas).
      */
     @GetMapping("/api/presentations/drive/folders/{folderId}/images")
     @ResponseBody
     public ResponseEntity<?> listDriveImages(@PathVariable String folderId,
+            @RequestParam(defaultValue = "false") boolean refresh,
             Authentication authentication) {
         String accessToken = resolveGoogleAccessToken(authentication);
         if (accessToken == null) {
             return ResponseEntity.status(401)
                     .body(Map.of("error", "No hay token de Google disponible."));
         }
-        List<DriveFile> images = presentationService.listDriveImages(folderId, accessToken);
+        String userId = resolveUserId(authentication);
+        List<DriveFile> images = presentationService.listDriveImages(userId, folderId, accessToken, refresh);
         return ResponseEntity.ok(Map.of("images", images));
     }
 
     /**
-     * Crea una presentación importando imágenes desde Google Drive.
+     * Encola la importación de una presentación desde Google Drive.
+     *
+     * Responde 202 con el id del job de inmediato; el avance se consulta en
+     * {@code GET /api/presentations/import-jobs/{jobId}}.
      *
      * @param name            nombre de la presentación
      * @param description     descripción (opcional)
@@ -153,23 +181,51 @@ public class PresentationImportController {
 
         try {
             User user = resolveUser(authentication);
-            Presentation presentation = presentationService.createFromDrive(
+            ImportJob job = importJobService.submitDrive(
                     user, name, description, driveFolderId, driveFolderName, repoUrl, accessToken);
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "presentationId", presentation.getId(),
-                    "totalSlides", presentation.getSlides().size()));
+            return accepted(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error encolando importación desde Drive: {}", e.getMessage());
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Error al importar la presentación: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Encola el re-sync incremental de una presentación importada desde Drive.
+     * Responde 202 con el id del job, igual que create-from-drive.
+     */
+    @PostMapping("/api/presentations/{presentationId}/resync")
+    @ResponseBody
+    public ResponseEntity<?> resyncFromDrive(@PathVariable String presentationId,
+            Authentication authentication) {
+
+        String accessToken = resolveGoogleAccessToken(authentication);
+        if (accessToken == null) {
+            return ResponseEntity.status(401)
+                    .body(Map.of("error", "No hay token de Google disponible."));
+        }
+
+        try {
+            User user = resolveUser(authentication);
+            ImportJob job = importJobService.submitResync(user, presentationId, accessToken);
+            return accepted(job);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            log.error("Error importando presentación desde Drive: {}", e.getMessage());
+            log.error("Error encolando re-sync de {}: {}", presentationId, e.getMessage());
             return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Error al importar la presentación: " + e.getMessage()));
+                    .body(Map.of("error", "Error al re-sincronizar la presentación: " + e.getMessage()));
         }
     }
 
     /**
-     * Crea una presentación a partir de archivos subidos manualmente.
+     * Encola la creación de una presentación a partir de archivos subidos
+     * manualmente. Los archivos se copian a disco antes de responder 202.
      *
      * @param name        nombre de la presentación
      * @param description descripción (opcional)
@@ -187,14 +243,12 @@ public class PresentationImportController {
 
         try {
             User user = resolveUser(authentication);
-            Presentation presentation = presentationService.createFromUpload(
-                    user, name, description, repoUrl, files);
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "presentationId", presentation.getId(),
-                    "totalSlides", presentation.getSlides().size()));
+            ImportJob job = importJobService.submitUpload(user, name, description, repoUrl, files);
+            return accepted(job);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Error creando presentación desde upload: {}", e.getMessage());
             return ResponseEntity.internalServerError()
@@ -202,16 +256,46 @@ public class PresentationImportController {
         }
     }
 
+    /**
+     * Estado de un job de importación (polling desde import.html).
+     */
+    @GetMapping("/api/presentations/import-jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<ImportJobSummary> importJob(@PathVariable String jobId,
+            Authentication authentication) {
+        String userId = resolveUserId(authentication);
+        return importJobService.findJob(userId, jobId)
+                .map(ImportJobSummary::from)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     // ── Helpers privados ──────────────────────────────────────────────────────
 
+    private ResponseEntity<Map<String, Object>> accepted(ImportJob job) {
+        String statusUrl = "/api/presentations/import-jobs/" + job.getId();
+        return ResponseEntity.accepted()
+                .location(URI.create(statusUrl))
+                .body(Map.of(
+                        "success", true,
+                        "jobId", job.getId(),
+                        "statusUrl", statusUrl));
+    }
+
+    /**
+     * Id del usuario autenticado, desde {@link AuthenticatedUserCache}: las
+     * consultas y los polls no tocan la tabla users.
+     */
+    private String resolveUserId(Authentication authentication) {
+        return authenticatedUserCache.userId(authentication);
+    }
+
     /**
-     * Resuelve el {@link User} JPA autenticado a partir del {@link Authentication}.
-     * Busca por email o nombre de usuario según el tipo de autenticación.
+     * Resuelve el {@link User} JPA autenticado, para las operaciones que crean
+     * o modifican presentaciones.
      */
     private User resolveUser(Authentication authentication) {
-        String identifier = authentication.getName();
-        Optional<User> user = userRepository.findByEmail(identifier);
-        return user.orElseThrow(() -> new IllegalStateException("Usuario autenticado no encontrado: " + identifier));
+        return authenticatedUserCache.user(authentication);
     }
 
     /**
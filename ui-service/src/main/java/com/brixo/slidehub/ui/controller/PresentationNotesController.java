@@ -2,8 +2,7 @@ package com.brixo.slidehub.ui.controller;
 
 import com.brixo.slidehub.ui.model.Presentation;
 import com.brixo.slidehub.ui.model.Slide;
-import com.brixo.slidehub.ui.model.User;
-import com.brixo.slidehub.ui.repository.UserRepository;
+import com.brixo.slidehub.ui.service.AuthenticatedUserCache;
 import com.brixo.slidehub.ui.service.NotesBridgeService;
 import com.brixo.slidehub.ui.service.PresentationService;
 import org.slf4j.Logger;
@@ -38,14 +37,14 @@ public class PresentationNotesController {
 
     private final PresentationService presentationService;
     private final NotesBridgeService notesBridgeService;
-    private final UserRepository userRepository;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     public PresentationNotesController(PresentationService presentationService,
             NotesBridgeService notesBridgeService,
-            UserRepository userRepository) {
+            AuthenticatedUserCache authenticatedUserCache) {
         this.presentationService = presentationService;
         this.notesBridgeService = notesBridgeService;
-        this.userRepository = userRepository;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     // ── Vista MVC ─────────────────────────────────────────────────────────────
@@ -58,8 +57,8 @@ public class PresentationNotesController {
     public String generateNotesPage(@PathVariable String id,
             Authentication authentication,
             Model model) {
-        User user = resolveUser(authentication);
-        Optional<Presentation> opt = presentationService.getPresentation(user.getId(), id);
+        String userId = resolveUserId(authentication);
+        Optional<Presentation> opt = presentationService.getPresentation(userId, id);
 
         if (opt.isEmpty()) {
             return "redirect:/presentations/import";
@@ -99,8 +98,8 @@ public class PresentationNotesController {
             @RequestParam(required = false) String repoUrl,
             Authentication authentication) {
 
-        User user = resolveUser(authentication);
-        Optional<Presentation> opt = presentationService.getPresentation(user.getId(), id);
+        String userId = resolveUserId(authentication);
+        Optional<Presentation> opt = presentationService.getPresentation(userId, id);
 
         if (opt.isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -151,9 +150,9 @@ public class PresentationNotesController {
     public ResponseEntity<List<Map<String, Object>>> getNotes(
             @PathVariable String id,
             Authentication authentication) {
-        User user = resolveUser(authentication);
+        String userId = resolveUserId(authentication);
         // Validar ownership
-        if (presentationService.getPresentation(user.getId(), id).isEmpty()) {
+        if (presentationService.getPresentation(userId, id).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         List<Map<String, Object>> notes = notesBridgeService.getNotes(id);
@@ -170,8 +169,8 @@ public class PresentationNotesController {
     @ResponseBody
     public ResponseEntity<?> analyzeRepo(@PathVariable String id,
             Authentication authentication) {
-        User user = resolveUser(authentication);
-        Optional<Presentation> opt = presentationService.getPresentation(user.getId(), id);
+        String userId = resolveUserId(authentication);
+        Optional<Presentation> opt = presentationService.getPresentation(userId, id);
         if (opt.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -186,9 +185,7 @@ public class PresentationNotesController {
 
     // ── Helpers ───────────────────────────────────────────────────────────────
 
-    private User resolveUser(Authentication authentication) {
-        String identifier = authentication.getName();
-        return userRepository.findByEmail(identifier)
-                .orElseThrow(() -> new IllegalStateException("Usuario autenticado no encontrado: " + identifier));
+    private String resolveUserId(Authentication authentication) {
+        return authenticatedUserCache.userId(authentication);
     }
 }
@@ -0,0 +1,227 @@
+package com.brixo.slidehub.ui.controller;
+
+import com.brixo.slidehub.ui.model.SlideAssetRef;
+import com.brixo.slidehub.ui.model.SlideRendition;
+import com.brixo.slidehub.ui.service.SlideAssetService;
+import com.brixo.slidehub.ui.service.SlideAssetService.SlideAsset;
+import com.brixo.slidehub.ui.service.SlideTranscoder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Imágenes de slides por presentación y número, servidas desde el
+ * SlideStorage configurado (S3 o disco local).
+ *
+ * - ETag fuerte = SHA-256 del contenido; If-None-Match/If-Modified-Since
+ * responden 304 sin transferir la imagen.
+ * - Range de un solo intervalo (206) con If-Range; varios intervalos se
+ * responden completos (RFC 9110 §14.2 permite ignorarlos).
+ * - Con backend local y conector Tomcat NIO, el cuerpo lo envía el kernel con
+ * sendfile; si no, se copia canal a canal sin buffers intermedios en heap.
+ * - Negociación de formato: con {@code Accept: image/webp} se sirve la
+ * versión WebP si SlideTranscoder ya la generó ({@code Vary: Accept}).
+ * - Rendition según {@code size} (thumb | mobile | full) o, si no se indica,
+ * según {@code w} (ancho en píxeles que el cliente va a pintar).
+ * - Las URLs versionadas ({@code ?v=}, ver {@code GET
+ * /presentation/{id}/slides}) se cachean un año como immutable: un proyector
+ * que vuelve a abrir la presentación no hace ni una petición. Sin {@code v} el
+ * cliente revalida siempre (no-cache) y recibe 304.
+ */
+@RestController
+public class SlideAssetController {
+
+    private static final Logger log = LoggerFactory.getLogger(SlideAssetController.class);
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "public, no-cache";
+
+    // Atributos de Tomcat para delegar el envío del archivo al conector
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final SlideAssetService slideAssetService;
+
+    public SlideAssetController(SlideAssetService slideAssetService) {
+        this.slideAssetService = slideAssetService;
+    }
+
+    /**
+     * Imagen de un slide. También responde a HEAD.
+     *
+     * @param size  rendition pedida (thumb | mobile | full)
+     * @param width ancho en píxeles físicos a cubrir; se usa si no hay
+     *              {@code size}
+     */
+    @GetMapping("/presentation/{presentationId:[A-Za-z0-9-]+}/slides/{slideNumber:\\d+}")
+    public void slide(@PathVariable String presentationId,
+            @PathVariable int slideNumber,
+            @RequestParam(name = "size", required = false) String size,
+            @RequestParam(name = "w", required = false) Integer width,
+            @RequestParam(name = "v", required = false) String version,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        SlideRendition rendition = size != null ? SlideRendition.fromParam(size)
+                : width != null ? SlideRendition.forWidth(width)
+                : SlideRendition.FULL;
+        boolean acceptsWebp = acceptsWebp(request);
+        Optional<SlideAsset> found = slideNumber > 0
+                ? slideAssetService.find(presentationId, slideNumber, rendition, acceptsWebp)
+                : Optional.empty();
+        if (found.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        SlideAsset asset = found.get();
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        boolean stable = version != null && slideAssetService.isFinal(asset, rendition, acceptsWebp);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, stable ? IMMUTABLE : REVALIDATE);
+        // Escribe ETag y Last-Modified; responde 304/412 según las precondiciones
+        if (new ServletWebRequest(request, response)
+                .checkNotModified(asset.etag(), asset.object().lastModified().toEpochMilli())) {
+            return;
+        }
+
+        long length = asset.length();
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = requestedRange(request, asset);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes %d-%d/%d".formatted(start, end, length));
+        }
+
+        long count = end - start + 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(asset.contentType());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+        write(asset, start, count, request, response);
+    }
+
+    /**
+     * URLs versionadas de todos los slides de una presentación, para que las
+     * vistas usen las que se cachean como immutable.
+     */
+    @GetMapping("/presentation/{presentationId:[A-Za-z0-9-]+}/slides")
+    public ResponseEntity<List<SlideAssetRef>> manifest(@PathVariable String presentationId) {
+        return slideAssetService.manifest(presentationId)
+                .map(slides -> ResponseEntity.ok()
+                        .header(HttpHeaders.CACHE_CONTROL, REVALIDATE)
+                        .body(slides))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    // ── Helpers privados ──────────────────────────────────────────────────────
+
+    private static boolean acceptsWebp(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(SlideTranscoder.WEBP_MIME_TYPE);
+    }
+
+    /**
+     * Único intervalo pedido, o null si se sirve completo: sin Range, Range
+     * inválido o con varios intervalos, o If-Range que no coincide con la
+     * versión actual.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, SlideAsset asset) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || !ifRangeMatches(request, asset)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, SlideAsset asset) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals("\"" + asset.etag() + "\"");
+        }
+        try {
+            // Fecha HTTP: precisión de segundos
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000
+                    == asset.object().lastModified().getEpochSecond();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void write(SlideAsset asset, long start, long count, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (asset.file() != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, asset.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        if (asset.file() != null) {
+            try (FileChannel in = FileChannel.open(asset.file(), StandardOpenOption.READ)) {
+                long position = start;
+                long remaining = count;
+                while (remaining > 0) {
+                    long transferred = in.transferTo(position, remaining, out);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    position += transferred;
+                    remaining -= transferred;
+                }
+            }
+            return;
+        }
+
+        ByteBuffer content = slideAssetService.content(asset);
+        if (content.remaining() != asset.length()) {
+            // El objeto se reemplazó entre stat y lectura: el Content-Length ya no cuadra
+            log.warn("Slide {} cambió mientras se servía", asset.key());
+        }
+        int offset = (int) Math.min(start, content.remaining());
+        ByteBuffer slice = content.slice(content.position() + offset,
+                (int) Math.min(count, content.remaining() - offset));
+        while (slice.hasRemaining()) {
+            out.write(slice);
+        }
+    }
+}
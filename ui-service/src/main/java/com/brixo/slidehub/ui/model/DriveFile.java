@@ -2,6 +2,14 @@ package com.brixo.slidehub.ui.model;
 
 /**
  * DTO inmutable que representa un archivo de imagen en Google Drive.
+ *
+ * @param md5Checksum  MD5 del contenido según Drive (null si no lo informa)
+ * @param modifiedTime última modificación en RFC 3339, tal como la devuelve
+ *                     Drive (null si no lo informa)
  */
-public record DriveFile(String id, String name, String mimeType) {
+public record DriveFile(String id, String name, String mimeType, String md5Checksum, String modifiedTime) {
+
+    public DriveFile(String id, String name, String mimeType) {
+        this(id, name, mimeType, null, null);
+    }
 }
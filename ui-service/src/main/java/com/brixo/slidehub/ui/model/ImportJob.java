@@ -0,0 +1,160 @@
+package com.brixo.slidehub.ui.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Importación de una presentación ejecutada en segundo plano (ver
+ * ImportJobService).
+ *
+ * create-from-drive / create-from-upload crean el job y responden de
+ * inmediato; import.html consulta el avance por polling. El job vive en la BD
+ * para que cualquier réplica de ui-service pueda responder al polling y el
+ * resultado sobreviva a la desconexión del cliente.
+ */
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    /** Propietario: solo él puede consultar el job. */
+    @Column(name = "user_id", nullable = false, length = 36)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_type", nullable = false, length = 20)
+    private SourceType sourceType;
+
+    @Column(name = "presentation_name", nullable = false, length = 200)
+    private String presentationName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportJobStatus status;
+
+    /** Slides a transferir; 0 mientras el job está en cola (Drive aún no listado). */
+    @Column(name = "total_slides", nullable = false)
+    private int totalSlides;
+
+    /** Slides ya subidos u omitidos. */
+    @Column(name = "completed_slides", nullable = false)
+    private int completedSlides;
+
+    /** Presentación creada (solo en DONE). */
+    @Column(name = "presentation_id", length = 36)
+    private String presentationId;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Se actualiza con cada slide: sirve para detectar jobs huérfanos. */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // ── Constructores ─────────────────────────────────────────────────────────
+
+    public ImportJob() {
+    }
+
+    // ── Getters y setters ─────────────────────────────────────────────────────
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public SourceType getSourceType() {
+        return sourceType;
+    }
+
+    public void setSourceType(SourceType sourceType) {
+        this.sourceType = sourceType;
+    }
+
+    public String getPresentationName() {
+        return presentationName;
+    }
+
+    public void setPresentationName(String presentationName) {
+        this.presentationName = presentationName;
+    }
+
+    public ImportJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ImportJobStatus status) {
+        this.status = status;
+    }
+
+    public int getTotalSlides() {
+        return totalSlides;
+    }
+
+    public void setTotalSlides(int totalSlides) {
+        this.totalSlides = totalSlides;
+    }
+
+    public int getCompletedSlides() {
+        return completedSlides;
+    }
+
+    public void setCompletedSlides(int completedSlides) {
+        this.completedSlides = completedSlides;
+    }
+
+    public String getPresentationId() {
+        return presentationId;
+    }
+
+    public void setPresentationId(String presentationId) {
+        this.presentationId = presentationId;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
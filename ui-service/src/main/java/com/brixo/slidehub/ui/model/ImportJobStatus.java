@@ -0,0 +1,19 @@
+package com.brixo.slidehub.ui.model;
+
+/**
+ * Estado de un {@link ImportJob}.
+ */
+public enum ImportJobStatus {
+    /** Aceptado, esperando un worker libre. */
+    QUEUED,
+    /** Transfiriendo slides a S3. */
+    RUNNING,
+    /** Presentación creada. */
+    DONE,
+    /** Error durante la importación (ver errorMessage). */
+    FAILED;
+
+    public boolean isFinished() {
+        return this == DONE || this == FAILED;
+    }
+}
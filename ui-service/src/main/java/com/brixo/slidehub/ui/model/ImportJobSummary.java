@@ -0,0 +1,30 @@
+package com.brixo.slidehub.ui.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de un job de importación para el polling de import.html (JSON).
+ */
+public record ImportJobSummary(
+        String id,
+        String status,
+        String sourceType,
+        String presentationName,
+        int totalSlides,
+        int completedSlides,
+        String presentationId,
+        String error,
+        LocalDateTime updatedAt) {
+    public static ImportJobSummary from(ImportJob job) {
+        return new ImportJobSummary(
+                job.getId(),
+                job.getStatus().name(),
+                job.getSourceType().name(),
+                job.getPresentationName(),
+                job.getTotalSlides(),
+                job.getCompletedSlides(),
+                job.getPresentationId(),
+                job.getErrorMessage(),
+                job.getUpdatedAt());
+    }
+}
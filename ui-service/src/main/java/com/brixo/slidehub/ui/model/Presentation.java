@@ -11,7 +11,11 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -25,7 +29,7 @@ import java.util.List;
  */
 @Entity
 @Table(name = "presentations")
-public class Presentation {
+public class Presentation implements Persistable<String> {
 
     @Id
     @Column(length = 36)
@@ -74,11 +78,31 @@ public class Presentation {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * El id se asigna en código, así que Spring Data no puede deducir si la
+     * entidad es nueva: sin esto, save() hace merge y un SELECT por slide.
+     */
+    @Transient
+    private boolean persisted;
+
     // ── Constructores ─────────────────────────────────────────────────────────
 
     public Presentation() {
     }
 
+    // ── Persistable ───────────────────────────────────────────────────────────
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
     // ── Getters y setters ─────────────────────────────────────────────────────
 
     public String getId() {
@@ -0,0 +1,12 @@
+package com.brixo.slidehub.ui.model;
+
+import java.util.List;
+
+/**
+ * Página del listado de presentaciones (GET /api/presentations).
+ *
+ * @param nextCursor cursor opaco para pedir la página siguiente
+ *                   ({@code ?cursor=}); null si es la última
+ */
+public record PresentationPage(List<PresentationSummary> items, String nextCursor) {
+}
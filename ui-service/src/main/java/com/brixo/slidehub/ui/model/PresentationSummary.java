@@ -6,7 +6,9 @@ import java.time.LocalDateTime;
  * Resumen de presentación para listados (JSON).
  *
  * Devuelve solo los campos necesarios para la UI de lista,
- * sin cargar los slides ni los quick links.
+ * sin cargar los slides ni los quick links: se construye directamente en la
+ * consulta (ver PresentationRepository#findSummariesByUserId), con el número
+ * de slides como COUNT.
  */
 public record PresentationSummary(
         String id,
@@ -15,13 +17,14 @@ public record PresentationSummary(
         String sourceType,
         int totalSlides,
         LocalDateTime createdAt) {
-    public static PresentationSummary from(Presentation p) {
-        return new PresentationSummary(
-                p.getId(),
-                p.getName(),
-                p.getDescription(),
-                p.getSourceType().name(),
-                p.getSlides().size(),
-                p.getCreatedAt());
+
+    /** Constructor de la proyección JPQL. */
+    public PresentationSummary(String id,
+            String name,
+            String description,
+            SourceType sourceType,
+            long totalSlides,
+            LocalDateTime createdAt) {
+        this(id, name, description, sourceType.name(), Math.toIntExact(totalSlides), createdAt);
     }
 }
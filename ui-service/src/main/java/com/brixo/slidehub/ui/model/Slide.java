@@ -16,6 +16,14 @@ import java.time.LocalDateTime;
  *
  * La URL pública del asset corresponde al objeto en S3:
  * https://{bucket}.s3.{region}.amazonaws.com/slides/{presentationId}/{number}.png
+ *
+ * Además del original se guardan renditions escaladas (ver
+ * {@link SlideRendition}); sus claves son null si el original es más estrecho
+ * o no se pudo decodificar, y en slides importados antes de V4.
+ *
+ * Desde V5 las claves apuntan a un {@link SlideBlob} compartido
+ * ({@code contentHash}): dos slides con la misma imagen usan los mismos
+ * objetos del storage.
  */
 @Entity
 @Table(name = "slides")
@@ -43,10 +51,41 @@ public class Slide {
     @Column(name = "drive_file_id", length = 200)
     private String driveFileId;
 
+    /**
+     * md5Checksum y modifiedTime del archivo en Drive al importarlo; el
+     * re-sync los compara para descargar solo lo que cambió.
+     */
+    @Column(name = "drive_md5", length = 32)
+    private String driveMd5;
+
+    @Column(name = "drive_modified_time", length = 40)
+    private String driveModifiedTime;
+
     /** URL pública del objeto en Amazon S3. */
     @Column(name = "s3_url", columnDefinition = "TEXT")
     private String s3Url;
 
+    /** Clave del original en el storage (rendition FULL). */
+    @Column(name = "full_key", length = 300)
+    private String fullKey;
+
+    @Column(name = "mobile_key", length = 300)
+    private String mobileKey;
+
+    @Column(name = "thumbnail_key", length = 300)
+    private String thumbnailKey;
+
+    /** Dimensiones del original en píxeles; null si no se pudo decodificar. */
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
+
+    /** SHA-256 del original ({@link SlideBlob}); null en slides anteriores a V5. */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "uploaded_at", nullable = false)
     private LocalDateTime uploadedAt;
 
@@ -97,6 +136,22 @@ public class Slide {
         this.driveFileId = driveFileId;
     }
 
+    public String getDriveMd5() {
+        return driveMd5;
+    }
+
+    public void setDriveMd5(String driveMd5) {
+        this.driveMd5 = driveMd5;
+    }
+
+    public String getDriveModifiedTime() {
+        return driveModifiedTime;
+    }
+
+    public void setDriveModifiedTime(String driveModifiedTime) {
+        this.driveModifiedTime = driveModifiedTime;
+    }
+
     public String getS3Url() {
         return s3Url;
     }
@@ -105,6 +160,63 @@ public class Slide {
         this.s3Url = s3Url;
     }
 
+    public String getFullKey() {
+        return fullKey;
+    }
+
+    public void setFullKey(String fullKey) {
+        this.fullKey = fullKey;
+    }
+
+    public String getMobileKey() {
+        return mobileKey;
+    }
+
+    public void setMobileKey(String mobileKey) {
+        this.mobileKey = mobileKey;
+    }
+
+    public String getThumbnailKey() {
+        return thumbnailKey;
+    }
+
+    public void setThumbnailKey(String thumbnailKey) {
+        this.thumbnailKey = thumbnailKey;
+    }
+
+    /** Clave de la rendition pedida, o null si no existe. */
+    public String getRenditionKey(SlideRendition rendition) {
+        return switch (rendition) {
+            case THUMBNAIL -> thumbnailKey;
+            case MOBILE -> mobileKey;
+            case FULL -> fullKey;
+        };
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public LocalDateTime getUploadedAt() {
         return uploadedAt;
     }
@@ -0,0 +1,13 @@
+package com.brixo.slidehub.ui.model;
+
+/**
+ * URLs versionadas de la imagen de un slide (GET /presentation/{id}/slides).
+ *
+ * @param url    original
+ * @param srcset candidatos por ancho (thumbnail, mobile, original) para
+ *               {@code <img srcset>}; null si se desconocen las dimensiones
+ * @param width  ancho del original en píxeles, o null
+ * @param height alto del original en píxeles, o null
+ */
+public record SlideAssetRef(int number, String url, String srcset, Integer width, Integer height) {
+}
@@ -0,0 +1,204 @@
+package com.brixo.slidehub.ui.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Imagen de slide direccionada por contenido: una fila por SHA-256 distinto,
+ * compartida por todos los {@link Slide} con esa imagen (re-importaciones de
+ * la misma carpeta, portadas y cierres comunes entre presentaciones).
+ *
+ * Los objetos viven en {@code blobs/{hh}/{sha256}-{subida}.{ext}} junto a sus
+ * renditions. {@code refCount} cuenta los slides que la usan;
+ * {@code pendingRefs} las reservas de importaciones en curso que aún no han
+ * persistido sus slides (válidas hasta {@code leasedUntil}). Sin ninguna de
+ * las dos el blob se puede borrar (ver SlideBlobService).
+ */
+@Entity
+@Table(name = "slide_blobs")
+public class SlideBlob implements Persistable<String> {
+
+    /** SHA-256 del original, en hex. */
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+
+    @Column(name = "content_length", nullable = false)
+    private long contentLength;
+
+    @Column(name = "full_key", nullable = false, length = 300)
+    private String fullKey;
+
+    @Column(name = "mobile_key", length = 300)
+    private String mobileKey;
+
+    @Column(name = "thumbnail_key", length = 300)
+    private String thumbnailKey;
+
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
+
+    /** URL pública del original en el storage. */
+    @Column(name = "url", columnDefinition = "TEXT")
+    private String url;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "pending_refs", nullable = false)
+    private int pendingRefs;
+
+    /** Fin de la última reserva; pasado, las reservas pendientes no cuentan (réplica caída). */
+    @Column(name = "leased_until")
+    private LocalDateTime leasedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Ver {@link Presentation}: id asignado en código, persist sin merge. */
+    @Transient
+    private boolean persisted;
+
+    // ── Constructores ─────────────────────────────────────────────────────────
+
+    public SlideBlob() {
+    }
+
+    // ── Persistable ───────────────────────────────────────────────────────────
+
+    @Override
+    public String getId() {
+        return hash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
+    // ── Getters y setters ─────────────────────────────────────────────────────
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    public void setContentLength(long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public String getFullKey() {
+        return fullKey;
+    }
+
+    public void setFullKey(String fullKey) {
+        this.fullKey = fullKey;
+    }
+
+    public String getMobileKey() {
+        return mobileKey;
+    }
+
+    public void setMobileKey(String mobileKey) {
+        this.mobileKey = mobileKey;
+    }
+
+    public String getThumbnailKey() {
+        return thumbnailKey;
+    }
+
+    public void setThumbnailKey(String thumbnailKey) {
+        this.thumbnailKey = thumbnailKey;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(int refCount) {
+        this.refCount = refCount;
+    }
+
+    public int getPendingRefs() {
+        return pendingRefs;
+    }
+
+    public void setPendingRefs(int pendingRefs) {
+        this.pendingRefs = pendingRefs;
+    }
+
+    public LocalDateTime getLeasedUntil() {
+        return leasedUntil;
+    }
+
+    public void setLeasedUntil(LocalDateTime leasedUntil) {
+        this.leasedUntil = leasedUntil;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.brixo.slidehub.ui.model;
+
+/**
+ * Claves en el storage de las renditions de un slide (proyección de
+ * {@link Slide} usada al servir sus imágenes). Las claves nulas indican que
+ * la rendition no existe.
+ */
+public record SlideKeys(String fullKey, String mobileKey, String thumbnailKey) {
+
+    /** Clave de la rendition pedida, o null si no existe. */
+    public String key(SlideRendition rendition) {
+        return switch (rendition) {
+            case THUMBNAIL -> thumbnailKey;
+            case MOBILE -> mobileKey;
+            case FULL -> fullKey;
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.brixo.slidehub.ui.model;
+
+/**
+ * Tamaños en que se guarda cada slide. THUMBNAIL y MOBILE se generan al
+ * importar (JPEG escalado al ancho indicado); FULL es la imagen original.
+ */
+public enum SlideRendition {
+    /** Miniaturas del main panel y de generate-notes. */
+    THUMBNAIL("thumb", 320),
+    /** Remotos y pantallas de teléfono. */
+    MOBILE("mobile", 960),
+    /** Imagen original, tal como se importó. */
+    FULL("full", 0);
+
+    private final String param;
+    private final int width;
+
+    SlideRendition(String param, int width) {
+        this.param = param;
+        this.width = width;
+    }
+
+    /** Valor del parámetro {@code size} en /presentation/{id}/slides/{n}. */
+    public String param() {
+        return param;
+    }
+
+    /** Ancho máximo en píxeles; 0 = sin escalar. */
+    public int width() {
+        return width;
+    }
+
+    public boolean isScaled() {
+        return width > 0;
+    }
+
+    /** Rendition por valor de {@code size}; FULL si no se reconoce. */
+    public static SlideRendition fromParam(String param) {
+        for (SlideRendition rendition : values()) {
+            if (rendition.param.equalsIgnoreCase(param)) {
+                return rendition;
+            }
+        }
+        return FULL;
+    }
+
+    /** La más pequeña que cubre {@code pixels} de ancho; FULL si ninguna. */
+    public static SlideRendition forWidth(int pixels) {
+        for (SlideRendition rendition : values()) {
+            if (rendition.isScaled() && pixels <= rendition.width) {
+                return rendition;
+            }
+        }
+        return FULL;
+    }
+}
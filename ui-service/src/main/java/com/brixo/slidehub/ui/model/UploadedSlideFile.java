@@ -0,0 +1,14 @@
+package com.brixo.slidehub.ui.model;
+
+import java.nio.file.Path;
+
+/**
+ * Archivo de un upload manual copiado a disco local para procesarlo fuera del
+ * request HTTP (ver ImportJobService).
+ *
+ * @param originalFilename nombre original (ordena los slides)
+ * @param contentType      MIME type declarado por el navegador (puede ser null)
+ * @param path             copia temporal del archivo
+ */
+public record UploadedSlideFile(String originalFilename, String contentType, Path path) {
+}
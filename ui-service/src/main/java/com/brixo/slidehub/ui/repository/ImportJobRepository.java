@@ -0,0 +1,96 @@
+package com.brixo.slidehub.ui.repository;
+
+import com.brixo.slidehub.ui.model.ImportJob;
+import com.brixo.slidehub.ui.model.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio JPA de jobs de importación.
+ *
+ * Las transiciones de estado son UPDATE puntuales (sin cargar la entidad):
+ * los workers las ejecutan desde hilos propios, fuera de cualquier
+ * transacción del request. DONE y FAILED son finales: ningún UPDATE de estado
+ * sobrescribe un job ya terminado (p. ej. un worker lento frente al fallo por
+ * inactividad de ImportJobService). La única excepción es
+ * {@link #completeAfterFailure}: el worker que sí creó la presentación.
+ */
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    String FINISHED = "com.brixo.slidehub.ui.model.ImportJobStatus.DONE, "
+            + "com.brixo.slidehub.ui.model.ImportJobStatus.FAILED";
+
+    /** Busca un job asegurando que pertenece al usuario. */
+    Optional<ImportJob> findByIdAndUserId(String id, String userId);
+
+    @Transactional
+    @Modifying
+    @Query("update ImportJob j set j.status = :status, j.totalSlides = :totalSlides, j.updatedAt = :now "
+            + "where j.id = :id and j.status not in (" + FINISHED + ")")
+    int markRunning(@Param("id") String id,
+            @Param("status") ImportJobStatus status,
+            @Param("totalSlides") int totalSlides,
+            @Param("now") LocalDateTime now);
+
+    /** Solo avanza: las notificaciones de distintos hilos pueden llegar desordenadas. */
+    @Transactional
+    @Modifying
+    @Query("update ImportJob j set j.completedSlides = :completed, j.updatedAt = :now "
+            + "where j.id = :id and j.completedSlides < :completed")
+    int updateProgress(@Param("id") String id,
+            @Param("completed") int completed,
+            @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update ImportJob j set j.status = :status, j.presentationId = :presentationId, "
+            + "j.errorMessage = :errorMessage, j.updatedAt = :now "
+            + "where j.id = :id and j.status not in (" + FINISHED + ")")
+    int finish(@Param("id") String id,
+            @Param("status") ImportJobStatus status,
+            @Param("presentationId") String presentationId,
+            @Param("errorMessage") String errorMessage,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * El worker terminó la presentación después de que el job se diera por
+     * perdido: la presentación existe, así que el job pasa de FAILED a DONE.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ImportJob j set j.status = com.brixo.slidehub.ui.model.ImportJobStatus.DONE, "
+            + "j.presentationId = :presentationId, j.errorMessage = null, j.updatedAt = :now "
+            + "where j.id = :id and j.status = com.brixo.slidehub.ui.model.ImportJobStatus.FAILED")
+    int completeAfterFailure(@Param("id") String id,
+            @Param("presentationId") String presentationId,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Marca FAILED los jobs que ya ningún worker va a ejecutar: QUEUED creados
+     * antes de {@code queuedBefore} y RUNNING sin avance desde
+     * {@code runningBefore}.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ImportJob j set j.status = com.brixo.slidehub.ui.model.ImportJobStatus.FAILED, "
+            + "j.errorMessage = :errorMessage, j.updatedAt = :now "
+            + "where (j.status = com.brixo.slidehub.ui.model.ImportJobStatus.QUEUED "
+            + "and j.createdAt < :queuedBefore) "
+            + "or (j.status = com.brixo.slidehub.ui.model.ImportJobStatus.RUNNING "
+            + "and j.updatedAt < :runningBefore)")
+    int failAbandoned(@Param("queuedBefore") LocalDateTime queuedBefore,
+            @Param("runningBefore") LocalDateTime runningBefore,
+            @Param("errorMessage") String errorMessage,
+            @Param("now") LocalDateTime now);
+
+    /** Ids de la lista que siguen pendientes (QUEUED o RUNNING). */
+    @Query("select j.id from ImportJob j where j.id in :ids and j.status not in (" + FINISHED + ")")
+    List<String> findPendingIds(@Param("ids") List<String> ids);
+}
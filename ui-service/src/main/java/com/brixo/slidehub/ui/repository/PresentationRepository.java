@@ -1,8 +1,13 @@
 package com.brixo.slidehub.ui.repository;
 
 import com.brixo.slidehub.ui.model.Presentation;
+import com.brixo.slidehub.ui.model.PresentationSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,7 +16,46 @@ import java.util.Optional;
  */
 public interface PresentationRepository extends JpaRepository<Presentation, String> {
 
-    List<Presentation> findByUserIdOrderByCreatedAtDesc(String userId);
-
     Optional<Presentation> findByIdAndUserId(String id, String userId);
+
+    /**
+     * Resúmenes de las presentaciones del usuario, más recientes primero, en
+     * una sola sentencia SQL: el número de slides es un COUNT correlacionado,
+     * sin inicializar la colección lazy de cada presentación.
+     */
+    @Query("select new com.brixo.slidehub.ui.model.PresentationSummary(p.id, p.name, p.description, "
+            + "p.sourceType, (select count(s) from Slide s where s.presentation = p), p.createdAt) "
+            + "from Presentation p where p.user.id = :userId order by p.createdAt desc")
+    List<PresentationSummary> findSummariesByUserId(@Param("userId") String userId);
+
+    /**
+     * Primera página del listado paginado por keyset sobre (created_at, id),
+     * filtrada por prefijo de nombre (patrón LIKE en minúsculas, ya escapado).
+     * Usa idx_presentations_user_created.
+     */
+    @Query("select new com.brixo.slidehub.ui.model.PresentationSummary(p.id, p.name, p.description, "
+            + "p.sourceType, (select count(s) from Slide s where s.presentation = p), p.createdAt) "
+            + "from Presentation p where p.user.id = :userId "
+            + "and lower(p.name) like :namePattern escape '!' "
+            + "order by p.createdAt desc, p.id desc")
+    List<PresentationSummary> findSummaryPage(@Param("userId") String userId,
+            @Param("namePattern") String namePattern,
+            Limit limit);
+
+    /**
+     * Página siguiente a la última fila vista ({@code createdAt}, {@code id}):
+     * la consulta salta directamente a esa posición del índice, así que el
+     * coste no crece con el número de páginas anteriores.
+     */
+    @Query("select new com.brixo.slidehub.ui.model.PresentationSummary(p.id, p.name, p.description, "
+            + "p.sourceType, (select count(s) from Slide s where s.presentation = p), p.createdAt) "
+            + "from Presentation p where p.user.id = :userId "
+            + "and lower(p.name) like :namePattern escape '!' "
+            + "and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)) "
+            + "order by p.createdAt desc, p.id desc")
+    List<PresentationSummary> findSummaryPageAfter(@Param("userId") String userId,
+            @Param("namePattern") String namePattern,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") String id,
+            Limit limit);
 }
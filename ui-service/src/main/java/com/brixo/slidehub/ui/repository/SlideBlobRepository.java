@@ -0,0 +1,75 @@
+package com.brixo.slidehub.ui.repository;
+
+import com.brixo.slidehub.ui.model.SlideBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio JPA de blobs de slides direccionados por contenido.
+ *
+ * Referencias y reservas se modifican con UPDATE atómicos: dos importaciones
+ * concurrentes pueden compartir blob, y el DELETE de la purga vuelve a
+ * comprobar ambas en la misma sentencia.
+ */
+public interface SlideBlobRepository extends JpaRepository<SlideBlob, String> {
+
+    /**
+     * Suma {@code delta} (positivo o negativo) a las referencias del blob.
+     *
+     * @return 0 si el blob ya no existe
+     */
+    @Modifying
+    @Query("update SlideBlob b set b.refCount = b.refCount + :delta where b.hash = :hash")
+    int adjustRefCount(@Param("hash") String hash, @Param("delta") int delta);
+
+    /**
+     * Reserva el blob para una importación en curso.
+     *
+     * @return 0 si el blob ya no existe
+     */
+    @Transactional
+    @Modifying
+    @Query("update SlideBlob b set b.pendingRefs = b.pendingRefs + 1, "
+            + "b.leasedUntil = case when b.leasedUntil is null or b.leasedUntil < :until then :until "
+            + "else b.leasedUntil end where b.hash = :hash")
+    int lease(@Param("hash") String hash, @Param("until") LocalDateTime until);
+
+    /**
+     * Convierte {@code count} reservas en referencias. Debe llamarse dentro de
+     * la transacción que inserta los slides.
+     *
+     * @return 0 si el blob ya no existe
+     */
+    @Modifying
+    @Query("update SlideBlob b set b.refCount = b.refCount + :count, "
+            + "b.pendingRefs = case when b.pendingRefs > :count then b.pendingRefs - :count else 0 end "
+            + "where b.hash = :hash")
+    int convertLeases(@Param("hash") String hash, @Param("count") int count);
+
+    /** Libera {@code count} reservas de una importación que no llegó a persistir. */
+    @Transactional
+    @Modifying
+    @Query("update SlideBlob b set "
+            + "b.pendingRefs = case when b.pendingRefs > :count then b.pendingRefs - :count else 0 end "
+            + "where b.hash = :hash")
+    int releaseLeases(@Param("hash") String hash, @Param("count") int count);
+
+    /**
+     * Borra la fila solo si es la versión leída ({@code fullKey}), nadie la
+     * referencia y no tiene reservas vigentes.
+     *
+     * @return 1 si se borró
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from SlideBlob b where b.hash = :hash and b.fullKey = :fullKey and b.refCount <= 0 "
+            + "and (b.pendingRefs <= 0 or b.leasedUntil is null or b.leasedUntil < :now)")
+    int deleteIfUnreferenced(@Param("hash") String hash,
+            @Param("fullKey") String fullKey,
+            @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,20 @@
+package com.brixo.slidehub.ui.repository;
+
+import com.brixo.slidehub.ui.model.Slide;
+import com.brixo.slidehub.ui.model.SlideKeys;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/**
+ * Repositorio JPA de slides.
+ */
+public interface SlideRepository extends JpaRepository<Slide, String> {
+
+    /** Claves de las renditions de un slide, sin cargar la entidad. */
+    @Query("select new com.brixo.slidehub.ui.model.SlideKeys(s.fullKey, s.mobileKey, s.thumbnailKey) "
+            + "from Slide s where s.presentation.id = :presentationId and s.number = :number")
+    Optional<SlideKeys> findKeys(@Param("presentationId") String presentationId, @Param("number") int number);
+}
@@ -0,0 +1,91 @@
+package com.brixo.slidehub.ui.service;
+
+import com.brixo.slidehub.ui.model.User;
+import com.brixo.slidehub.ui.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché principal → id de usuario para los controllers de la API. Las
+ * peticiones autenticadas (incluidos los polls de import.html) identifican al
+ * usuario sin consultar la base de datos en cada llamada.
+ *
+ * La clave es {@link Authentication#getName()}, que se resuelve por email
+ * igual que antes. Solo se guarda el id, que no cambia: los datos del perfil
+ * se leen siempre de la base de datos. Aun así, los servicios que modifican
+ * un usuario (vinculación OAuth2, verificación de email) llaman a
+ * {@link #evict} para no servir una resolución anterior al cambio.
+ *
+ * LRU acotada con TTL, igual que DriveListingCache.
+ *
+ * Configuración: slidehub.auth.user-cache-* (ver application.properties).
+ */
+@Service
+public class AuthenticatedUserCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    public AuthenticatedUserCache(UserRepository userRepository,
+            @Value("${slidehub.auth.user-cache-ttl:5m}") Duration ttl,
+            @Value("${slidehub.auth.user-cache-size:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    private record Entry(String userId, long expiresAt) {
+    }
+
+    /**
+     * Id del usuario autenticado. Solo consulta la base de datos si no está
+     * en caché o ha caducado.
+     *
+     * @throws IllegalStateException si no existe usuario para el principal
+     */
+    public String userId(Authentication authentication) {
+        String principal = authentication.getName();
+        Entry entry = entries.get(principal);
+        if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+            return entry.userId();
+        }
+        String userId = userRepository.findByEmail(principal)
+                .map(User::getId)
+                .orElseThrow(() -> new IllegalStateException("Usuario autenticado no encontrado: " + principal));
+        entries.put(principal, new Entry(userId, System.nanoTime() + ttlNanos));
+        return userId;
+    }
+
+    /**
+     * Usuario autenticado completo, para las operaciones que lo necesitan
+     * (crear presentaciones). Busca por clave primaria.
+     *
+     * @throws IllegalStateException si no existe usuario para el principal
+     */
+    public User user(Authentication authentication) {
+        String userId = userId(authentication);
+        return userRepository.findById(userId).orElseThrow(() -> {
+            evict(authentication.getName());
+            return new IllegalStateException("Usuario autenticado no encontrado: " + authentication.getName());
+        });
+    }
+
+    /** Descarta la resolución cacheada del principal (email del usuario). */
+    public void evict(String principal) {
+        if (principal != null) {
+            entries.remove(principal);
+        }
+    }
+}
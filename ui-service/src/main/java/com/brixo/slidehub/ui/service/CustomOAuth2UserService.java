@@ -34,9 +34,11 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
     private static final Logger log = LoggerFactory.getLogger(CustomOAuth2UserService.class);
 
     private final UserRepository userRepository;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
-    public CustomOAuth2UserService(UserRepository userRepository) {
+    public CustomOAuth2UserService(UserRepository userRepository, AuthenticatedUserCache authenticatedUserCache) {
         this.userRepository = userRepository;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @Override
@@ -53,6 +55,8 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
                         new OAuth2Error("unsupported_provider"),
                         "Proveedor OAuth2 no soportado: " + registrationId);
             };
+            // Cuenta creada o vinculada: sin resoluciones anteriores del principal
+            authenticatedUserCache.evict(user.getEmail());
 
             String nameAttribute = request.getClientRegistration()
                     .getProviderDetails()
@@ -0,0 +1,79 @@
+package com.brixo.slidehub.ui.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Caché por usuario, con TTL corto, de los listados de Drive que ve
+ * import.html (carpetas e imágenes de una carpeta). Navegar entre carpetas o
+ * recargar la página no vuelve a listar todo el Drive.
+ *
+ * Solo la usa la UI de importación: la importación y el re-sync listan
+ * siempre contra Drive. Los listados vacíos (errores de Drive incluidos) no se
+ * cachean. El usuario puede forzar la recarga ({@code refresh=true}), que
+ * descarta todos sus listados.
+ *
+ * LRU acotada igual que la caché de ETags de SlideAssetService.
+ *
+ * Configuración: slidehub.drive.listing-cache-* (ver application.properties).
+ */
+@Service
+public class DriveListingCache {
+
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    public DriveListingCache(@Value("${slidehub.drive.listing-cache-ttl:60s}") Duration ttl,
+            @Value("${slidehub.drive.listing-cache-size:500}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    private record Entry(List<?> listing, long expiresAt) {
+    }
+
+    /**
+     * Listado cacheado del usuario, o el que devuelva {@code loader} si no hay,
+     * ha caducado o se pide {@code refresh}.
+     *
+     * @param listing identifica el listado dentro del usuario (p. ej.
+     *                "folders", "images:{folderId}")
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String userId, String listing, boolean refresh, Supplier<List<T>> loader) {
+        String key = userId + "|" + listing;
+        if (!refresh) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+                return (List<T>) entry.listing();
+            }
+        }
+        List<T> loaded = loader.get();
+        if (loaded.isEmpty()) {
+            entries.remove(key);
+        } else {
+            entries.put(key, new Entry(List.copyOf(loaded), System.nanoTime() + ttlNanos));
+        }
+        return loaded;
+    }
+
+    /** Descarta todos los listados del usuario. */
+    public void invalidate(String userId) {
+        String prefix = userId + "|";
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+}
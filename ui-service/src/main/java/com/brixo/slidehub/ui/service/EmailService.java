@@ -30,8 +30,8 @@ public class EmailService {
     @Value("${slidehub.resend.from}")
     private String fromAddress;
 
-    public EmailService() {
-        this.resendClient = WebClient.builder()
+    public EmailService(WebClient.Builder webClientBuilder) {
+        this.resendClient = webClientBuilder
                 .baseUrl("https://api.resend.com")
                 .build();
     }
@@ -7,11 +7,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Cliente para Google Drive REST API v3 (PLAN-EXPANSION.md Fase 2, tarea 16).
@@ -24,46 +24,29 @@ public class GoogleDriveService {
 
     private static final Logger log = LoggerFactory.getLogger(GoogleDriveService.class);
     private static final String DRIVE_API_BASE = "https://www.googleapis.com/drive/v3";
+    /** Máximo admitido por files.list: menos peticiones en carpetas grandes. */
+    private static final int PAGE_SIZE = 1000;
 
     private final WebClient driveClient;
 
-    public GoogleDriveService() {
-        this.driveClient = WebClient.builder()
+    public GoogleDriveService(WebClient.Builder webClientBuilder) {
+        this.driveClient = webClientBuilder
                 .baseUrl(DRIVE_API_BASE)
                 .build();
     }
 
     /**
-     * Lista las carpetas del Google Drive del usuario.
+     * Lista las carpetas del Google Drive del usuario, recorriendo todas las
+     * páginas.
      *
      * @param accessToken OAuth2 access token del usuario
-     * @return lista de carpetas disponibles
+     * @return lista de carpetas disponibles (vacía si hay error)
      */
     public List<DriveFolder> listFolders(String accessToken) {
-        String query = URLEncoder.encode(
-                "mimeType='application/vnd.google-apps.folder' and trashed=false",
-                StandardCharsets.UTF_8);
-
         try {
-            Map<?, ?> response = driveClient.get()
-                    .uri("/files?q={q}&fields=files(id,name)&orderBy=name",
-                            "mimeType='application/vnd.google-apps.folder' and trashed=false")
-                    .header("Authorization", "Bearer " + accessToken)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
-
-            if (response == null)
-                return Collections.emptyList();
-
-            @SuppressWarnings("unchecked")
-            List<Map<String, String>> files = (List<Map<String, String>>) response.get("files");
-            if (files == null)
-                return Collections.emptyList();
-
-            return files.stream()
-                    .map(f -> new DriveFolder(f.get("id"), f.get("name")))
-                    .toList();
+            return listAll("mimeType='application/vnd.google-apps.folder' and trashed=false",
+                    "files(id,name)", accessToken,
+                    f -> new DriveFolder(f.get("id"), f.get("name")));
         } catch (Exception e) {
             log.error("Error listando carpetas de Drive: {}", e.getMessage());
             return Collections.emptyList();
@@ -71,44 +54,70 @@ public class GoogleDriveService {
     }
 
     /**
-     * Lista los archivos de imagen dentro de una carpeta de Drive.
+     * Lista los archivos de imagen dentro de una carpeta de Drive, con su
+     * md5Checksum y modifiedTime (usados por el re-sync para detectar cambios),
+     * recorriendo todas las páginas.
      *
      * @param folderId    ID de la carpeta en Drive
      * @param accessToken OAuth2 access token del usuario
-     * @return lista de archivos de imagen, ordenados por nombre
+     * @return lista de archivos de imagen, ordenados por nombre (vacía si hay
+     *         error, nunca parcial)
      */
     public List<DriveFile> listImagesInFolder(String folderId, String accessToken) {
         String query = "'" + folderId + "' in parents "
                 + "and (mimeType contains 'image/') "
                 + "and trashed=false";
         try {
+            return listAll(query, "files(id,name,mimeType,md5Checksum,modifiedTime)", accessToken,
+                    f -> new DriveFile(f.get("id"), f.get("name"), f.get("mimeType"),
+                            f.get("md5Checksum"), f.get("modifiedTime")));
+        } catch (Exception e) {
+            log.error("Error listando imágenes en carpeta {}: {}", folderId, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * files.list completo: pide páginas de {@link #PAGE_SIZE} con solo los
+     * campos indicados y sigue {@code nextPageToken} hasta la última.
+     */
+    private <T> List<T> listAll(String query,
+            String fileFields,
+            String accessToken,
+            Function<Map<String, String>, T> mapper) {
+        List<T> results = new ArrayList<>();
+        String pageToken = null;
+        do {
+            String token = pageToken;
             Map<?, ?> response = driveClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/files")
-                            .queryParam("q", query)
-                            .queryParam("fields", "files(id,name,mimeType)")
-                            .queryParam("orderBy", "name")
-                            .build())
+                    .uri(uriBuilder -> {
+                        uriBuilder.path("/files")
+                                .queryParam("q", "{q}")
+                                .queryParam("fields", "nextPageToken," + fileFields)
+                                .queryParam("orderBy", "name")
+                                .queryParam("pageSize", PAGE_SIZE);
+                        if (token != null) {
+                            uriBuilder.queryParam("pageToken", "{pageToken}");
+                            return uriBuilder.build(query, token);
+                        }
+                        return uriBuilder.build(query);
+                    })
                     .header("Authorization", "Bearer " + accessToken)
                     .retrieve()
                     .bodyToMono(Map.class)
                     .block();
-
-            if (response == null)
-                return Collections.emptyList();
+            if (response == null) {
+                break;
+            }
 
             @SuppressWarnings("unchecked")
             List<Map<String, String>> files = (List<Map<String, String>>) response.get("files");
-            if (files == null)
-                return Collections.emptyList();
-
-            return files.stream()
-                    .map(f -> new DriveFile(f.get("id"), f.get("name"), f.get("mimeType")))
-                    .toList();
-        } catch (Exception e) {
-            log.error("Error listando imágenes en carpeta {}: {}", folderId, e.getMessage());
-            return Collections.emptyList();
-        }
+            if (files != null) {
+                files.stream().map(mapper).forEach(results::add);
+            }
+            pageToken = (String) response.get("nextPageToken");
+        } while (pageToken != null);
+        return results;
     }
 
     /**
@@ -0,0 +1,377 @@
+package com.brixo.slidehub.ui.service;
+
+import com.brixo.slidehub.ui.model.ImportJob;
+import com.brixo.slidehub.ui.model.ImportJobStatus;
+import com.brixo.slidehub.ui.model.Presentation;
+import com.brixo.slidehub.ui.model.SourceType;
+import com.brixo.slidehub.ui.model.UploadedSlideFile;
+import com.brixo.slidehub.ui.model.User;
+import com.brixo.slidehub.ui.repository.ImportJobRepository;
+import com.brixo.slidehub.ui.service.PresentationService.ImportProgress;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Importaciones de presentaciones en segundo plano.
+ *
+ * El request HTTP solo crea el {@link ImportJob} (QUEUED) y lo encola en un
+ * pool de workers acotado; la transferencia a S3 la hace
+ * {@link PresentationService} en el worker, que actualiza el avance del job
+ * slide a slide. Así el request responde en milisegundos, no expira detrás de
+ * proxies y la importación sigue aunque el cliente se desconecte.
+ *
+ * Los archivos de un upload manual se copian a disco local antes de responder
+ * (el multipart se borra al terminar el request) y se eliminan al acabar el
+ * job. El access token de Google solo vive en memoria del worker: nunca se
+ * persiste.
+ *
+ * Los re-sync de presentaciones de Drive usan los mismos jobs.
+ *
+ * Al terminar, los slides se encolan en {@link SlideTranscoder} (WebP).
+ *
+ * La cola de workers solo vive en memoria: si la réplica se reinicia, sus jobs
+ * pendientes ya no los ejecuta nadie. Por eso un job RUNNING sin avance
+ * durante {@code stale-after}, o QUEUED desde hace más de
+ * {@code queued-timeout} (mayor que la espera máxima en una cola llena), se
+ * marca FAILED al consultarlo y al arrancar cualquier réplica; al arrancar
+ * también se borran los archivos temporales de jobs que ya no están
+ * pendientes. Un worker que llega tarde a un job ya fallido no lo ejecuta.
+ *
+ * Configuración: slidehub.import.* (ver application.properties).
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+
+    private static final String INTERRUPTED = "La importación se interrumpió. Vuelve a intentarlo.";
+
+    private final ImportJobRepository importJobRepository;
+    private final PresentationService presentationService;
+    private final SlideTranscoder slideTranscoder;
+    private final ThreadPoolExecutor workers;
+    private final Path spoolDir;
+    private final Duration staleAfter;
+    private final Duration queuedTimeout;
+    private final Instant startedAt = Instant.now();
+
+    public ImportJobService(ImportJobRepository importJobRepository,
+            PresentationService presentationService,
+            SlideTranscoder slideTranscoder,
+            @Value("${slidehub.import.workers:2}") int workerCount,
+            @Value("${slidehub.import.queue-capacity:20}") int queueCapacity,
+            @Value("${slidehub.import.spool-dir:}") String spoolDir,
+            @Value("${slidehub.import.stale-after:30m}") Duration staleAfter,
+            @Value("${slidehub.import.queued-timeout:20m}") Duration queuedTimeout) {
+        this.importJobRepository = importJobRepository;
+        this.presentationService = presentationService;
+        this.slideTranscoder = slideTranscoder;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "import-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.spoolDir = spoolDir.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "slidehub-import")
+                : Path.of(spoolDir);
+        this.staleAfter = staleAfter;
+        this.queuedTimeout = queuedTimeout;
+    }
+
+    // ── Envío de jobs ─────────────────────────────────────────────────────────
+
+    /**
+     * Encola la importación de una carpeta de Drive.
+     *
+     * @throws IllegalStateException si la cola de importaciones está llena
+     */
+    public ImportJob submitDrive(User user,
+            String name,
+            String description,
+            String driveFolderId,
+            String driveFolderName,
+            String repoUrl,
+            String googleAccessToken) {
+        ImportJob job = newJob(user, SourceType.DRIVE, name);
+        enqueue(job, progress -> presentationService.createFromDrive(user, name, description,
+                driveFolderId, driveFolderName, repoUrl, googleAccessToken, progress), null);
+        return job;
+    }
+
+    /**
+     * Encola el re-sync de una presentación importada desde Drive: solo se
+     * transfieren las imágenes nuevas o modificadas (ver
+     * {@link PresentationService#resyncFromDrive}).
+     *
+     * @throws IllegalArgumentException si la presentación no existe o no es del
+     *                                  usuario
+     * @throws IllegalStateException    si la cola de importaciones está llena
+     */
+    public ImportJob submitResync(User user, String presentationId, String googleAccessToken) {
+        Presentation presentation = presentationService.getPresentation(user.getId(), presentationId)
+                .orElseThrow(() -> new IllegalArgumentException("Presentación no encontrada: " + presentationId));
+        if (presentation.getSourceType() != SourceType.DRIVE) {
+            throw new IllegalArgumentException("La presentación no se importó desde Google Drive.");
+        }
+        ImportJob job = newJob(user, SourceType.DRIVE, presentation.getName());
+        enqueue(job, progress -> presentationService.resyncFromDrive(user, presentationId, googleAccessToken,
+                progress), null);
+        return job;
+    }
+
+    /**
+     * Copia los archivos a disco y encola la importación.
+     *
+     * @throws IllegalArgumentException si no hay archivos
+     * @throws IllegalStateException    si la cola de importaciones está llena
+     * @throws IOException              si no se pudieron copiar los archivos
+     */
+    public ImportJob submitUpload(User user,
+            String name,
+            String description,
+            String repoUrl,
+            List<MultipartFile> files) throws IOException {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("Se requiere al menos un archivo para crear la presentación.");
+        }
+
+        ImportJob job = newJob(user, SourceType.UPLOAD, name);
+        Path jobDir = spoolDir.resolve(job.getId());
+        List<UploadedSlideFile> spooled;
+        try {
+            spooled = spool(files, jobDir);
+        } catch (IOException e) {
+            deleteSpool(jobDir);
+            throw e;
+        }
+        enqueue(job, progress -> presentationService.createFromUpload(user, name, description, repoUrl,
+                spooled, progress), jobDir);
+        return job;
+    }
+
+    // ── Consulta ──────────────────────────────────────────────────────────────
+
+    /**
+     * Estado actual de un job del usuario. Los jobs RUNNING sin avance durante
+     * {@code stale-after} y los QUEUED desde hace más de {@code queued-timeout}
+     * se dan por fallidos.
+     */
+    public Optional<ImportJob> findJob(String userId, String jobId) {
+        return importJobRepository.findByIdAndUserId(jobId, userId)
+                .map(job -> {
+                    if (!isAbandoned(job, LocalDateTime.now())) {
+                        return job;
+                    }
+                    log.warn("Job de importación {} {} sin avance desde {}: se marca como fallido",
+                            job.getId(), job.getStatus(), job.getUpdatedAt());
+                    if (importJobRepository.finish(job.getId(), ImportJobStatus.FAILED, null, INTERRUPTED,
+                            LocalDateTime.now()) == 0) {
+                        // El worker lo terminó entre la lectura y el UPDATE: el
+                        // siguiente polling verá el estado final
+                        return job;
+                    }
+                    job.setStatus(ImportJobStatus.FAILED);
+                    job.setErrorMessage(INTERRUPTED);
+                    return job;
+                });
+    }
+
+    private boolean isAbandoned(ImportJob job, LocalDateTime now) {
+        return switch (job.getStatus()) {
+            case QUEUED -> job.getCreatedAt().isBefore(now.minus(queuedTimeout));
+            case RUNNING -> job.getUpdatedAt().isBefore(now.minus(staleAfter));
+            default -> false;
+        };
+    }
+
+    // ── Recuperación al arrancar ──────────────────────────────────────────────
+
+    /**
+     * Falla los jobs que ya no ejecutará ningún worker y borra los archivos
+     * temporales que no pertenecen a un job pendiente. Solo toca jobs fuera de
+     * plazo: los de otras réplicas vivas siguen su curso.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverAbandonedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        int failed = importJobRepository.failAbandoned(now.minus(queuedTimeout), now.minus(staleAfter),
+                INTERRUPTED, now);
+        if (failed > 0) {
+            log.warn("{} jobs de importación abandonados marcados como fallidos", failed);
+        }
+
+        if (!Files.isDirectory(spoolDir)) {
+            return;
+        }
+        List<Path> jobDirs;
+        try (Stream<Path> entries = Files.list(spoolDir)) {
+            // Los creados desde el arranque son de uploads de esta réplica en curso
+            jobDirs = entries.filter(Files::isDirectory).filter(this::spooledBeforeStartup).toList();
+        } catch (IOException e) {
+            log.warn("No se pudo revisar el directorio temporal {}: {}", spoolDir, e.getMessage());
+            return;
+        }
+        if (jobDirs.isEmpty()) {
+            return;
+        }
+        List<String> pending = importJobRepository.findPendingIds(
+                jobDirs.stream().map(dir -> dir.getFileName().toString()).toList());
+        jobDirs.stream()
+                .filter(dir -> !pending.contains(dir.getFileName().toString()))
+                .forEach(this::deleteSpool);
+    }
+
+    private boolean spooledBeforeStartup(Path jobDir) {
+        try {
+            return Files.getLastModifiedTime(jobDir).toInstant().isBefore(startedAt);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // ── Ejecución ─────────────────────────────────────────────────────────────
+
+    private ImportJob newJob(User user, SourceType sourceType, String name) {
+        ImportJob job = new ImportJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setUserId(user.getId());
+        job.setSourceType(sourceType);
+        job.setPresentationName(name);
+        job.setStatus(ImportJobStatus.QUEUED);
+        LocalDateTime now = LocalDateTime.now();
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        return job;
+    }
+
+    private void enqueue(ImportJob job, Function<ImportProgress, Presentation> importTask, Path jobDir) {
+        importJobRepository.save(job);
+        try {
+            workers.execute(() -> run(job.getId(), importTask, jobDir));
+        } catch (RejectedExecutionException e) {
+            String error = "Hay demasiadas importaciones en curso. Inténtalo en unos minutos.";
+            importJobRepository.finish(job.getId(), ImportJobStatus.FAILED, null, error, LocalDateTime.now());
+            deleteSpool(jobDir);
+            throw new IllegalStateException(error, e);
+        }
+        log.info("Job de importación {} encolado ({}, {} en cola)", job.getId(), job.getSourceType(),
+                workers.getQueue().size());
+    }
+
+    private void run(String jobId, Function<ImportProgress, Presentation> importTask, Path jobDir) {
+        try {
+            if (importJobRepository.markRunning(jobId, ImportJobStatus.RUNNING, 0, LocalDateTime.now()) == 0) {
+                // Se dio por perdido mientras esperaba en la cola
+                log.warn("Job de importación {} ya terminado antes de ejecutarse: se descarta", jobId);
+                return;
+            }
+            Presentation presentation = importTask.apply(new JobProgress(jobId));
+            LocalDateTime now = LocalDateTime.now();
+            if (importJobRepository.finish(jobId, ImportJobStatus.DONE, presentation.getId(), null, now) == 0
+                    && importJobRepository.completeAfterFailure(jobId, presentation.getId(), now) > 0) {
+                // Se dio por perdido mientras importaba, pero la presentación
+                // ya existe: el job refleja lo que el usuario verá en su lista
+                log.warn("Job de importación {} terminado después de darse por perdido", jobId);
+            }
+            log.info("Job de importación {} terminado: presentación {}", jobId, presentation.getId());
+            // La presentación ya es visible; WebP se genera después, sin retrasar el job
+            slideTranscoder.submit(presentation);
+        } catch (Exception e) {
+            log.error("Job de importación {} fallido: {}", jobId, e.getMessage());
+            importJobRepository.finish(jobId, ImportJobStatus.FAILED, null, errorMessage(e),
+                    LocalDateTime.now());
+        } finally {
+            deleteSpool(jobDir);
+        }
+    }
+
+    private static String errorMessage(Exception e) {
+        if (e instanceof IllegalArgumentException) {
+            return e.getMessage();
+        }
+        return "Error al importar la presentación: " + e.getMessage();
+    }
+
+    /** Refleja el avance del pipeline en la fila del job. */
+    private final class JobProgress implements ImportProgress {
+
+        private final String jobId;
+
+        private JobProgress(String jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public void started(int totalSlides) {
+            importJobRepository.markRunning(jobId, ImportJobStatus.RUNNING, totalSlides, LocalDateTime.now());
+        }
+
+        @Override
+        public void slideCompleted(int completedSlides) {
+            try {
+                importJobRepository.updateProgress(jobId, completedSlides, LocalDateTime.now());
+            } catch (RuntimeException e) {
+                // El avance es informativo: no debe abortar la importación
+                log.warn("No se pudo actualizar el avance del job {}: {}", jobId, e.getMessage());
+            }
+        }
+    }
+
+    // ── Archivos temporales ───────────────────────────────────────────────────
+
+    private List<UploadedSlideFile> spool(List<MultipartFile> files, Path jobDir) throws IOException {
+        Files.createDirectories(jobDir);
+        List<UploadedSlideFile> spooled = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            Path target = jobDir.resolve(i + ".upload");
+            file.transferTo(target);
+            spooled.add(new UploadedSlideFile(file.getOriginalFilename(), file.getContentType(), target));
+        }
+        return spooled;
+    }
+
+    private void deleteSpool(Path jobDir) {
+        if (jobDir == null) {
+            return;
+        }
+        try {
+            FileSystemUtils.deleteRecursively(jobDir);
+        } catch (IOException e) {
+            log.warn("No se pudieron borrar los archivos temporales {}: {}", jobDir, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -26,8 +26,10 @@ public class NotesBridgeService {
 
     private final WebClient aiClient;
 
-    public NotesBridgeService(@Value("${slidehub.ai-service.url}") String aiServiceUrl) {
-        this.aiClient = WebClient.builder()
+    public NotesBridgeService(@Value("${slidehub.ai-service.url}") String aiServiceUrl,
+            WebClient.Builder webClientBuilder) {
+        // Builder de Spring Boot: instrumentado para tracing (propaga traceparent)
+        this.aiClient = webClientBuilder
                 .baseUrl(aiServiceUrl)
                 .build();
     }
@@ -3,19 +3,35 @@ package com.brixo.slidehub.ui.service;
 import com.brixo.slidehub.ui.model.DriveFile;
 import com.brixo.slidehub.ui.model.DriveFolder;
 import com.brixo.slidehub.ui.model.Presentation;
+import com.brixo.slidehub.ui.model.PresentationPage;
+import com.brixo.slidehub.ui.model.PresentationSummary;
 import com.brixo.slidehub.ui.model.Slide;
+import com.brixo.slidehub.ui.model.SlideRendition;
 import com.brixo.slidehub.ui.model.SourceType;
+import com.brixo.slidehub.ui.model.UploadedSlideFile;
 import com.brixo.slidehub.ui.model.User;
 import com.brixo.slidehub.ui.repository.PresentationRepository;
+import com.brixo.slidehub.ui.storage.SlideContent;
+import com.brixo.slidehub.ui.storage.SlideStorage;
+import com.brixo.slidehub.ui.service.SlideTransferPipeline.SlideSource;
+import com.brixo.slidehub.ui.service.SlideTransferPipeline.TransferredSlide;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,10 +41,13 @@ import java.util.UUID;
  *
  * Flujos soportados:
  * - Importación desde Google Drive: descarga imágenes y las sube a S3.
- * - Upload manual: recibe MultipartFile[], los sube directamente a S3.
+ * - Upload manual: recibe los archivos del multipart y los sube a S3.
  *
- * En ambos casos las imágenes van a S3; el filesystem local de Render nunca se
- * usa.
+ * En ambos casos las imágenes van al {@link SlideStorage} configurado: S3 en
+ * Render (cuyo filesystem es efímero) o disco local en desarrollo/on-prem,
+ * direccionadas por contenido: una imagen ya importada antes (por cualquier
+ * presentación) no se vuelve a subir, el slide referencia su blob
+ * (ver {@link SlideBlobService}).
  */
 @Service
 public class PresentationService {
@@ -37,24 +56,121 @@ public class PresentationService {
 
     private final PresentationRepository presentationRepository;
     private final GoogleDriveService googleDriveService;
-    private final SlideUploadService slideUploadService;
+    private final DriveListingCache driveListingCache;
+    private final SlideTransferPipeline slideTransferPipeline;
+    private final SlideBlobService slideBlobService;
+    private final SlideStorage slideStorage;
+    private final TransactionTemplate transactionTemplate;
 
     public PresentationService(PresentationRepository presentationRepository,
             GoogleDriveService googleDriveService,
-            SlideUploadService slideUploadService) {
+            DriveListingCache driveListingCache,
+            SlideTransferPipeline slideTransferPipeline,
+            SlideBlobService slideBlobService,
+            SlideStorage slideStorage,
+            TransactionTemplate transactionTemplate) {
         this.presentationRepository = presentationRepository;
         this.googleDriveService = googleDriveService;
-        this.slideUploadService = slideUploadService;
+        this.driveListingCache = driveListingCache;
+        this.slideTransferPipeline = slideTransferPipeline;
+        this.slideBlobService = slideBlobService;
+        this.slideStorage = slideStorage;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Avance de una importación: total de slides y slides terminados (subidos
+     * u omitidos). {@link #slideCompleted(int)} se invoca desde los hilos del
+     * pipeline.
+     */
+    public interface ImportProgress {
+
+        ImportProgress NONE = new ImportProgress() {
+            @Override
+            public void started(int totalSlides) {
+            }
+
+            @Override
+            public void slideCompleted(int completedSlides) {
+            }
+        };
+
+        void started(int totalSlides);
+
+        void slideCompleted(int completedSlides);
     }
 
     // ── Listado de presentaciones ─────────────────────────────────────────────
 
     /**
      * Lista todas las presentaciones de un usuario, ordenadas por fecha de creación
-     * desc.
+     * desc. Una sola consulta, con el número de slides agregado en SQL.
+     */
+    public List<PresentationSummary> listPresentations(String userId) {
+        return presentationRepository.findSummariesByUserId(userId);
+    }
+
+    /**
+     * Página del listado de presentaciones del usuario, por keyset sobre
+     * (createdAt, id) desc: cada página cuesta lo mismo independientemente de
+     * cuántas haya antes.
+     *
+     * @param namePrefix prefijo del nombre, sin distinguir mayúsculas (null o
+     *                   vacío = todas)
+     * @param cursor     {@code nextCursor} de la página anterior, o null para
+     *                   la primera
+     * @param limit      tamaño de página
+     * @throws IllegalArgumentException si el cursor no es válido
      */
-    public List<Presentation> listPresentations(String userId) {
-        return presentationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    public PresentationPage listPresentations(String userId, String namePrefix, String cursor, int limit) {
+        String namePattern = namePattern(namePrefix);
+        // Una fila de más indica si hay página siguiente
+        Limit fetch = Limit.of(limit + 1);
+        List<PresentationSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = presentationRepository.findSummaryPage(userId, namePattern, fetch);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = presentationRepository.findSummaryPageAfter(userId, namePattern, after.createdAt(),
+                    after.id(), fetch);
+        }
+        if (rows.size() <= limit) {
+            return new PresentationPage(rows, null);
+        }
+        List<PresentationSummary> items = rows.subList(0, limit);
+        PresentationSummary last = items.get(limit - 1);
+        return new PresentationPage(List.copyOf(items), new PageCursor(last.createdAt(), last.id()).encode());
+    }
+
+    /** Posición (createdAt, id) de la última fila de una página, en base64url. */
+    private record PageCursor(LocalDateTime createdAt, String id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PageCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor de paginación no válido.", e);
+            }
+        }
+    }
+
+    /** Patrón LIKE en minúsculas para el prefijo, escapando los comodines con '!'. */
+    private static String namePattern(String namePrefix) {
+        if (namePrefix == null || namePrefix.isBlank()) {
+            return "%";
+        }
+        String escaped = namePrefix.strip().toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return escaped + "%";
     }
 
     /**
@@ -67,30 +183,46 @@ public class PresentationService {
     // ── Importación desde Google Drive ────────────────────────────────────────
 
     /**
-     * Lista las carpetas accesibles del Drive del usuario.
+     * Lista las carpetas accesibles del Drive del usuario. El listado se
+     * cachea unos segundos por usuario ({@link DriveListingCache});
+     * {@code refresh} lo descarta, junto con los listados de imágenes.
      *
+     * @param userId      usuario propietario de la caché
      * @param accessToken OAuth2 access token del usuario
+     * @param refresh     true para volver a listar contra Drive
      */
-    public List<DriveFolder> listDriveFolders(String accessToken) {
-        return googleDriveService.listFolders(accessToken);
+    public List<DriveFolder> listDriveFolders(String userId, String accessToken, boolean refresh) {
+        if (refresh) {
+            driveListingCache.invalidate(userId);
+        }
+        return driveListingCache.get(userId, "folders", refresh,
+                () -> googleDriveService.listFolders(accessToken));
     }
 
     /**
-     * Lista las imágenes disponibles dentro de una carpeta de Drive.
+     * Lista las imágenes disponibles dentro de una carpeta de Drive (cacheado
+     * como {@link #listDriveFolders}).
      *
+     * @param userId      usuario propietario de la caché
      * @param folderId    ID de la carpeta en Drive
      * @param accessToken OAuth2 access token del usuario
+     * @param refresh     true para volver a listar contra Drive
      */
-    public List<DriveFile> listDriveImages(String folderId, String accessToken) {
-        return googleDriveService.listImagesInFolder(folderId, accessToken);
+    public List<DriveFile> listDriveImages(String userId, String folderId, String accessToken, boolean refresh) {
+        return driveListingCache.get(userId, "images:" + folderId, refresh,
+                () -> googleDriveService.listImagesInFolder(folderId, accessToken));
     }
 
     /**
      * Crea una presentación importando imágenes desde Google Drive.
      *
      * Cada imagen se descarga de Drive, se sube a S3 con la clave
-     * {@code slides/{presentationId}/{slideNumber}.png} y se persiste una entidad
-     * {@link Slide} por imagen.
+     * {@code blobs/{hh}/{sha256}-{subida}.{ext}} (salvo que ya estuviera) y se persiste
+     * una entidad {@link Slide} por imagen.
+     *
+     * Descargas y subidas se solapan en {@link SlideTransferPipeline}; la
+     * presentación y sus slides se guardan juntos al final, así que no se
+     * retiene una conexión a la BD mientras dura la transferencia.
      *
      * @param user              usuario propietario
      * @param name              nombre de la presentación
@@ -102,7 +234,6 @@ public class PresentationService {
      * @param googleAccessToken token OAuth2 de Google del usuario
      * @return presentación creada con todos sus slides
      */
-    @Transactional
     public Presentation createFromDrive(User user,
             String name,
             String description,
@@ -110,6 +241,22 @@ public class PresentationService {
             String driveFolderName,
             String repoUrl,
             String googleAccessToken) {
+        return createFromDrive(user, name, description, driveFolderId, driveFolderName, repoUrl,
+                googleAccessToken, ImportProgress.NONE);
+    }
+
+    /**
+     * Como {@link #createFromDrive(User, String, String, String, String, String, String)},
+     * notificando el avance de la transferencia (usado por ImportJobService).
+     */
+    public Presentation createFromDrive(User user,
+            String name,
+            String description,
+            String driveFolderId,
+            String driveFolderName,
+            String repoUrl,
+            String googleAccessToken,
+            ImportProgress progress) {
         List<DriveFile> images = googleDriveService.listImagesInFolder(driveFolderId, googleAccessToken);
         if (images.isEmpty()) {
             throw new IllegalArgumentException(
@@ -118,28 +265,13 @@ public class PresentationService {
 
         Presentation presentation = buildPresentation(user, name, description, repoUrl,
                 SourceType.DRIVE, driveFolderId, driveFolderName);
-        presentationRepository.save(presentation);
 
+        List<SlideSource> sources = new ArrayList<>(images.size());
         for (int i = 0; i < images.size(); i++) {
-            DriveFile driveFile = images.get(i);
-            int slideNumber = i + 1;
-
-            byte[] imageBytes = googleDriveService.downloadImage(driveFile.id(), googleAccessToken);
-            if (imageBytes.length == 0) {
-                log.warn("Imagen vacía o error al descargar: {} ({})", driveFile.name(), driveFile.id());
-                continue;
-            }
-
-            String s3Key = "slides/%s/%d.png".formatted(presentation.getId(), slideNumber);
-            String contentType = resolveContentType(driveFile.mimeType());
-            String s3Url = slideUploadService.upload(s3Key, imageBytes, contentType);
-
-            Slide slide = buildSlide(presentation, slideNumber, slideNumber + ".png",
-                    driveFile.id(), s3Url);
-            presentation.getSlides().add(slide);
+            sources.add(driveSource(i + 1, images.get(i), googleAccessToken));
         }
 
-        Presentation saved = presentationRepository.save(presentation);
+        Presentation saved = transferAndPersist(presentation, sources, byId(images), progress);
         log.info("Presentación creada desde Drive: {} ({} slides)", saved.getId(), saved.getSlides().size());
         return saved;
     }
@@ -149,69 +281,343 @@ public class PresentationService {
      *
      * Los archivos se ordenan por nombre antes de asignarles número de slide.
      * Cada archivo se sube a S3 con la clave
-     * {@code slides/{presentationId}/{n}.png}.
+     * {@code blobs/{hh}/{sha256}-{subida}.{ext}} (salvo que ya estuviera).
      *
      * @param user        usuario propietario
      * @param name        nombre de la presentación
      * @param description descripción (puede ser null)
      * @param repoUrl     URL del repositorio GitHub (puede ser null)
-     * @param files       archivos de imagen recibidos vía multipart/form-data
+     * @param files       archivos recibidos vía multipart/form-data, ya copiados
+     *                    a disco por ImportJobService
+     * @param progress    recibe el avance de la transferencia
      * @return presentación creada con todos sus slides
      */
-    @Transactional
     public Presentation createFromUpload(User user,
             String name,
             String description,
             String repoUrl,
-            List<MultipartFile> files) {
+            List<UploadedSlideFile> files,
+            ImportProgress progress) {
         if (files == null || files.isEmpty()) {
             throw new IllegalArgumentException("Se requiere al menos un archivo para crear la presentación.");
         }
 
         Presentation presentation = buildPresentation(user, name, description, repoUrl,
                 SourceType.UPLOAD, null, null);
-        presentationRepository.save(presentation);
 
         // Ordenar por nombre original para mantener un orden predecible
-        List<MultipartFile> sorted = files.stream()
+        List<UploadedSlideFile> sorted = files.stream()
                 .sorted((a, b) -> {
-                    String na = a.getOriginalFilename() != null ? a.getOriginalFilename() : "";
-                    String nb = b.getOriginalFilename() != null ? b.getOriginalFilename() : "";
+                    String na = a.originalFilename() != null ? a.originalFilename() : "";
+                    String nb = b.originalFilename() != null ? b.originalFilename() : "";
                     return na.compareToIgnoreCase(nb);
                 })
                 .toList();
 
+        List<SlideSource> sources = new ArrayList<>(sorted.size());
         for (int i = 0; i < sorted.size(); i++) {
-            MultipartFile file = sorted.get(i);
+            UploadedSlideFile file = sorted.get(i);
             int slideNumber = i + 1;
+            String contentType = file.contentType() != null ? file.contentType() : "image/png";
+            sources.add(new SlideSource(slideNumber,
+                    contentType,
+                    null,
+                    () -> fileContent(file)));
+        }
 
-            byte[] imageBytes;
-            try {
-                imageBytes = file.getBytes();
-            } catch (IOException e) {
-                log.error("Error leyendo archivo {}: {}", file.getOriginalFilename(), e.getMessage());
-                continue;
+        Presentation saved = transferAndPersist(presentation, sources, Map.of(), progress);
+        log.info("Presentación creada desde upload: {} ({} slides)", saved.getId(), saved.getSlides().size());
+        return saved;
+    }
+
+    // ── Re-sync desde Google Drive ────────────────────────────────────────────
+
+    /**
+     * Re-sincroniza una presentación importada desde Drive con el estado actual
+     * de su carpeta.
+     *
+     * Solo se descargan las imágenes nuevas o modificadas: un slide se da por
+     * igual si su md5Checksum coincide con el de Drive (o, si Drive no lo
+     * informa, su modifiedTime). Los slides sin cambios conservan su blob y
+     * solo se renumeran según el orden actual de la carpeta; los que ya no
+     * están se eliminan. Altas, bajas, reemplazos y renumeración se aplican en
+     * una única transacción; después se purgan los blobs que quedaron sin
+     * referencias.
+     *
+     * @param progress recibe el avance: el total es el número de imágenes a
+     *                 descargar, no el de slides
+     * @throws IllegalArgumentException si la presentación no existe, no es de
+     *                                  Drive o la carpeta no tiene imágenes
+     */
+    public Presentation resyncFromDrive(User user,
+            String presentationId,
+            String googleAccessToken,
+            ImportProgress progress) {
+        Presentation current = transactionTemplate.execute(status -> presentationRepository
+                .findByIdAndUserId(presentationId, user.getId())
+                .map(presentation -> {
+                    presentation.getSlides().size(); // cargar antes de cerrar la transacción
+                    return presentation;
+                })
+                .orElse(null));
+        if (current == null) {
+            throw new IllegalArgumentException("Presentación no encontrada: " + presentationId);
+        }
+        if (current.getSourceType() != SourceType.DRIVE || current.getDriveFolderId() == null) {
+            throw new IllegalArgumentException("La presentación no se importó desde Google Drive.");
+        }
+
+        // Un listado vacío suele ser un error de Drive: no se vacía la presentación
+        List<DriveFile> images = googleDriveService.listImagesInFolder(current.getDriveFolderId(),
+                googleAccessToken);
+        if (images.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "No se encontraron imágenes en la carpeta de Drive: " + current.getDriveFolderId());
+        }
+
+        Map<String, Slide> stored = new HashMap<>();
+        for (Slide slide : current.getSlides()) {
+            if (slide.getDriveFileId() != null) {
+                stored.put(slide.getDriveFileId(), slide);
+            }
+        }
+        List<SlideSource> sources = new ArrayList<>();
+        for (int i = 0; i < images.size(); i++) {
+            DriveFile driveFile = images.get(i);
+            Slide slide = stored.get(driveFile.id());
+            if (slide == null || !isUnchanged(slide, driveFile)) {
+                sources.add(driveSource(i + 1, driveFile, googleAccessToken));
             }
+        }
 
-            String originalFilename = file.getOriginalFilename() != null
-                    ? file.getOriginalFilename()
-                    : slideNumber + ".png";
-            String contentType = file.getContentType() != null ? file.getContentType() : "image/png";
-            String s3Key = "slides/%s/%d.png".formatted(presentation.getId(), slideNumber);
-            String s3Url = slideUploadService.upload(s3Key, imageBytes, contentType);
+        progress.started(sources.size());
+        List<TransferredSlide> transferred = slideTransferPipeline.transfer(sources, progress::slideCompleted);
+        ResyncResult result;
+        try {
+            result = transactionTemplate.execute(status -> applyResync(presentationId, images, transferred));
+        } catch (RuntimeException e) {
+            slideTransferPipeline.discard(transferred);
+            throw e;
+        }
 
-            Slide slide = buildSlide(presentation, slideNumber, slideNumber + ".png",
-                    null, s3Url);
-            presentation.getSlides().add(slide);
+        result.releasedBlobs().forEach(slideBlobService::purgeIfUnreferenced);
+        deleteLegacyObjects(result.legacyKeys());
+        log.info("Presentación {} re-sincronizada desde Drive: {} imágenes descargadas, {} slides",
+                presentationId, sources.size(), result.presentation().getSlides().size());
+        return result.presentation();
+    }
+
+    /** Resultado de la transacción del re-sync: lo que hay que purgar después. */
+    private record ResyncResult(Presentation presentation, List<String> releasedBlobs, List<String> legacyKeys) {
+    }
+
+    /**
+     * Aplica el re-sync sobre la presentación recién cargada. Los slides se
+     * renumeran primero a valores negativos (y se hace flush) para que la
+     * restricción única (presentation_id, number) no salte con los
+     * intercambios de posición.
+     */
+    private ResyncResult applyResync(String presentationId, List<DriveFile> images,
+            List<TransferredSlide> transferred) {
+        Presentation presentation = presentationRepository.findById(presentationId)
+                .orElseThrow(() -> new IllegalStateException("La presentación se eliminó durante el re-sync"));
+
+        Map<String, Slide> remaining = new HashMap<>();
+        for (Slide slide : presentation.getSlides()) {
+            slide.setNumber(-slide.getNumber());
+            if (slide.getDriveFileId() != null) {
+                remaining.put(slide.getDriveFileId(), slide);
+            }
+        }
+        presentationRepository.flush();
+
+        Map<Integer, TransferredSlide> replacements = new HashMap<>();
+        for (TransferredSlide transferredSlide : transferred) {
+            replacements.put(transferredSlide.slideNumber(), transferredSlide);
+        }
+        Map<String, Integer> acquired = new HashMap<>();
+        Map<String, Integer> released = new HashMap<>();
+        List<String> legacyKeys = new ArrayList<>();
+        List<Slide> kept = new ArrayList<>();
+
+        for (int i = 0; i < images.size(); i++) {
+            DriveFile driveFile = images.get(i);
+            int number = i + 1;
+            Slide slide = remaining.remove(driveFile.id());
+            TransferredSlide replacement = replacements.get(number);
+            if (replacement == null) {
+                // Sin cambios o descarga vacía: se conserva la imagen que hubiera
+                if (slide == null) {
+                    continue;
+                }
+                if (isUnchanged(slide, driveFile)) {
+                    applyDriveVersion(slide, driveFile);
+                }
+            } else {
+                if (slide == null) {
+                    slide = buildSlide(presentation, number, number + ".png", driveFile.id(),
+                            replacement.s3Url());
+                    presentation.getSlides().add(slide);
+                } else {
+                    release(slide, released, legacyKeys);
+                    slide.setS3Url(replacement.s3Url());
+                    slide.setUploadedAt(LocalDateTime.now());
+                }
+                applyRenditions(slide, replacement);
+                applyDriveVersion(slide, driveFile);
+                acquired.merge(replacement.contentHash(), 1, Integer::sum);
+            }
+            slide.setNumber(number);
+            slide.setFilename(number + ".png");
+            kept.add(slide);
+        }
+
+        // Slides que ya no están en la carpeta (orphanRemoval los borra)
+        for (Slide slide : List.copyOf(presentation.getSlides())) {
+            if (!kept.contains(slide)) {
+                release(slide, released, legacyKeys);
+                presentation.getSlides().remove(slide);
+            }
         }
+        presentation.getSlides().sort(Comparator.comparingInt(Slide::getNumber));
+        presentation.setUpdatedAt(LocalDateTime.now());
 
         Presentation saved = presentationRepository.save(presentation);
-        log.info("Presentación creada desde upload: {} ({} slides)", saved.getId(), saved.getSlides().size());
-        return saved;
+        slideBlobService.acquire(acquired);
+        List<String> releasedBlobs = slideBlobService.release(released);
+        return new ResyncResult(saved, releasedBlobs, legacyKeys);
+    }
+
+    /** Resta la referencia del slide a su blob, o anota sus objetos anteriores a V5. */
+    private static void release(Slide slide, Map<String, Integer> released, List<String> legacyKeys) {
+        if (slide.getContentHash() != null) {
+            released.merge(slide.getContentHash(), 1, Integer::sum);
+            return;
+        }
+        for (SlideRendition rendition : SlideRendition.values()) {
+            String key = slide.getRenditionKey(rendition);
+            if (key != null) {
+                legacyKeys.add(key);
+            }
+        }
+    }
+
+    /**
+     * Un slide no cambió si su md5 coincide con el de Drive; si alguno de los
+     * dos no lo tiene, se compara modifiedTime. Sin ninguno (slides anteriores
+     * a V6) se vuelve a descargar.
+     */
+    private static boolean isUnchanged(Slide slide, DriveFile driveFile) {
+        if (slide.getDriveMd5() != null && driveFile.md5Checksum() != null) {
+            return slide.getDriveMd5().equals(driveFile.md5Checksum());
+        }
+        return slide.getDriveModifiedTime() != null
+                && slide.getDriveModifiedTime().equals(driveFile.modifiedTime());
+    }
+
+    /** Objetos por presentación (anteriores a V5): no se comparten, se borran. */
+    private void deleteLegacyObjects(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            slideStorage.deleteKeys(SlideBlobService.withWebpVariants(keys));
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron borrar {} slides antiguos tras el re-sync: {}", keys.size(), e.getMessage());
+        }
     }
 
     // ── Helpers privados ──────────────────────────────────────────────────────
 
+    /**
+     * Transfiere los slides y persiste la presentación. Si falla la
+     * transferencia, el pipeline ya purgó los blobs que subió; si falla la
+     * persistencia, se purgan aquí (solo los nuevos y sin referencias: los
+     * reutilizados siguen en uso por otras presentaciones).
+     */
+    private Presentation transferAndPersist(Presentation presentation,
+            List<SlideSource> sources,
+            Map<String, DriveFile> driveFiles,
+            ImportProgress progress) {
+        progress.started(sources.size());
+        List<TransferredSlide> transferred = slideTransferPipeline.transfer(sources, progress::slideCompleted);
+        try {
+            return persistWithSlides(presentation, transferred, driveFiles);
+        } catch (RuntimeException e) {
+            slideTransferPipeline.discard(transferred);
+            throw e;
+        }
+    }
+
+    /**
+     * Persiste la presentación y todos sus slides en una única transacción
+     * corta, cuando las transferencias al storage ya terminaron. Presentation es
+     * nueva ({@code isNew()}), así que se hace persist en cascada: los INSERT de
+     * slides van en batch (hibernate.jdbc.batch_size) sin SELECT previos. En la
+     * misma transacción se suman las referencias de los blobs usados.
+     */
+    private Presentation persistWithSlides(Presentation presentation, List<TransferredSlide> transferred,
+            Map<String, DriveFile> driveFiles) {
+        Map<String, Integer> references = new HashMap<>();
+        for (TransferredSlide transferredSlide : transferred) {
+            Slide slide = buildSlide(presentation, transferredSlide.slideNumber(),
+                    transferredSlide.slideNumber() + ".png", transferredSlide.driveFileId(),
+                    transferredSlide.s3Url());
+            applyRenditions(slide, transferredSlide);
+            applyDriveVersion(slide, driveFiles.get(transferredSlide.driveFileId()));
+            presentation.getSlides().add(slide);
+            references.merge(transferredSlide.contentHash(), 1, Integer::sum);
+        }
+        return transactionTemplate.execute(status -> {
+            Presentation saved = presentationRepository.save(presentation);
+            slideBlobService.acquire(references);
+            return saved;
+        });
+    }
+
+    private static void applyRenditions(Slide slide, TransferredSlide transferred) {
+        slide.setContentHash(transferred.contentHash());
+        slide.setFullKey(transferred.renditionKeys().get(SlideRendition.FULL));
+        slide.setMobileKey(transferred.renditionKeys().get(SlideRendition.MOBILE));
+        slide.setThumbnailKey(transferred.renditionKeys().get(SlideRendition.THUMBNAIL));
+        if (transferred.width() > 0 && transferred.height() > 0) {
+            slide.setWidth(transferred.width());
+            slide.setHeight(transferred.height());
+        }
+    }
+
+    private static void applyDriveVersion(Slide slide, DriveFile driveFile) {
+        if (driveFile != null) {
+            slide.setDriveMd5(driveFile.md5Checksum());
+            slide.setDriveModifiedTime(driveFile.modifiedTime());
+        }
+    }
+
+    private SlideSource driveSource(int slideNumber, DriveFile driveFile, String googleAccessToken) {
+        return new SlideSource(slideNumber,
+                resolveContentType(driveFile.mimeType()),
+                driveFile.id(),
+                () -> SlideContent.of(googleDriveService.downloadImage(driveFile.id(), googleAccessToken)));
+    }
+
+    private static Map<String, DriveFile> byId(List<DriveFile> driveFiles) {
+        Map<String, DriveFile> byId = new HashMap<>();
+        for (DriveFile driveFile : driveFiles) {
+            byId.put(driveFile.id(), driveFile);
+        }
+        return byId;
+    }
+
+    /** El archivo se sube en streaming desde disco, sin pasar por heap. */
+    private SlideContent fileContent(UploadedSlideFile file) {
+        try {
+            return SlideContent.of(file.path(), Files.size(file.path()));
+        } catch (IOException e) {
+            log.error("Error leyendo archivo {}: {}", file.originalFilename(), e.getMessage());
+            return SlideContent.EMPTY;
+        }
+    }
+
     private Presentation buildPresentation(User user,
             String name,
             String description,
@@ -0,0 +1,236 @@
+package com.brixo.slidehub.ui.service;
+
+import com.brixo.slidehub.ui.model.Slide;
+import com.brixo.slidehub.ui.model.SlideAssetRef;
+import com.brixo.slidehub.ui.model.SlideKeys;
+import com.brixo.slidehub.ui.model.SlideRendition;
+import com.brixo.slidehub.ui.repository.PresentationRepository;
+import com.brixo.slidehub.ui.repository.SlideRepository;
+import com.brixo.slidehub.ui.storage.SlideStorage;
+import com.brixo.slidehub.ui.storage.SlideStorage.StoredObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Resuelve los slides que sirve {@code SlideAssetController} desde el
+ * {@link SlideStorage} configurado.
+ *
+ * Las claves de cada slide se leen de la BD (proyección {@link SlideKeys});
+ * desde V5 apuntan a blobs direccionados por contenido, cuyo nombre ya es el
+ * SHA-256 y sirve como ETag sin leer el objeto. En los slides anteriores a V5
+ * el ETag es el SHA-256 del contenido: se calcula una vez por versión del
+ * objeto (ETag de S3 o tamaño + mtime en disco) y se guarda en una caché LRU
+ * acotada, de modo que una revalidación solo cuesta un HeadObject/stat.
+ *
+ * Cada slide se puede pedir en cualquier {@link SlideRendition}; si la
+ * rendition no existe (slide más estrecho que ella o importado antes de V4) se
+ * sirve el original.
+ *
+ * Configuración: slidehub.assets.* (ver application.properties).
+ */
+@Service
+public class SlideAssetService {
+
+    private final SlideStorage slideStorage;
+    private final PresentationRepository presentationRepository;
+    private final SlideRepository slideRepository;
+    private final SlideTranscoder slideTranscoder;
+    private final Map<String, String> contentHashes;
+
+    public SlideAssetService(SlideStorage slideStorage,
+            PresentationRepository presentationRepository,
+            SlideRepository slideRepository,
+            SlideTranscoder slideTranscoder,
+            @Value("${slidehub.assets.etag-cache-size:4096}") int etagCacheSize) {
+        this.slideStorage = slideStorage;
+        this.presentationRepository = presentationRepository;
+        this.slideRepository = slideRepository;
+        this.slideTranscoder = slideTranscoder;
+        this.contentHashes = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > etagCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Slide listo para servir.
+     *
+     * @param rendition rendition servida (FULL si la pedida no existe)
+     * @param etag    SHA-256 del contenido (hex, sin comillas)
+     * @param file    archivo en disco si el backend es local (sendfile); null
+     *                en S3
+     * @param content contenido ya leído al calcular el ETag, o null
+     */
+    public record SlideAsset(String key, SlideRendition rendition, StoredObject object, String etag, Path file,
+            ByteBuffer content) {
+
+        public long length() {
+            return object.length();
+        }
+
+        /**
+         * Por extensión de la clave: WebP transcodificado, renditions escaladas
+         * en JPEG; el original conserva la extensión de su formato.
+         */
+        public String contentType() {
+            return SlideStorage.contentTypeOf(key);
+        }
+    }
+
+    /**
+     * Busca el slide en el storage, en la rendition pedida o, si no existe,
+     * en el original. Con {@code acceptsWebp} se prefiere la versión WebP de
+     * esa rendition si SlideTranscoder ya la generó.
+     *
+     * @return vacío si el slide no existe
+     */
+    public Optional<SlideAsset> find(String presentationId, int slideNumber, SlideRendition rendition,
+            boolean acceptsWebp) throws IOException {
+        Optional<SlideKeys> keys = slideRepository.findKeys(presentationId, slideNumber);
+        if (keys.isEmpty()) {
+            return Optional.empty();
+        }
+        String slideKey = keys.get().fullKey() != null
+                ? keys.get().fullKey()
+                : SlideStorage.slideKey(presentationId, slideNumber);
+        String key = keys.get().key(rendition);
+        if (key == null) {
+            rendition = SlideRendition.FULL;
+            key = slideKey;
+        }
+        Optional<StoredObject> stored = Optional.empty();
+        if (acceptsWebp) {
+            String webpKey = SlideStorage.formatKey(key, SlideTranscoder.WEBP_EXTENSION);
+            stored = slideStorage.stat(webpKey);
+            if (stored.isPresent()) {
+                key = webpKey;
+            }
+        }
+        if (stored.isEmpty()) {
+            stored = slideStorage.stat(key);
+        }
+        if (stored.isEmpty() && rendition.isScaled()) {
+            rendition = SlideRendition.FULL;
+            key = slideKey;
+            stored = slideStorage.stat(key);
+        }
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        StoredObject object = stored.get();
+        Path file = slideStorage.localFile(key).orElse(null);
+
+        if (key.startsWith(SlideStorage.BLOB_PREFIX)) {
+            // "blobs/ab/{sha256}-{subida}-thumb.webp" → "{sha256}-{subida}-thumb.webp"
+            return Optional.of(new SlideAsset(key, rendition, object, key.substring(key.lastIndexOf('/') + 1),
+                    file, null));
+        }
+        String cacheKey = key + "@" + object.version();
+        String etag = contentHashes.get(cacheKey);
+        ByteBuffer content = null;
+        if (etag == null) {
+            content = slideStorage.read(key);
+            etag = sha256(content.duplicate());
+            contentHashes.put(cacheKey, etag);
+        }
+        return Optional.of(new SlideAsset(key, rendition, object, etag, file, content));
+    }
+
+    /**
+     * true si esta respuesta no va a cambiar para la misma URL y el mismo
+     * Accept: se sirvió la rendition pedida (no el original como sustituto) y,
+     * si el cliente acepta WebP, no queda una versión WebP pendiente.
+     */
+    public boolean isFinal(SlideAsset asset, SlideRendition requested, boolean acceptsWebp) {
+        if (asset.rendition() != requested) {
+            return false;
+        }
+        return !acceptsWebp || !slideTranscoder.isEnabled()
+                || SlideTranscoder.WEBP_MIME_TYPE.equals(asset.contentType());
+    }
+
+    /** Contenido del slide; reutiliza el leído al calcular el ETag. */
+    public ByteBuffer content(SlideAsset asset) throws IOException {
+        return asset.content() != null ? asset.content().duplicate() : slideStorage.read(asset.key());
+    }
+
+    /**
+     * URLs versionadas de los slides de una presentación, con un
+     * {@code srcset} de sus renditions para que el navegador elija la que
+     * corresponde a su viewport. El parámetro {@code v} cambia cuando se
+     * reemplaza el slide, así que el cliente puede cachearlas como inmutables.
+     *
+     * @return vacío si la presentación no existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<SlideAssetRef>> manifest(String presentationId) {
+        return presentationRepository.findById(presentationId)
+                .map(presentation -> presentation.getSlides().stream()
+                        .map(SlideAssetService::toRef)
+                        .toList());
+    }
+
+    /** URL del endpoint de assets: /presentation/{id}/slides/{n}. */
+    public static String assetUrl(String presentationId, int slideNumber) {
+        return "/presentation/%s/slides/%d".formatted(presentationId, slideNumber);
+    }
+
+    /**
+     * URL de una rendition (p. ej. para las miniaturas de generate-notes),
+     * versionada con el hash del contenido o, en slides anteriores a V5, con
+     * la fecha de subida. Un re-sync que mueve otra imagen a la misma posición
+     * cambia la versión.
+     */
+    public static String renditionUrl(Slide slide, SlideRendition rendition) {
+        String url = assetUrl(slide.getPresentation().getId(), slide.getNumber());
+        String version = "v=" + (slide.getContentHash() != null
+                ? slide.getContentHash().substring(0, 12)
+                : Long.toString(slide.getUploadedAt().toInstant(ZoneOffset.UTC).toEpochMilli(), 36));
+        return rendition.isScaled()
+                ? url + "?size=" + rendition.param() + "&" + version
+                : url + "?" + version;
+    }
+
+    private static SlideAssetRef toRef(Slide slide) {
+        String srcset = null;
+        if (slide.getWidth() != null) {
+            StringJoiner candidates = new StringJoiner(", ");
+            for (SlideRendition rendition : SlideRendition.values()) {
+                if (rendition.isScaled() && slide.getRenditionKey(rendition) != null) {
+                    candidates.add(renditionUrl(slide, rendition) + " " + rendition.width() + "w");
+                }
+            }
+            candidates.add(renditionUrl(slide, SlideRendition.FULL) + " " + slide.getWidth() + "w");
+            srcset = candidates.toString();
+        }
+        return new SlideAssetRef(slide.getNumber(), renditionUrl(slide, SlideRendition.FULL), srcset,
+                slide.getWidth(), slide.getHeight());
+    }
+
+    private static String sha256(ByteBuffer content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
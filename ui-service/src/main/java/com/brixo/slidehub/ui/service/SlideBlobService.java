@@ -0,0 +1,222 @@
+package com.brixo.slidehub.ui.service;
+
+import com.brixo.slidehub.ui.model.SlideBlob;
+import com.brixo.slidehub.ui.model.SlideRendition;
+import com.brixo.slidehub.ui.repository.SlideBlobRepository;
+import com.brixo.slidehub.ui.storage.SlideContent;
+import com.brixo.slidehub.ui.storage.SlideStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registro de imágenes de slides direccionadas por contenido
+ * ({@link SlideBlob}).
+ *
+ * Ciclo de vida de un blob:
+ * 1. El pipeline de importación calcula el SHA-256 del original; si el hash ya
+ * está registrado lo reserva ({@link #lease}) y no vuelve a escalar ni a subir
+ * nada.
+ * 2. Si es nuevo, sube original y renditions y lo registra con 0 referencias y
+ * una reserva ({@link #register}).
+ * 3. Al persistir la presentación, en la misma transacción, las reservas de
+ * sus slides pasan a referencias ({@link #acquire}).
+ * 4. Un re-sync que reemplaza slides las resta ({@link #release}); los blobs
+ * que quedan sin referencias se borran del storage ({@link #purgeIfUnreferenced}).
+ *
+ * Una importación fallida libera sus reservas ({@link #abandon}) y purga los
+ * blobs que subió. La purga nunca borra un blob reservado por otra
+ * importación: entre la reutilización y el commit de sus slides tiene 0
+ * referencias. Las reservas caducan tras {@code blob-lease} por si la réplica
+ * cae antes de liberarlas.
+ */
+@Service
+public class SlideBlobService {
+
+    private static final Logger log = LoggerFactory.getLogger(SlideBlobService.class);
+
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private final SlideBlobRepository slideBlobRepository;
+    private final SlideStorage slideStorage;
+    private final Duration leaseDuration;
+
+    public SlideBlobService(SlideBlobRepository slideBlobRepository,
+            SlideStorage slideStorage,
+            @Value("${slidehub.import.blob-lease:1h}") Duration leaseDuration) {
+        this.slideBlobRepository = slideBlobRepository;
+        this.slideStorage = slideStorage;
+        this.leaseDuration = leaseDuration;
+    }
+
+    public Optional<SlideBlob> find(String hash) {
+        return slideBlobRepository.findById(hash);
+    }
+
+    /**
+     * Reserva un blob ya registrado para la importación en curso.
+     *
+     * @return vacío si el hash no está registrado (o se acaba de purgar)
+     */
+    public Optional<SlideBlob> lease(String hash) {
+        if (slideBlobRepository.lease(hash, LocalDateTime.now().plus(leaseDuration)) == 0) {
+            return Optional.empty();
+        }
+        return slideBlobRepository.findById(hash);
+    }
+
+    /**
+     * Registra un blob recién subido, sin referencias y con una reserva de la
+     * importación que lo subió.
+     *
+     * @return el blob registrado; si otra importación registró el mismo hash a
+     *         la vez, su fila (reservada), y los objetos de {@code blob}
+     *         sobran
+     */
+    public SlideBlob register(SlideBlob blob) {
+        blob.setPendingRefs(1);
+        blob.setLeasedUntil(LocalDateTime.now().plus(leaseDuration));
+        try {
+            return slideBlobRepository.save(blob);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Blob {} ya registrado por otra importación", blob.getHash());
+        }
+        return lease(blob.getHash())
+                .orElseThrow(() -> new IllegalStateException(
+                        "El blob " + blob.getHash() + " se purgó durante el registro; vuelve a importar"));
+    }
+
+    /**
+     * Convierte las reservas en referencias. Debe llamarse dentro de la
+     * transacción que inserta los slides.
+     *
+     * @param references número de slides nuevos por hash (uno por reserva)
+     * @throws IllegalStateException si un blob se purgó mientras tanto
+     */
+    public void acquire(Map<String, Integer> references) {
+        references.forEach((hash, count) -> {
+            if (slideBlobRepository.convertLeases(hash, count) == 0) {
+                throw new IllegalStateException("El blob " + hash + " ya no existe; vuelve a importar");
+            }
+        });
+    }
+
+    /**
+     * Libera las reservas de una importación que no llegó a persistir sus
+     * slides.
+     *
+     * @param leases número de reservas por hash
+     */
+    public void abandon(Map<String, Integer> leases) {
+        leases.forEach(slideBlobRepository::releaseLeases);
+    }
+
+    /**
+     * Resta referencias. Debe llamarse dentro de la transacción que borra o
+     * reemplaza los slides; después de confirmarla, el llamador purga los
+     * hashes devueltos.
+     *
+     * @param references número de slides eliminados por hash
+     * @return hashes que pueden haberse quedado sin referencias
+     */
+    public List<String> release(Map<String, Integer> references) {
+        List<String> candidates = new ArrayList<>(references.size());
+        references.forEach((hash, count) -> {
+            slideBlobRepository.adjustRefCount(hash, -count);
+            candidates.add(hash);
+        });
+        return candidates;
+    }
+
+    /**
+     * Borra el blob (fila y objetos del storage, WebP incluidos) si nadie lo
+     * referencia ni lo tiene reservado. Los objetos se borran tras la fila:
+     * sus claves son de esta subida (ver {@link SlideStorage#blobKey}), así que
+     * una importación que vuelva a subir el mismo contenido no pierde nada.
+     *
+     * @return true si se borró
+     */
+    public boolean purgeIfUnreferenced(String hash) {
+        Optional<SlideBlob> blob = slideBlobRepository.findById(hash);
+        if (blob.isEmpty() || slideBlobRepository.deleteIfUnreferenced(hash, blob.get().getFullKey(),
+                LocalDateTime.now()) == 0) {
+            return false;
+        }
+        try {
+            slideStorage.deleteKeys(withWebpVariants(keysOf(blob.get())));
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron borrar los objetos del blob {}: {}", hash, e.getMessage());
+        }
+        log.info("Blob {} sin referencias eliminado", hash);
+        return true;
+    }
+
+    /** Clave de cada rendition guardada del blob, original incluido. */
+    public static Map<SlideRendition, String> renditionKeys(SlideBlob blob) {
+        Map<SlideRendition, String> keys = new EnumMap<>(SlideRendition.class);
+        keys.put(SlideRendition.FULL, blob.getFullKey());
+        if (blob.getMobileKey() != null) {
+            keys.put(SlideRendition.MOBILE, blob.getMobileKey());
+        }
+        if (blob.getThumbnailKey() != null) {
+            keys.put(SlideRendition.THUMBNAIL, blob.getThumbnailKey());
+        }
+        return keys;
+    }
+
+    /**
+     * SHA-256 del contenido en hex. Los archivos en disco se leen en streaming
+     * con un buffer fijo, sin cargarlos en heap.
+     */
+    public static String sha256(SlideContent content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+        if (content.bytes() != null) {
+            return HexFormat.of().formatHex(digest.digest(content.bytes()));
+        }
+        try (InputStream in = content.open()) {
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error calculando el hash del slide", e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static List<String> keysOf(SlideBlob blob) {
+        return List.copyOf(renditionKeys(blob).values());
+    }
+
+    /** Las claves más su versión WebP (ver {@link SlideTranscoder}), para borrar en un lote. */
+    public static List<String> withWebpVariants(List<String> keys) {
+        List<String> all = new ArrayList<>(keys.size() * 2);
+        for (String key : keys) {
+            all.add(key);
+            all.add(SlideStorage.formatKey(key, SlideTranscoder.WEBP_EXTENSION));
+        }
+        return all;
+    }
+}
@@ -0,0 +1,191 @@
+package com.brixo.slidehub.ui.service;
+
+import com.brixo.slidehub.ui.model.SlideRendition;
+import com.brixo.slidehub.ui.storage.SlideContent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Genera las renditions escaladas de cada slide al importarlo (ver
+ * {@link SlideRendition}).
+ *
+ * Java puro (ImageIO + Java2D): el escalado se hace en pasos de mitad en
+ * mitad con interpolación bilineal, que da un resultado comparable a bicúbico
+ * sin el aliasing de un único paso grande. Las renditions se codifican como
+ * JPEG sobre fondo blanco; el original se guarda sin tocar.
+ *
+ * Es trabajo de CPU: corre en un pool propio del tamaño de
+ * {@code parallelism} para no ocupar los hilos de descarga/subida del
+ * pipeline. Si la imagen no se puede decodificar (formato sin lector ImageIO,
+ * p. ej. WebP) el slide se importa solo con el original.
+ *
+ * Configuración: slidehub.renditions.* (ver application.properties).
+ */
+@Service
+public class SlideImageProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(SlideImageProcessor.class);
+
+    private final boolean enabled;
+    private final float jpegQuality;
+    private final ExecutorService executor;
+
+    public SlideImageProcessor(@Value("${slidehub.renditions.enabled:true}") boolean enabled,
+            @Value("${slidehub.renditions.jpeg-quality:0.82}") float jpegQuality,
+            @Value("${slidehub.renditions.parallelism:0}") int parallelism) {
+        this.enabled = enabled;
+        this.jpegQuality = jpegQuality;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "slide-render-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Decodificar desde memoria o disco: sin archivos de caché temporales de ImageIO
+        ImageIO.setUseCache(false);
+    }
+
+    /** Rendition ya codificada. */
+    public record Rendition(SlideRendition kind, int width, int height, SlideContent content) {
+    }
+
+    /**
+     * Resultado del procesado: dimensiones del original (0 si no se pudo
+     * decodificar) y renditions generadas, de menor a mayor.
+     */
+    public record RenderedSlide(int width, int height, List<Rendition> renditions) {
+
+        public static final RenderedSlide NONE = new RenderedSlide(0, 0, List.of());
+
+        public boolean hasDimensions() {
+            return width > 0 && height > 0;
+        }
+    }
+
+    /** Procesa el slide en el pool de renderizado. */
+    public CompletableFuture<RenderedSlide> renderAsync(SlideContent original) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(RenderedSlide.NONE);
+        }
+        return CompletableFuture.supplyAsync(() -> render(original), executor);
+    }
+
+    /**
+     * Decodifica el original y genera las renditions más estrechas que él. Un
+     * slide de 800 px no tiene rendition MOBILE (960): se sirve el original.
+     */
+    public RenderedSlide render(SlideContent original) {
+        BufferedImage source;
+        try (InputStream in = original.open()) {
+            source = ImageIO.read(in);
+        } catch (IOException e) {
+            log.warn("No se pudo decodificar el slide para generar renditions: {}", e.getMessage());
+            return RenderedSlide.NONE;
+        }
+        if (source == null) {
+            log.warn("Formato de imagen sin lector ImageIO: el slide se guarda sin renditions");
+            return RenderedSlide.NONE;
+        }
+
+        List<Rendition> renditions = new ArrayList<>();
+        for (SlideRendition kind : SlideRendition.values()) {
+            if (!kind.isScaled() || kind.width() >= source.getWidth()) {
+                continue;
+            }
+            int width = kind.width();
+            int height = Math.max(1, Math.round(source.getHeight() * (float) width / source.getWidth()));
+            BufferedImage scaled = scale(source, width, height);
+            renditions.add(new Rendition(kind, width, height, SlideContent.of(encodeJpeg(scaled))));
+        }
+        return new RenderedSlide(source.getWidth(), source.getHeight(), List.copyOf(renditions));
+    }
+
+    // ── Helpers privados ──────────────────────────────────────────────────────
+
+    /**
+     * Reduce a la mitad mientras el resultado siga por encima del doble del
+     * destino y termina con un último paso al tamaño exacto. Aplana la
+     * transparencia sobre blanco (JPEG no tiene canal alfa).
+     */
+    private static BufferedImage scale(BufferedImage source, int targetWidth, int targetHeight) {
+        BufferedImage current = flatten(source);
+        int width = current.getWidth();
+        int height = current.getHeight();
+        while (width / 2 >= targetWidth && height / 2 >= targetHeight) {
+            width /= 2;
+            height /= 2;
+            current = draw(current, width, height);
+        }
+        if (width != targetWidth || height != targetHeight) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    private static BufferedImage flatten(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        return draw(source, source.getWidth(), source.getHeight());
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error codificando rendition JPEG", e);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
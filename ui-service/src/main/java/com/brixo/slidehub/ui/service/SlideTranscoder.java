@@ -0,0 +1,209 @@
+package com.brixo.slidehub.ui.service;
+
+import com.brixo.slidehub.ui.model.Presentation;
+import com.brixo.slidehub.ui.model.Slide;
+import com.brixo.slidehub.ui.model.SlideRendition;
+import com.brixo.slidehub.ui.storage.SlideStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transcodifica a WebP los slides ya importados, en segundo plano.
+ *
+ * Al terminar un job de importación se encolan todas las renditions de la
+ * presentación (original, mobile, thumbnail). Cada una se guarda junto a la
+ * de origen con extensión {@code .webp} (ver {@link SlideStorage#formatKey}),
+ * solo si ocupa menos; el original nunca se toca. SlideAssetController sirve
+ * la versión WebP a los navegadores que la aceptan ({@code Accept}).
+ *
+ * Mientras un slide no está transcodificado se sirve el formato de origen,
+ * así que la importación no espera a este paso y un fallo aquí no afecta a la
+ * presentación.
+ *
+ * El encoder es el plugin ImageIO de WebP (webp-imageio, libwebp nativa). Si
+ * no hay writer de image/webp en la plataforma, el servicio queda
+ * desactivado. AVIF no tiene encoder ImageIO estable: no se genera.
+ *
+ * Configuración: slidehub.transcode.* (ver application.properties).
+ */
+@Service
+public class SlideTranscoder {
+
+    private static final Logger log = LoggerFactory.getLogger(SlideTranscoder.class);
+
+    public static final String WEBP_MIME_TYPE = "image/webp";
+    public static final String WEBP_EXTENSION = "webp";
+
+    private final SlideStorage slideStorage;
+    private final boolean enabled;
+    private final float quality;
+    private final ThreadPoolExecutor workers;
+
+    public SlideTranscoder(SlideStorage slideStorage,
+            @Value("${slidehub.transcode.enabled:true}") boolean enabled,
+            @Value("${slidehub.transcode.quality:0.8}") float quality,
+            @Value("${slidehub.transcode.workers:1}") int workerCount,
+            @Value("${slidehub.transcode.queue-capacity:1000}") int queueCapacity) {
+        this.slideStorage = slideStorage;
+        this.enabled = enabled && isWebpSupported();
+        this.quality = quality;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slide-transcode-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        if (enabled && !this.enabled) {
+            log.warn("No hay encoder ImageIO de {}: los slides se sirven solo en su formato original",
+                    WEBP_MIME_TYPE);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** true si la plataforma tiene un writer ImageIO de WebP. */
+    public static boolean isWebpSupported() {
+        return ImageIO.getImageWritersByMIMEType(WEBP_MIME_TYPE).hasNext();
+    }
+
+    /**
+     * Encola la transcodificación de todas las renditions de la presentación.
+     * Si la cola está llena se descartan: esos slides se siguen sirviendo en
+     * su formato original.
+     */
+    public void submit(Presentation presentation) {
+        if (!enabled) {
+            return;
+        }
+        // Slides con la misma imagen comparten claves (blob deduplicado)
+        Set<String> keys = new LinkedHashSet<>();
+        for (Slide slide : presentation.getSlides()) {
+            for (SlideRendition rendition : SlideRendition.values()) {
+                String key = slide.getRenditionKey(rendition);
+                if (key != null) {
+                    keys.add(key);
+                }
+            }
+        }
+        int queued = 0;
+        for (String key : keys) {
+            try {
+                workers.execute(() -> transcode(key));
+                queued++;
+            } catch (RejectedExecutionException e) {
+                log.warn("Cola de transcodificación llena: {} de {} imágenes de {} quedan sin WebP",
+                        keys.size() - queued, keys.size(), presentation.getId());
+                break;
+            }
+        }
+        log.info("Transcodificación a WebP encolada: {} imágenes de {}", queued, presentation.getId());
+    }
+
+    /**
+     * Transcodifica un objeto del storage a WebP. No hace nada si ya es WebP o
+     * si la versión WebP ya existe.
+     *
+     * @return true si se guardó la versión WebP
+     */
+    boolean transcode(String key) {
+        String webpKey = SlideStorage.formatKey(key, WEBP_EXTENSION);
+        try {
+            // Blob compartido con otra presentación ya transcodificada
+            if (webpKey.equals(key) || slideStorage.stat(webpKey).isPresent()) {
+                return false;
+            }
+            ByteBuffer source = slideStorage.read(key);
+            int sourceLength = source.remaining();
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(toArray(source)));
+            if (image == null) {
+                log.debug("{} no es una imagen decodificable: sin WebP", key);
+                return false;
+            }
+            byte[] webp = encode(image, WEBP_MIME_TYPE, quality);
+            if (webp.length >= sourceLength) {
+                log.debug("WebP de {} no es más pequeño ({} ≥ {} bytes): se descarta", key, webp.length,
+                        sourceLength);
+                return false;
+            }
+            slideStorage.store(webpKey, new ByteArrayInputStream(webp),
+                    webp.length, WEBP_MIME_TYPE);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo transcodificar {} a WebP: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Codifica con el writer ImageIO del MIME type indicado, en modo con
+     * pérdida si el writer lo admite (usado también por el benchmark).
+     */
+    static byte[] encode(BufferedImage image, String mimeType, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(mimeType);
+        if (!writers.hasNext()) {
+            throw new IOException("Sin encoder ImageIO para " + mimeType);
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] types = param.getCompressionTypes();
+                if (types != null && types.length > 0) {
+                    // WebP: "Lossy" / "Lossless"
+                    param.setCompressionType(Arrays.asList(types).contains("Lossy") ? "Lossy" : types[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,404 @@
+package com.brixo.slidehub.ui.service;
+
+import com.brixo.slidehub.ui.model.SlideBlob;
+import com.brixo.slidehub.ui.model.SlideRendition;
+import com.brixo.slidehub.ui.service.SlideImageProcessor.RenderedSlide;
+import com.brixo.slidehub.ui.service.SlideImageProcessor.Rendition;
+import com.brixo.slidehub.ui.storage.SlideContent;
+import com.brixo.slidehub.ui.storage.SlideStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Pipeline de transferencia de slides hacia el {@link SlideStorage}
+ * configurado (S3 o disco local) con concurrencia acotada.
+ *
+ * Tres etapas con pools propios que se solapan: mientras un slide se sube a
+ * el storage, los siguientes ya se están descargando (de Drive o del multipart)
+ * o escalando ({@link SlideImageProcessor}, renditions thumbnail/mobile).
+ * Un semáforo limita los slides en vuelo (descargados y aún sin subir), de
+ * modo que la memoria usada no depende del tamaño de la presentación. Los
+ * archivos ya en disco (uploads manuales) se suben en streaming.
+ *
+ * Deduplicación: al descargar se calcula el SHA-256 del original. Si ya hay un
+ * {@link com.brixo.slidehub.ui.model.SlideBlob} con ese hash (re-importación
+ * de la misma carpeta, portadas compartidas) el slide lo reserva y lo
+ * reutiliza sin escalar ni subir nada; si no, se sube a {@code blobs/…} y se
+ * registra sin referencias. Cada slide transferido deja una reserva que el
+ * llamador convierte en referencia al persistir los slides, o libera con
+ * {@link #discard} (SlideBlobService).
+ *
+ * Con slidehub.upload.mode=async la etapa de subida no usa el pool: cada
+ * subida es un future del S3TransferManager y la concurrencia la acota
+ * {@code max-in-flight}.
+ *
+ * El resultado conserva el orden de entrada independientemente del orden en
+ * que terminen las transferencias. No abre transacciones: el llamador
+ * persiste los slides al final, sin retener una conexión a la BD durante las
+ * transferencias.
+ *
+ * Configuración: slidehub.import.* (ver application.properties).
+ */
+@Service
+public class SlideTransferPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(SlideTransferPipeline.class);
+
+    /** Las renditions escaladas se guardan siempre en JPEG. */
+    private static final String RENDITION_CONTENT_TYPE = "image/jpeg";
+
+    private final SlideStorage slideStorage;
+    private final SlideImageProcessor slideImageProcessor;
+    private final SlideBlobService slideBlobService;
+    private final ExecutorService downloadExecutor;
+    private final ExecutorService uploadExecutor;
+    private final int maxInFlight;
+
+    public SlideTransferPipeline(SlideStorage slideStorage,
+            SlideImageProcessor slideImageProcessor,
+            SlideBlobService slideBlobService,
+            @Value("${slidehub.import.download-parallelism:4}") int downloadParallelism,
+            @Value("${slidehub.import.upload-parallelism:4}") int uploadParallelism,
+            @Value("${slidehub.import.max-in-flight:0}") int maxInFlight) {
+        this.slideStorage = slideStorage;
+        this.slideImageProcessor = slideImageProcessor;
+        this.slideBlobService = slideBlobService;
+        this.downloadExecutor = Executors.newFixedThreadPool(downloadParallelism, namedThreads("slide-download"));
+        this.uploadExecutor = Executors.newFixedThreadPool(uploadParallelism, namedThreads("slide-upload"));
+        // Por defecto: lo justo para mantener ocupadas ambas etapas a la vez
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : downloadParallelism + uploadParallelism;
+    }
+
+    /**
+     * Slide a transferir.
+     *
+     * @param slideNumber número de slide (1-based)
+     * @param contentType MIME type del objeto
+     * @param driveFileId ID del archivo en Drive (null en uploads manuales)
+     * @param content     obtiene el contenido de la imagen (etapa de descarga);
+     *                    un contenido vacío indica que el slide se omite
+     */
+    public record SlideSource(int slideNumber,
+            String contentType,
+            String driveFileId,
+            Supplier<SlideContent> content) {
+    }
+
+    /**
+     * Slide ya guardado en el storage.
+     *
+     * @param contentHash    SHA-256 del original (blob que lo contiene)
+     * @param s3Url          URL pública del original
+     * @param width          ancho del original en píxeles (0 si no se pudo
+     *                       decodificar)
+     * @param height         alto del original en píxeles (0 si no se pudo
+     *                       decodificar)
+     * @param renditionKeys  claves de todas las renditions guardadas, incluida
+     *                       FULL (el original)
+     * @param uploaded       true si esta transferencia subió el blob; false si
+     *                       ya existía
+     */
+    public record TransferredSlide(int slideNumber,
+            String driveFileId,
+            String contentHash,
+            String s3Url,
+            int width,
+            int height,
+            Map<SlideRendition, String> renditionKeys,
+            boolean uploaded) {
+    }
+
+    /** Slide descargado, con el hash de su contenido. */
+    private record DownloadedSlide(SlideContent content, String hash) {
+    }
+
+    /** Slide nuevo descargado y procesado, pendiente de subir. */
+    private record ProcessedSlide(DownloadedSlide original, RenderedSlide rendered) {
+    }
+
+    /**
+     * Descarga y sube todos los slides y devuelve los transferidos en el mismo
+     * orden que {@code sources}. Los slides con contenido vacío se omiten con un
+     * warning (mismo comportamiento que la importación secuencial).
+     *
+     * @throws RuntimeException el primer fallo de subida, cuando ya terminaron
+     *                          las transferencias en curso y se purgaron los
+     *                          blobs que subieron; los slides pendientes ya no
+     *                          se encolan
+     */
+    public List<TransferredSlide> transfer(List<SlideSource> sources) {
+        return transfer(sources, completed -> {
+        });
+    }
+
+    /**
+     * Como {@link #transfer(List)}, notificando a {@code progress} el número de
+     * slides terminados (subidos, reutilizados u omitidos) cada vez que uno
+     * termina. Se invoca desde los hilos de subida.
+     */
+    public List<TransferredSlide> transfer(List<SlideSource> sources, IntConsumer progress) {
+        AtomicInteger completed = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<CompletableFuture<TransferredSlide>> transfers = new ArrayList<>(sources.size());
+
+        for (SlideSource source : sources) {
+            if (failed.get()) {
+                break;
+            }
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<TransferredSlide> transfer = CompletableFuture
+                    .supplyAsync(() -> download(source), downloadExecutor)
+                    .thenCompose(downloaded -> reuseOrUpload(source, downloaded))
+                    .whenComplete((slide, error) -> {
+                        inFlight.release();
+                        if (error != null) {
+                            failed.set(true);
+                        } else {
+                            progress.accept(completed.incrementAndGet());
+                        }
+                    });
+            transfers.add(transfer);
+        }
+
+        List<TransferredSlide> transferred = new ArrayList<>(transfers.size());
+        try {
+            for (CompletableFuture<TransferredSlide> transfer : transfers) {
+                TransferredSlide slide = transfer.join();
+                if (slide != null) {
+                    transferred.add(slide);
+                }
+            }
+        } catch (CompletionException e) {
+            // Esperar a las transferencias ya lanzadas y purgar los blobs que subieron
+            CompletableFuture.allOf(transfers.toArray(CompletableFuture[]::new))
+                    .exceptionally(error -> null)
+                    .join();
+            discard(transfers.stream()
+                    .filter(transfer -> !transfer.isCompletedExceptionally())
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .toList());
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return transferred;
+    }
+
+    /**
+     * Libera las reservas de los slides transferidos y purga los blobs que
+     * subió esta transferencia si nadie más los usa (importación fallida o
+     * presentación que no se llegó a persistir). Los blobs reutilizados solo
+     * pierden la reserva.
+     */
+    public void discard(List<TransferredSlide> transferred) {
+        Map<String, Integer> leases = new LinkedHashMap<>();
+        transferred.forEach(slide -> leases.merge(slide.contentHash(), 1, Integer::sum));
+        try {
+            slideBlobService.abandon(leases);
+        } catch (RuntimeException e) {
+            // Las reservas caducan solas; la purga espera a que lo hagan
+            log.warn("No se pudieron liberar las reservas de {} blobs: {}", leases.size(), e.getMessage());
+            return;
+        }
+        transferred.stream()
+                .filter(TransferredSlide::uploaded)
+                .map(TransferredSlide::contentHash)
+                .distinct()
+                .forEach(hash -> {
+                    try {
+                        slideBlobService.purgeIfUnreferenced(hash);
+                    } catch (RuntimeException e) {
+                        log.warn("No se pudo purgar el blob {}: {}", hash, e.getMessage());
+                    }
+                });
+    }
+
+    /** Descarga el slide y calcula su hash; null si el slide se omite. */
+    private DownloadedSlide download(SlideSource source) {
+        SlideContent content = source.content().get();
+        if (isEmpty(source, content)) {
+            return null;
+        }
+        return new DownloadedSlide(content, SlideBlobService.sha256(content));
+    }
+
+    /**
+     * Reserva y reutiliza el blob si el hash ya está registrado; si no, genera
+     * las renditions y lo sube.
+     */
+    private CompletableFuture<TransferredSlide> reuseOrUpload(SlideSource source, DownloadedSlide downloaded) {
+        if (downloaded == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Optional<SlideBlob> known = slideBlobService.lease(downloaded.hash());
+        if (known.isPresent()) {
+            log.debug("Slide {} ya almacenado como blob {}", source.slideNumber(), downloaded.hash());
+            return CompletableFuture.completedFuture(transferred(source, known.get(), false));
+        }
+        CompletableFuture<ProcessedSlide> processed = slideImageProcessor.renderAsync(downloaded.content())
+                .thenApply(rendered -> new ProcessedSlide(downloaded, rendered));
+        return slideStorage.isAsync()
+                ? processed.thenCompose(slide -> uploadAsync(source, slide))
+                        .thenApplyAsync(blob -> register(source, blob), uploadExecutor)
+                : processed.thenApplyAsync(slide -> register(source, upload(source, slide)), uploadExecutor);
+    }
+
+    private SlideBlob upload(SlideSource source, ProcessedSlide slide) {
+        String blobKey = SlideStorage.blobKey(slide.original().hash(), newUploadId(), source.contentType());
+        List<String> stored = new ArrayList<>();
+        try {
+            String s3Url = slideStorage.store(blobKey, slide.original().content(), source.contentType());
+            stored.add(blobKey);
+            for (Rendition rendition : slide.rendered().renditions()) {
+                String key = SlideStorage.renditionKey(blobKey, rendition.kind());
+                slideStorage.store(key, rendition.content(), RENDITION_CONTENT_TYPE);
+                stored.add(key);
+            }
+            return blob(source, slide, blobKey, s3Url);
+        } catch (RuntimeException e) {
+            deleteQuietly(stored);
+            throw e;
+        }
+    }
+
+    /** Modo async: la subida no ocupa un hilo del pool de subida. */
+    private CompletableFuture<SlideBlob> uploadAsync(SlideSource source, ProcessedSlide slide) {
+        String blobKey = SlideStorage.blobKey(slide.original().hash(), newUploadId(), source.contentType());
+        Map<String, CompletableFuture<String>> uploads = new LinkedHashMap<>();
+        uploads.put(blobKey, slideStorage.storeAsync(blobKey, slide.original().content(), source.contentType()));
+        for (Rendition rendition : slide.rendered().renditions()) {
+            String key = SlideStorage.renditionKey(blobKey, rendition.kind());
+            uploads.put(key, slideStorage.storeAsync(key, rendition.content(), RENDITION_CONTENT_TYPE));
+        }
+        return CompletableFuture.allOf(uploads.values().toArray(CompletableFuture[]::new))
+                .whenComplete((done, error) -> {
+                    if (error != null) {
+                        deleteQuietly(uploads.entrySet().stream()
+                                .filter(upload -> !upload.getValue().isCompletedExceptionally())
+                                .map(Map.Entry::getKey)
+                                .toList());
+                    }
+                })
+                .thenApply(done -> blob(source, slide, blobKey, uploads.get(blobKey).join()));
+    }
+
+    /**
+     * Registra el blob recién subido (sin referencias todavía). Si otra
+     * importación registró el mismo hash antes, se usa el suyo y se borran los
+     * objetos de esta subida: nadie más los conoce.
+     */
+    private TransferredSlide register(SlideSource source, SlideBlob blob) {
+        SlideBlob registered;
+        try {
+            registered = slideBlobService.register(blob);
+        } catch (RuntimeException e) {
+            deleteQuietly(keysOf(blob));
+            throw e;
+        }
+        if (!registered.getFullKey().equals(blob.getFullKey())) {
+            deleteQuietly(keysOf(blob));
+            return transferred(source, registered, false);
+        }
+        return transferred(source, blob, true);
+    }
+
+    /** Distingue las subidas del mismo contenido (ver {@link SlideStorage#blobKey}). */
+    private static String newUploadId() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static List<String> keysOf(SlideBlob blob) {
+        return List.copyOf(SlideBlobService.renditionKeys(blob).values());
+    }
+
+    private static SlideBlob blob(SlideSource source, ProcessedSlide slide, String blobKey, String s3Url) {
+        Map<SlideRendition, String> keys = new EnumMap<>(SlideRendition.class);
+        for (Rendition rendition : slide.rendered().renditions()) {
+            keys.put(rendition.kind(), SlideStorage.renditionKey(blobKey, rendition.kind()));
+        }
+        SlideBlob blob = new SlideBlob();
+        blob.setHash(slide.original().hash());
+        blob.setContentType(source.contentType());
+        blob.setContentLength(slide.original().content().length());
+        blob.setFullKey(blobKey);
+        blob.setMobileKey(keys.get(SlideRendition.MOBILE));
+        blob.setThumbnailKey(keys.get(SlideRendition.THUMBNAIL));
+        if (slide.rendered().hasDimensions()) {
+            blob.setWidth(slide.rendered().width());
+            blob.setHeight(slide.rendered().height());
+        }
+        blob.setUrl(s3Url);
+        blob.setCreatedAt(LocalDateTime.now());
+        return blob;
+    }
+
+    private static TransferredSlide transferred(SlideSource source, SlideBlob blob, boolean uploaded) {
+        return new TransferredSlide(source.slideNumber(), source.driveFileId(), blob.getHash(), blob.getUrl(),
+                blob.getWidth() != null ? blob.getWidth() : 0,
+                blob.getHeight() != null ? blob.getHeight() : 0,
+                SlideBlobService.renditionKeys(blob), uploaded);
+    }
+
+    /**
+     * Borra los objetos de una subida fallida o descartada. Sus claves son
+     * únicas por subida: ningún blob registrado las comparte.
+     */
+    private void deleteQuietly(List<String> keys) {
+        try {
+            slideStorage.deleteKeys(keys);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron borrar {} objetos de una subida descartada: {}", keys.size(),
+                    e.getMessage());
+        }
+    }
+
+    private static boolean isEmpty(SlideSource source, SlideContent content) {
+        if (content != null && content.length() > 0) {
+            return false;
+        }
+        log.warn("Imagen vacía o error al descargar el slide {} ({})", source.slideNumber(),
+                source.driveFileId() != null ? source.driveFileId() : "upload");
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        downloadExecutor.shutdownNow();
+        uploadExecutor.shutdownNow();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -26,16 +26,19 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     @Value("${slidehub.base-url:http://localhost:8082}")
     private String baseUrl;
 
     public UserService(UserRepository userRepository,
             PasswordEncoder passwordEncoder,
-            EmailService emailService) {
+            EmailService emailService,
+            AuthenticatedUserCache authenticatedUserCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     /**
@@ -85,6 +88,7 @@ public class UserService {
                     user.setEmailVerified(true);
                     user.setEmailVerificationToken(null);
                     log.info("Email verificado para usuario: {}", user.getUsername());
+                    authenticatedUserCache.evict(user.getEmail());
                     return userRepository.save(user);
                 });
     }
@@ -0,0 +1,217 @@
+package com.brixo.slidehub.ui.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Backend de {@link SlideStorage} sobre disco local.
+ *
+ * Para desarrollo sin red, benchmarks de importación sin S3 y despliegues
+ * on-prem que sirven los slides desde SSD. No usar en Render: su disco es
+ * efímero.
+ *
+ * - Escritura con {@link FileChannel#transferFrom}/{@link FileChannel#transferTo}
+ * a un archivo temporal que se mueve atómicamente a su clave: un lector nunca
+ * ve un slide a medio escribir. Si el origen ya es un archivo (uploads
+ * manuales), la copia la hace el kernel sin pasar por heap.
+ * - Lectura con memory-mapping: el contenido no se copia al heap.
+ *
+ * Los objetos se publican bajo {@code public-path} (ver LocalStorageConfig).
+ *
+ * Configuración: slidehub.storage.local.* (ver application.properties).
+ */
+@Service
+@ConditionalOnProperty(name = "slidehub.storage.backend", havingValue = "local")
+public class LocalSlideStorage implements SlideStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalSlideStorage.class);
+
+    private final Path root;
+    private final String publicPath;
+
+    public LocalSlideStorage(@Value("${slidehub.storage.local.root:./data/slides}") String root,
+            @Value("${slidehub.storage.local.public-path:/storage}") String publicPath) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.publicPath = publicPath.endsWith("/") ? publicPath.substring(0, publicPath.length() - 1) : publicPath;
+        try {
+            Files.createDirectories(this.root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de slides " + this.root, e);
+        }
+        log.info("Slides en disco local: {}", this.root);
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    @Override
+    public String store(String key, InputStream content, long contentLength, String contentType) {
+        Path target = resolve(key);
+        try {
+            Path temp = tempFileFor(target);
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE);
+                    ReadableByteChannel in = Channels.newChannel(content)) {
+                long written = 0;
+                while (written < contentLength) {
+                    long transferred = out.transferFrom(in, written, contentLength - written);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    written += transferred;
+                }
+                if (written != contentLength) {
+                    throw new IOException("Contenido truncado: %d de %d bytes".formatted(written, contentLength));
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            publish(temp, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error guardando " + key, e);
+        }
+        log.info("Archivo guardado en disco: {} ({}, {} bytes)", key, contentType, contentLength);
+        return publicUrl(key);
+    }
+
+    /** Si el contenido ya está en disco, copia canal a canal (copy_file_range/sendfile). */
+    @Override
+    public String store(String key, SlideContent content, String contentType) {
+        if (content.file() == null) {
+            return SlideStorage.super.store(key, content, contentType);
+        }
+        Path target = resolve(key);
+        try {
+            Path temp = tempFileFor(target);
+            try (FileChannel in = FileChannel.open(content.file(), StandardOpenOption.READ);
+                    FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long size = in.size();
+                long position = 0;
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            publish(temp, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error guardando " + key, e);
+        }
+        log.info("Archivo guardado en disco: {} ({}, {} bytes)", key, contentType, content.length());
+        return publicUrl(key);
+    }
+
+    /**
+     * Mapea el archivo en memoria (solo lectura). El buffer sigue siendo válido
+     * tras cerrar el canal.
+     */
+    @Override
+    public ByteBuffer read(String key) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        // publish() reemplaza el archivo con un move: cambian mtime y, casi siempre, el tamaño
+        String version = "%d-%d".formatted(attributes.size(), attributes.lastModifiedTime().toMillis());
+        return Optional.of(new StoredObject(attributes.size(), attributes.lastModifiedTime().toInstant(), version));
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error eliminando " + key, e);
+        }
+        log.info("Archivo eliminado del disco: {}", key);
+    }
+
+    @Override
+    public int deleteAll(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Se requiere un prefijo para borrar en lote");
+        }
+        // "slides/{id}/" es un directorio; un prefijo parcial se busca en su directorio padre
+        Path base = prefix.endsWith("/") ? resolve(prefix) : resolve(prefix).getParent();
+        if (!Files.isDirectory(base)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (Stream<Path> walk = Files.walk(base)) {
+            List<Path> files = walk.filter(Files::isRegularFile)
+                    .filter(path -> keyOf(path).startsWith(prefix))
+                    .toList();
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+                deleted++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error eliminando " + prefix, e);
+        }
+        log.info("Eliminados {} archivos del disco bajo {}", deleted, prefix);
+        return deleted;
+    }
+
+    // ── Helpers privados ──────────────────────────────────────────────────────
+
+    /** Resuelve la clave dentro de {@code root}, rechazando rutas con "..". */
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Clave fuera del almacenamiento: " + key);
+        }
+        return path;
+    }
+
+    private String keyOf(Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    private static Path tempFileFor(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        return Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+    }
+
+    private static void publish(Path temp, Path target) throws IOException {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private String publicUrl(String key) {
+        return publicPath + "/" + key;
+    }
+}
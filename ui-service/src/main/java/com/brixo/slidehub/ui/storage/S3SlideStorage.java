@@ -0,0 +1,321 @@
+package com.brixo.slidehub.ui.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.UploadFileRequest;
+import software.amazon.awssdk.transfer.s3.model.UploadRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Backend S3 de {@link SlideStorage} (CLAUDE.md §9.5.2).
+ *
+ * Los archivos nunca se guardan en el filesystem local de Render (es efímero).
+ * Todo va a S3 y se devuelve la URL pública del objeto.
+ *
+ * Modos (slidehub.upload.mode): {@code sync} usa S3Client, un objeto por
+ * hilo; {@code async} sube con S3TransferManager sobre S3AsyncClient
+ * (multipart paralelo, sin bloquear hilos por subida).
+ */
+@Service
+@ConditionalOnProperty(name = "slidehub.storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3SlideStorage implements SlideStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(S3SlideStorage.class);
+
+    /** Máximo de claves por DeleteObjects que admite S3. */
+    static final int DELETE_BATCH_SIZE = 1000;
+
+    private final S3Client s3;
+
+    @Value("${aws.s3.bucket}")
+    private String bucket;
+
+    @Value("${aws.s3.region}")
+    private String region;
+
+    /** Por encima de este tamaño se usa multipart upload. */
+    @Value("${slidehub.upload.multipart-threshold:16MB}")
+    private DataSize multipartThreshold;
+
+    /** Tamaño de cada parte (mínimo de S3: 5 MB); es el único buffer en heap. */
+    @Value("${slidehub.upload.part-size:8MB}")
+    private DataSize partSize;
+
+    /** Solo con slidehub.upload.mode=async (ver S3Config). */
+    private final S3TransferManager transferManager;
+
+    public S3SlideStorage(S3Client s3, Optional<S3TransferManager> transferManager) {
+        this.s3 = s3;
+        this.transferManager = transferManager.orElse(null);
+    }
+
+    /** true si las subidas van por el S3TransferManager asíncrono. */
+    @Override
+    public boolean isAsync() {
+        return transferManager != null;
+    }
+
+    /**
+     * Sube un archivo a S3 leyéndolo en streaming y devuelve su URL pública.
+     *
+     * Hasta {@code multipart-threshold} se envía con un único PUT que lee
+     * directamente de {@code content}; por encima, con multipart upload parte
+     * a parte. En ambos casos la memoria usada está acotada por
+     * {@code part-size}, no por el tamaño del archivo.
+     *
+     * @param key           clave S3 (e.g. "slides/pres-uuid/1.png")
+     * @param content       contenido; el llamador lo cierra
+     * @param contentLength tamaño exacto en bytes
+     * @param contentType   MIME type (e.g. "image/png")
+     * @return URL pública del objeto en S3
+     */
+    @Override
+    public String store(String key, InputStream content, long contentLength, String contentType) {
+        if (contentLength <= multipartThreshold.toBytes()) {
+            s3.putObject(
+                    PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .contentType(contentType)
+                            .build(),
+                    RequestBody.fromInputStream(content, contentLength));
+        } else {
+            uploadMultipart(key, content, contentType);
+        }
+        log.info("Archivo subido a S3: {} ({}, {} bytes)", key, contentType, contentLength);
+        return publicUrl(key);
+    }
+
+    /**
+     * Sube un slide con el S3TransferManager (modo async) sin bloquear el hilo
+     * llamador. Los archivos en disco se suben en partes paralelas leídas del
+     * propio archivo; el contenido en memoria, en un único PUT.
+     *
+     * Sin modo async, sube de forma síncrona en el hilo llamador.
+     *
+     * @return future con la URL pública del objeto
+     */
+    @Override
+    public CompletableFuture<String> storeAsync(String key, SlideContent content, String contentType) {
+        if (transferManager == null) {
+            return SlideStorage.super.storeAsync(key, content, contentType);
+        }
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build();
+        CompletableFuture<?> completion = content.file() != null
+                ? transferManager.uploadFile(UploadFileRequest.builder()
+                        .putObjectRequest(request)
+                        .source(content.file())
+                        .build()).completionFuture()
+                : transferManager.upload(UploadRequest.builder()
+                        .putObjectRequest(request)
+                        .requestBody(AsyncRequestBody.fromBytes(content.bytes()))
+                        .build()).completionFuture();
+        return completion.thenApply(done -> {
+            log.info("Archivo subido a S3 (async): {} ({}, {} bytes)", key, contentType, content.length());
+            return publicUrl(key);
+        });
+    }
+
+    private void uploadMultipart(String key, InputStream content, String contentType) {
+        String uploadId = s3.createMultipartUpload(
+                CreateMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .build())
+                .uploadId();
+        try {
+            // Un solo buffer por subida, reutilizado en cada parte
+            byte[] buffer = new byte[(int) partSize.toBytes()];
+            List<CompletedPart> parts = new ArrayList<>();
+            int read;
+            while ((read = content.readNBytes(buffer, 0, buffer.length)) > 0) {
+                int partNumber = parts.size() + 1;
+                UploadPartResponse response = s3.uploadPart(
+                        UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) read)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read));
+                parts.add(CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(response.eTag())
+                        .build());
+            }
+            s3.completeMultipartUpload(
+                    CompleteMultipartUploadRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                            .build());
+        } catch (IOException | RuntimeException e) {
+            // Sin abort, S3 sigue cobrando las partes subidas
+            s3.abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .build());
+            if (e instanceof IOException io) {
+                throw new UncheckedIOException("Error leyendo el archivo para " + key, io);
+            }
+            throw (RuntimeException) e;
+        }
+    }
+
+    /**
+     * Elimina un archivo de S3.
+     *
+     * @param key clave S3 del archivo a eliminar
+     */
+    @Override
+    public void delete(String key) {
+        s3.deleteObject(
+                DeleteObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .build());
+        log.info("Archivo eliminado de S3: {}", key);
+    }
+
+    /**
+     * Elimina todos los objetos bajo un prefijo (p. ej. todos los slides de una
+     * presentación) con DeleteObjects en lotes de {@value #DELETE_BATCH_SIZE}
+     * claves: una presentación de 60 slides son 2 llamadas (list + delete) en
+     * vez de 60.
+     *
+     * @param prefix prefijo de las claves, e.g. "slides/pres-uuid/"
+     * @return número de objetos eliminados
+     */
+    @Override
+    public int deleteAll(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Se requiere un prefijo para borrar en lote");
+        }
+        SdkIterable<S3Object> objects = s3.listObjectsV2Paginator(ListObjectsV2Request.builder()
+                .bucket(bucket)
+                .prefix(prefix)
+                .build()).contents();
+        // Las páginas se piden según se borran: no se acumulan todas las claves
+        int deleted = deleteInBatches(() -> objects.stream().map(S3Object::key).iterator());
+        log.info("Eliminados {} objetos de S3 bajo {}", deleted, prefix);
+        return deleted;
+    }
+
+    /**
+     * Elimina una lista de claves con DeleteObjects en lotes de
+     * {@value #DELETE_BATCH_SIZE}: purgar un blob con sus renditions y WebP es
+     * una llamada en vez de seis.
+     */
+    @Override
+    public int deleteKeys(Collection<String> keys) {
+        int deleted = deleteInBatches(keys);
+        log.info("Eliminados {} de {} objetos de S3", deleted, keys.size());
+        return deleted;
+    }
+
+    private int deleteInBatches(Iterable<String> keys) {
+        List<ObjectIdentifier> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+        int deleted = 0;
+        for (String key : keys) {
+            batch.add(ObjectIdentifier.builder().key(key).build());
+            if (batch.size() == DELETE_BATCH_SIZE) {
+                deleted += deleteBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleted += deleteBatch(batch);
+        }
+        return deleted;
+    }
+
+    private int deleteBatch(List<ObjectIdentifier> keys) {
+        DeleteObjectsResponse response = s3.deleteObjects(DeleteObjectsRequest.builder()
+                .bucket(bucket)
+                .delete(Delete.builder().objects(keys).quiet(true).build())
+                .build());
+        // En modo quiet solo se devuelven los errores
+        response.errors().forEach(error -> log.warn("No se pudo eliminar {} de S3: {} ({})",
+                error.key(), error.message(), error.code()));
+        return keys.size() - response.errors().size();
+    }
+
+    @Override
+    public ByteBuffer read(String key) throws IOException {
+        try {
+            return s3.getObjectAsBytes(GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .build())
+                    .asByteBuffer();
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        }
+    }
+
+    /** HeadObject: no descarga el contenido. */
+    @Override
+    public Optional<StoredObject> stat(String key) {
+        try {
+            HeadObjectResponse head = s3.headObject(HeadObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .build());
+            return Optional.of(new StoredObject(head.contentLength(), head.lastModified(), head.eTag()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String publicUrl(String key) {
+        return "https://%s.s3.%s.amazonaws.com/%s".formatted(bucket, region, key);
+    }
+}
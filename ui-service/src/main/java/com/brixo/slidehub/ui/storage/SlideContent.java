@@ -0,0 +1,53 @@
+package com.brixo.slidehub.ui.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Contenido de un slide listo para subir: bytes en memoria (descargas de
+ * Drive) o un archivo en disco (uploads manuales), que se sube en streaming
+ * sin cargarlo en heap.
+ */
+public final class SlideContent {
+
+    public static final SlideContent EMPTY = of(new byte[0]);
+
+    private final byte[] bytes;
+    private final Path file;
+    private final long length;
+
+    private SlideContent(byte[] bytes, Path file, long length) {
+        this.bytes = bytes;
+        this.file = file;
+        this.length = length;
+    }
+
+    public static SlideContent of(byte[] bytes) {
+        return new SlideContent(bytes, null, bytes.length);
+    }
+
+    public static SlideContent of(Path file, long length) {
+        return new SlideContent(null, file, length);
+    }
+
+    public long length() {
+        return length;
+    }
+
+    /** Archivo en disco, o null si el contenido está en memoria. */
+    public Path file() {
+        return file;
+    }
+
+    /** Bytes en memoria, o null si el contenido está en disco. */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public InputStream open() throws IOException {
+        return file != null ? Files.newInputStream(file) : new ByteArrayInputStream(bytes);
+    }
+}
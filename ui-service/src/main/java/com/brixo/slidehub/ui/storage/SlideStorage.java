@@ -0,0 +1,202 @@
+package com.brixo.slidehub.ui.storage;
+
+import com.brixo.slidehub.ui.model.SlideRendition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Almacenamiento de imágenes de slides.
+ *
+ * Backends (slidehub.storage.backend):
+ * - {@code s3} ({@link S3SlideStorage}): producción en Render, cuyo disco es
+ * efímero.
+ * - {@code local} ({@link LocalSlideStorage}): disco local; para desarrollo sin
+ * red, benchmarks de importación y despliegues on-prem que sirven los slides
+ * desde SSD.
+ *
+ * Las claves tienen la forma {@code blobs/{hh}/{sha256}-{subida}.{ext}}
+ * (direccionadas por contenido, ver {@link #blobKey}) independientemente del
+ * backend; las renditions escaladas van junto al original (ver
+ * {@link #renditionKey}). Los slides importados antes de la deduplicación
+ * siguen en {@code slides/{presentationId}/{n}.png}.
+ */
+public interface SlideStorage {
+
+    /**
+     * Guarda un objeto leyéndolo en streaming y devuelve su URL pública.
+     *
+     * @param key           clave (e.g. "slides/pres-uuid/1.png")
+     * @param content       contenido; el llamador lo cierra
+     * @param contentLength tamaño exacto en bytes
+     * @param contentType   MIME type (e.g. "image/png")
+     */
+    String store(String key, InputStream content, long contentLength, String contentType);
+
+    /**
+     * Guarda un {@link SlideContent}. Los backends pueden aprovechar que el
+     * contenido ya está en disco (p. ej. copia entre canales sin pasar por
+     * heap).
+     */
+    default String store(String key, SlideContent content, String contentType) {
+        try (InputStream in = content.open()) {
+            return store(key, in, content.length(), contentType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error leyendo el contenido de " + key, e);
+        }
+    }
+
+    /** true si {@link #storeAsync} no bloquea el hilo llamador. */
+    default boolean isAsync() {
+        return false;
+    }
+
+    /**
+     * Guarda un objeto sin bloquear el hilo llamador (solo si
+     * {@link #isAsync()}).
+     */
+    default CompletableFuture<String> storeAsync(String key, SlideContent content, String contentType) {
+        return CompletableFuture.completedFuture(store(key, content, contentType));
+    }
+
+    /**
+     * Lee un objeto completo.
+     *
+     * @throws java.nio.file.NoSuchFileException si la clave no existe
+     */
+    ByteBuffer read(String key) throws IOException;
+
+    /**
+     * Metadatos de un objeto sin leer su contenido.
+     *
+     * @return vacío si la clave no existe
+     */
+    Optional<StoredObject> stat(String key) throws IOException;
+
+    /**
+     * Archivo en disco que respalda la clave, si el backend es local. Permite
+     * servirlo con sendfile sin pasar por la JVM.
+     */
+    default Optional<Path> localFile(String key) {
+        return Optional.empty();
+    }
+
+    void delete(String key);
+
+    /**
+     * Elimina una lista de claves; las que no existen cuentan como eliminadas.
+     * Los backends remotos las agrupan en pocas llamadas.
+     *
+     * @return número de objetos eliminados
+     */
+    default int deleteKeys(Collection<String> keys) {
+        for (String key : keys) {
+            delete(key);
+        }
+        return keys.size();
+    }
+
+    /**
+     * Elimina todos los objetos bajo un prefijo.
+     *
+     * @return número de objetos eliminados
+     */
+    int deleteAll(String prefix);
+
+    /**
+     * Metadatos de un objeto guardado.
+     *
+     * @param version cambia cada vez que se reescribe el objeto (ETag de S3,
+     *                tamaño + mtime en disco); no es un hash del contenido
+     */
+    record StoredObject(long length, Instant lastModified, String version) {
+    }
+
+    /** Prefijo de los objetos direccionados por contenido. */
+    String BLOB_PREFIX = "blobs/";
+
+    /**
+     * Prefijo que agrupa los slides de una presentación anterior a V5:
+     * "slides/{id}/".
+     */
+    static String slidePrefix(String presentationId) {
+        return "slides/%s/".formatted(presentationId);
+    }
+
+    /**
+     * Clave de un slide anterior a V5 (sin deduplicar):
+     * "slides/{presentationId}/{slideNumber}.png".
+     */
+    static String slideKey(String presentationId, int slideNumber) {
+        return "slides/%s/%d.png".formatted(presentationId, slideNumber);
+    }
+
+    /**
+     * Clave direccionada por contenido:
+     * "blobs/{2 primeros hex}/{sha256}-{uploadId}.{ext}". El primer nivel
+     * reparte los objetos en 256 directorios (backend local).
+     *
+     * {@code uploadId} distingue cada subida del mismo contenido: dos
+     * importaciones que suben el mismo hash a la vez, o una que lo vuelve a
+     * subir mientras se purga el anterior, nunca escriben ni borran los
+     * objetos de la otra.
+     */
+    static String blobKey(String sha256, String uploadId, String contentType) {
+        return "%s%s/%s-%s.%s".formatted(BLOB_PREFIX, sha256.substring(0, 2), sha256, uploadId,
+                extensionOf(contentType));
+    }
+
+    static String extensionOf(String contentType) {
+        if (contentType == null) {
+            return "png";
+        }
+        return switch (contentType) {
+            case "image/jpeg" -> "jpg";
+            case "image/gif" -> "gif";
+            case "image/webp" -> "webp";
+            default -> "png";
+        };
+    }
+
+    /** MIME type según la extensión de la clave (inverso de {@link #extensionOf}). */
+    static String contentTypeOf(String key) {
+        String extension = key.substring(key.lastIndexOf('.') + 1);
+        return switch (extension) {
+            case "jpg" -> "image/jpeg";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            default -> "image/png";
+        };
+    }
+
+    /**
+     * Clave de una rendition a partir de la del slide original:
+     * "blobs/ab/{sha256}-{subida}-thumb.jpg", "blobs/ab/{sha256}-{subida}-mobile.jpg". FULL es
+     * la propia clave original.
+     */
+    static String renditionKey(String slideKey, SlideRendition rendition) {
+        if (!rendition.isScaled()) {
+            return slideKey;
+        }
+        int dot = slideKey.lastIndexOf('.');
+        String base = dot > slideKey.lastIndexOf('/') ? slideKey.substring(0, dot) : slideKey;
+        return "%s-%s.jpg".formatted(base, rendition.param());
+    }
+
+    /**
+     * Clave de la versión transcodificada de un objeto a otro formato:
+     * "slides/{id}/1-mobile.jpg" → "slides/{id}/1-mobile.webp".
+     */
+    static String formatKey(String key, String extension) {
+        int dot = key.lastIndexOf('.');
+        String base = dot > key.lastIndexOf('/') ? key.substring(0, dot) : key;
+        return base + "." + extension;
+    }
+}
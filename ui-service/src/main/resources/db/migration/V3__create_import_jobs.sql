@@ -0,0 +1,22 @@
+-- V3: Jobs de importación asíncrona de presentaciones
+-- create-from-drive / create-from-upload responden con el id del job y el
+-- frontend consulta el avance (slides completados / total).
+
+CREATE TABLE import_jobs
+(
+    id                 VARCHAR(36)  NOT NULL,
+    user_id            VARCHAR(36)  NOT NULL,
+    source_type        VARCHAR(20)  NOT NULL,
+    presentation_name  VARCHAR(200) NOT NULL,
+    status             VARCHAR(20)  NOT NULL,
+    total_slides       INT          NOT NULL DEFAULT 0,
+    completed_slides   INT          NOT NULL DEFAULT 0,
+    presentation_id    VARCHAR(36),
+    error_message      TEXT,
+    created_at         TIMESTAMP    NOT NULL DEFAULT NOW(),
+    updated_at         TIMESTAMP    NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_import_jobs PRIMARY KEY (id),
+    CONSTRAINT fk_import_jobs_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_import_jobs_user ON import_jobs (user_id, created_at);
@@ -0,0 +1,12 @@
+-- V4: Renditions escaladas de cada slide (thumbnail / mobile / full)
+-- Las genera SlideImageProcessor al importar; null en slides anteriores a V4
+-- o más estrechos que la rendition (se sirve el original).
+
+ALTER TABLE slides ADD COLUMN full_key VARCHAR(300);
+ALTER TABLE slides ADD COLUMN mobile_key VARCHAR(300);
+ALTER TABLE slides ADD COLUMN thumbnail_key VARCHAR(300);
+ALTER TABLE slides ADD COLUMN width INT;
+ALTER TABLE slides ADD COLUMN height INT;
+
+-- Los slides existentes solo tienen el original, con la clave estándar
+UPDATE slides SET full_key = 'slides/' || presentation_id || '/' || number || '.png';
@@ -0,0 +1,24 @@
+-- V5: Imágenes de slides direccionadas por contenido (deduplicación)
+-- Una fila por SHA-256 distinto; los slides la referencian por content_hash.
+-- ref_count lo mantiene SlideBlobService: los blobs con 0 se borran del storage.
+
+CREATE TABLE slide_blobs
+(
+    hash            VARCHAR(64)  NOT NULL,
+    content_type    VARCHAR(50)  NOT NULL,
+    content_length  BIGINT       NOT NULL,
+    full_key        VARCHAR(300) NOT NULL,
+    mobile_key      VARCHAR(300),
+    thumbnail_key   VARCHAR(300),
+    width           INT,
+    height          INT,
+    url             TEXT,
+    ref_count       INT          NOT NULL DEFAULT 0,
+    created_at      TIMESTAMP    NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_slide_blobs PRIMARY KEY (hash)
+);
+
+-- null en slides anteriores a V5 (siguen en slides/{presentationId}/{n}.png)
+ALTER TABLE slides ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE slides ADD CONSTRAINT fk_slides_blob FOREIGN KEY (content_hash) REFERENCES slide_blobs (hash);
+CREATE INDEX idx_slides_content_hash ON slides (content_hash);
@@ -0,0 +1,6 @@
+-- V6: Versión en Drive de cada slide, para el re-sync incremental
+-- null en slides subidos manualmente o importados antes de V6 (el primer
+-- re-sync los vuelve a descargar).
+
+ALTER TABLE slides ADD COLUMN drive_md5 VARCHAR(32);
+ALTER TABLE slides ADD COLUMN drive_modified_time VARCHAR(40);
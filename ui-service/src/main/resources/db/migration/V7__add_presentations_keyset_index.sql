@@ -0,0 +1,5 @@
+-- V7: Índice para el listado paginado de presentaciones (GET /api/presentations)
+-- Keyset sobre (created_at, id) desc dentro de cada usuario: cada página es un
+-- rango del índice, sin ordenar ni saltar filas.
+
+CREATE INDEX idx_presentations_user_created ON presentations (user_id, created_at DESC, id DESC);
@@ -0,0 +1,11 @@
+-- V8: Índices para las consultas de las rutas de petición
+-- presentations.user_id ya está cubierto por idx_presentations_user_created
+-- (V7, user_id como primera columna) y slides.presentation_id por
+-- uq_slides_number (presentation_id, number).
+
+-- QuickLinkRepository.findByPresentationIdOrderByDisplayOrderAsc: filtro y orden
+-- desde el índice, sin ordenar en memoria
+CREATE INDEX idx_quick_links_presentation ON quick_links (presentation_id, display_order);
+
+-- UserRepository.findByEmailVerificationToken (enlace de verificación de email)
+CREATE INDEX idx_users_email_verification_token ON users (email_verification_token);
@@ -0,0 +1,7 @@
+-- V9: Reservas de blobs por importaciones en curso
+-- Un blob reutilizado o recién subido tiene 0 referencias hasta que la
+-- importación persiste sus slides: pending_refs lo protege de la purga
+-- mientras tanto. leased_until acota la reserva si la réplica cae a mitad.
+
+ALTER TABLE slide_blobs ADD COLUMN pending_refs INT NOT NULL DEFAULT 0;
+ALTER TABLE slide_blobs ADD COLUMN leased_until TIMESTAMP;
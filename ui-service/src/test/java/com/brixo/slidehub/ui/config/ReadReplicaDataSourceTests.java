@@ -0,0 +1,89 @@
+package com.brixo.slidehub.ui.config;
+
+import com.brixo.slidehub.ui.config.DatabaseConfig.ReadReplicaDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Enrutado primario/réplica contra dos H2 en memoria que se distinguen por el
+ * contenido de una tabla: solo las transacciones readOnly de los servicios
+ * leen de la réplica.
+ */
+class ReadReplicaDataSourceTests {
+
+    private static final String SERVICE_READ = ReadReplicaDataSource.REPLICA_TRANSACTION_PREFIX
+            + "PresentationService.listSummaries";
+    private static final String REPOSITORY_READ =
+            "org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById";
+
+    private ReadReplicaDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        HikariDataSource primary = pool("primary", false);
+        HikariDataSource replica = pool("replica", true);
+        dataSource = new ReadReplicaDataSource(primary, replica);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void serviceReadOnlyTransactionsReachTheReplica() {
+        assertThat(inTransaction(SERVICE_READ, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void repositoryDefaultReadsStayOnThePrimary() {
+        assertThat(inTransaction(REPOSITORY_READ, true)).isEqualTo("primary");
+        assertThat(jdbcTemplate.queryForObject("select name from db_role", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void writesReachThePrimary() {
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        write.setName(SERVICE_READ);
+        write.executeWithoutResult(status -> jdbcTemplate.update("update db_role set name = 'written'"));
+
+        assertThat(inTransaction(REPOSITORY_READ, true)).isEqualTo("written");
+        assertThat(inTransaction(SERVICE_READ, true)).isEqualTo("replica");
+    }
+
+    private String inTransaction(String name, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setName(name);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("select name from db_role", String.class));
+    }
+
+    private static HikariDataSource pool(String role, boolean readOnly) {
+        String url = "jdbc:h2:mem:" + role + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        JdbcTemplate setup = new JdbcTemplate(new DriverManagerDataSource(url));
+        setup.execute("create table db_role (name varchar(20))");
+        setup.update("insert into db_role (name) values (?)", role);
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("test-" + role);
+        config.setJdbcUrl(url);
+        config.setMaximumPoolSize(2);
+        config.setReadOnly(readOnly);
+        return new HikariDataSource(config);
+    }
+}
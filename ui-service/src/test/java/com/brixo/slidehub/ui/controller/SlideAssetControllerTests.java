@@ -0,0 +1,125 @@
+package com.brixo.slidehub.ui.controller;
+
+import com.brixo.slidehub.ui.model.SlideRendition;
+import com.brixo.slidehub.ui.service.SlideAssetService;
+import com.brixo.slidehub.ui.service.SlideAssetService.SlideAsset;
+import com.brixo.slidehub.ui.storage.SlideStorage.StoredObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Respuestas HTTP de los slides contra un SlideAssetService simulado:
+ * validación por ETag, Range/If-Range, negociación WebP y Cache-Control según
+ * la URL esté versionada o no.
+ */
+class SlideAssetControllerTests {
+
+    private static final String URL = "/presentation/p-1/slides/1";
+    private static final byte[] PNG = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP = "webp".getBytes(StandardCharsets.US_ASCII);
+
+    private final SlideAssetService slideAssetService = mock(SlideAssetService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SlideAsset png = asset("blobs/ab/abc-u1.png", "abc-u1.png", PNG);
+        SlideAsset webp = asset("blobs/ab/abc-u1.webp", "abc-u1.webp", WEBP);
+        when(slideAssetService.find(eq("p-1"), eq(1), any(SlideRendition.class), eq(false)))
+                .thenReturn(Optional.of(png));
+        when(slideAssetService.find(eq("p-1"), eq(1), any(SlideRendition.class), eq(true)))
+                .thenReturn(Optional.of(webp));
+        when(slideAssetService.content(any(SlideAsset.class)))
+                .thenAnswer(invocation -> invocation.<SlideAsset>getArgument(0).content().duplicate());
+        when(slideAssetService.isFinal(any(SlideAsset.class), any(SlideRendition.class), anyBoolean()))
+                .thenReturn(true);
+        mockMvc = MockMvcBuilders.standaloneSetup(new SlideAssetController(slideAssetService)).build();
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"abc-u1.png\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-u1.png\""))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void singleRangeIsPartialContent() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().bytes(Arrays.copyOfRange(PNG, 2, 6)));
+    }
+
+    @Test
+    void unsatisfiableRangeReportsTheLength() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=50-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void ifRangeMismatchServesTheWholeSlide() throws Exception {
+        mockMvc.perform(get(URL)
+                .header(HttpHeaders.RANGE, "bytes=2-5")
+                .header(HttpHeaders.IF_RANGE, "\"otra-version\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(PNG));
+    }
+
+    @Test
+    void webpIsNegotiatedByAccept() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.ACCEPT, "image/avif,image/webp,*/*"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/webp"))
+                .andExpect(content().bytes(WEBP));
+        mockMvc.perform(get(URL).header(HttpHeaders.ACCEPT, "image/png"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"));
+    }
+
+    @Test
+    void versionedUrlsAreImmutableAndOthersRevalidate() throws Exception {
+        mockMvc.perform(get(URL).param("v", "abc"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"));
+        mockMvc.perform(get(URL))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, no-cache"));
+    }
+
+    @Test
+    void unfinishedRenditionIsNotImmutableEvenWhenVersioned() throws Exception {
+        when(slideAssetService.isFinal(any(SlideAsset.class), any(SlideRendition.class), anyBoolean()))
+                .thenReturn(false);
+
+        mockMvc.perform(get(URL).param("v", "abc").param("size", "thumb"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, no-cache"));
+    }
+
+    private static SlideAsset asset(String key, String etag, byte[] bytes) {
+        StoredObject object = new StoredObject(bytes.length, Instant.parse("2026-01-01T00:00:00Z"), "v1");
+        return new SlideAsset(key, SlideRendition.FULL, object, etag, null, ByteBuffer.wrap(bytes));
+    }
+}
@@ -0,0 +1,110 @@
+package com.brixo.slidehub.ui.repository;
+
+import com.brixo.slidehub.ui.model.ImportJob;
+import com.brixo.slidehub.ui.model.ImportJobStatus;
+import com.brixo.slidehub.ui.model.SourceType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Transiciones de estado de los jobs de importación contra H2: DONE y FAILED
+ * son finales, ni un worker lento ni el fallo por inactividad los pisan; solo
+ * un worker que sí creó la presentación convierte FAILED en DONE. Al arrancar
+ * se fallan los jobs fuera de plazo, no los recientes.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK)
+@TestPropertySource(properties = {
+        "slidehub.state-service.url=http://localhost:8081",
+        "slidehub.ai-service.url=http://localhost:8083",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ImportJobRepositoryTests {
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Test
+    void finishedJobsAreNotRevivedByLateWorkers() {
+        ImportJob job = saveJob(ImportJobStatus.QUEUED);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(importJobRepository.finish(job.getId(), ImportJobStatus.FAILED, null, "inactivo", now))
+                .isEqualTo(1);
+        assertThat(importJobRepository.markRunning(job.getId(), ImportJobStatus.RUNNING, 10, now)).isZero();
+        assertThat(importJobRepository.finish(job.getId(), ImportJobStatus.DONE, "p-1", null, now)).isZero();
+
+        ImportJob stored = importJobRepository.findById(job.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(stored.getPresentationId()).isNull();
+    }
+
+    @Test
+    void pendingJobsStillTransition() {
+        ImportJob job = saveJob(ImportJobStatus.QUEUED);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(importJobRepository.markRunning(job.getId(), ImportJobStatus.RUNNING, 4, now)).isEqualTo(1);
+        assertThat(importJobRepository.finish(job.getId(), ImportJobStatus.DONE, "p-1", null, now)).isEqualTo(1);
+
+        assertThat(importJobRepository.findById(job.getId()).orElseThrow().getStatus())
+                .isEqualTo(ImportJobStatus.DONE);
+    }
+
+    @Test
+    void lateWorkerCompletesAJobGivenUpForLost() {
+        ImportJob job = saveJob(ImportJobStatus.RUNNING);
+        LocalDateTime now = LocalDateTime.now();
+        importJobRepository.finish(job.getId(), ImportJobStatus.FAILED, null, "inactivo", now);
+
+        assertThat(importJobRepository.finish(job.getId(), ImportJobStatus.DONE, "p-1", null, now)).isZero();
+        assertThat(importJobRepository.completeAfterFailure(job.getId(), "p-1", now)).isEqualTo(1);
+
+        ImportJob stored = importJobRepository.findById(job.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(ImportJobStatus.DONE);
+        assertThat(stored.getPresentationId()).isEqualTo("p-1");
+        assertThat(stored.getErrorMessage()).isNull();
+    }
+
+    @Test
+    void abandonedJobsFailWhileRecentOnesKeepWaiting() {
+        LocalDateTime now = LocalDateTime.now();
+        ImportJob oldQueued = saveJob(ImportJobStatus.QUEUED, now.minusHours(2));
+        ImportJob oldRunning = saveJob(ImportJobStatus.RUNNING, now.minusHours(2));
+        ImportJob recentQueued = saveJob(ImportJobStatus.QUEUED, now);
+        ImportJob recentRunning = saveJob(ImportJobStatus.RUNNING, now);
+
+        importJobRepository.failAbandoned(now.minusMinutes(20), now.minusMinutes(30), "interrumpida", now);
+
+        assertThat(importJobRepository.findPendingIds(List.of(oldQueued.getId(), oldRunning.getId(),
+                recentQueued.getId(), recentRunning.getId())))
+                .containsExactlyInAnyOrder(recentQueued.getId(), recentRunning.getId());
+        assertThat(importJobRepository.findById(oldQueued.getId()).orElseThrow().getErrorMessage())
+                .isEqualTo("interrumpida");
+    }
+
+    private ImportJob saveJob(ImportJobStatus status) {
+        return saveJob(status, LocalDateTime.now());
+    }
+
+    private ImportJob saveJob(ImportJobStatus status, LocalDateTime now) {
+        ImportJob job = new ImportJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setUserId(UUID.randomUUID().toString());
+        job.setSourceType(SourceType.UPLOAD);
+        job.setPresentationName("Demo");
+        job.setStatus(status);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        return importJobRepository.save(job);
+    }
+}
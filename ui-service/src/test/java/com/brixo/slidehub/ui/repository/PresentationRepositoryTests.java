@@ -0,0 +1,144 @@
+package com.brixo.slidehub.ui.repository;
+
+import com.brixo.slidehub.ui.model.Presentation;
+import com.brixo.slidehub.ui.model.PresentationSummary;
+import com.brixo.slidehub.ui.model.Role;
+import com.brixo.slidehub.ui.model.Slide;
+import com.brixo.slidehub.ui.model.SourceType;
+import com.brixo.slidehub.ui.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listado de presentaciones contra H2: los resúmenes se obtienen con una
+ * única sentencia SQL, tenga el usuario 3 o 30 presentaciones (sin N+1 al
+ * contar los slides), y la paginación por keyset recorre todas sin repetir.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK)
+@TestPropertySource(properties = {
+        "slidehub.state-service.url=http://localhost:8081",
+        "slidehub.ai-service.url=http://localhost:8083",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class PresentationRepositoryTests {
+
+    @Autowired
+    private PresentationRepository presentationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void summariesTakeOneStatementRegardlessOfPresentationCount() {
+        User user = saveUser();
+        savePresentations(user, 3);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long few = statementsFor(statistics, () -> presentationRepository.findSummariesByUserId(user.getId()),
+                3);
+
+        savePresentations(user, 27);
+        long many = statementsFor(statistics, () -> presentationRepository.findSummariesByUserId(user.getId()),
+                30);
+
+        assertThat(many).isEqualTo(few).isEqualTo(1);
+    }
+
+    @Test
+    void keysetPagesCoverEveryPresentationOnceInOrder() {
+        User user = saveUser();
+        // Mismo createdAt para todas: el orden lo desempata el id
+        savePresentations(user, 25);
+
+        List<PresentationSummary> seen = new ArrayList<>();
+        List<PresentationSummary> page = presentationRepository.findSummaryPage(user.getId(), "%", Limit.of(10));
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            PresentationSummary last = page.getLast();
+            page = presentationRepository.findSummaryPageAfter(user.getId(), "%", last.createdAt(), last.id(),
+                    Limit.of(10));
+        }
+
+        assertThat(seen).hasSize(25);
+        assertThat(seen).extracting(PresentationSummary::id).doesNotHaveDuplicates();
+        assertThat(seen).extracting(PresentationSummary::id)
+                .isSortedAccordingTo(Comparator.<String>naturalOrder().reversed());
+    }
+
+    @Test
+    void namePrefixIsCaseInsensitive() {
+        User user = saveUser();
+        savePresentations(user, 12);
+
+        List<PresentationSummary> matches = presentationRepository.findSummaryPage(user.getId(), "demo 1%",
+                Limit.of(50));
+
+        assertThat(matches).extracting(PresentationSummary::name)
+                .containsExactlyInAnyOrder("Demo 1", "Demo 10", "Demo 11");
+    }
+
+    private static long statementsFor(Statistics statistics, Supplier<List<PresentationSummary>> query,
+            int expectedPresentations) {
+        statistics.clear();
+        List<PresentationSummary> summaries = query.get();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(summaries).hasSize(expectedPresentations);
+        assertThat(summaries).allSatisfy(summary -> assertThat(summary.totalSlides()).isEqualTo(4));
+        return statements;
+    }
+
+    private User saveUser() {
+        User user = new User();
+        user.setId(UUID.randomUUID().toString());
+        user.setUsername("n1-" + user.getId().substring(0, 8));
+        user.setEmail(user.getUsername() + "@slidehub.test");
+        user.setRole(Role.PRESENTER);
+        user.setCreatedAt(LocalDateTime.now());
+        return userRepository.save(user);
+    }
+
+    private void savePresentations(User user, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Presentation presentation = new Presentation();
+            presentation.setId(UUID.randomUUID().toString());
+            presentation.setUser(user);
+            presentation.setName("Demo " + i);
+            presentation.setSourceType(SourceType.UPLOAD);
+            presentation.setCreatedAt(now);
+            presentation.setUpdatedAt(now);
+            for (int number = 1; number <= 4; number++) {
+                Slide slide = new Slide();
+                slide.setId(UUID.randomUUID().toString());
+                slide.setPresentation(presentation);
+                slide.setNumber(number);
+                slide.setFilename(number + ".png");
+                slide.setUploadedAt(now);
+                presentation.getSlides().add(slide);
+            }
+            presentationRepository.save(presentation);
+        }
+    }
+}
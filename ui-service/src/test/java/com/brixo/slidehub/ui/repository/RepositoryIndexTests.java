@@ -0,0 +1,240 @@
+package com.brixo.slidehub.ui.repository;
+
+import com.brixo.slidehub.ui.model.PresentationSummary;
+import com.brixo.slidehub.ui.model.QuickLink;
+import com.brixo.slidehub.ui.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Planes de consulta de las rutas de petición contra H2 (modo PostgreSQL) con
+ * el esquema de Flyway y volumen de datos realista: cada consulta debe usar su
+ * índice (sin tableScan).
+ *
+ * El EXPLAIN se hace sobre el SQL que Hibernate envía realmente para cada
+ * método del repositorio (capturado con {@link CapturedSql}), con los mismos
+ * parámetros. El presupuesto de latencia depende de la máquina: solo corre con
+ * {@code mvn test -Pbenchmark}.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK)
+@TestPropertySource(properties = {
+        "slidehub.state-service.url=http://localhost:8081",
+        "slidehub.ai-service.url=http://localhost:8083",
+        "spring.datasource.url=jdbc:h2:mem:slidehub-index;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.brixo.slidehub.ui.repository.RepositoryIndexTests$CapturedSql"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryIndexTests {
+
+    private static final int USERS = 500;
+    private static final int PRESENTATIONS_PER_USER = 20;
+    private static final int LINKS_PER_PRESENTATION = 3;
+    private static final int PAGE_SIZE = 10;
+
+    /** Presupuesto por consulta (media de {@link #ROUNDS} ejecuciones); solo con -Pbenchmark. */
+    private static final double BUDGET_MILLIS = 20.0;
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PresentationRepository presentationRepository;
+
+    @Autowired
+    private QuickLinkRepository quickLinkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    void seed() {
+        Timestamp base = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 0, 0));
+        List<Object[]> users = new ArrayList<>(USERS);
+        List<Object[]> presentations = new ArrayList<>(USERS * PRESENTATIONS_PER_USER);
+        List<Object[]> links = new ArrayList<>(USERS * PRESENTATIONS_PER_USER * LINKS_PER_PRESENTATION);
+        for (int u = 0; u < USERS; u++) {
+            users.add(new Object[] { userId(u), "user" + u, "user" + u + "@slidehub.test", token(u), base });
+            for (int p = 0; p < PRESENTATIONS_PER_USER; p++) {
+                String presentationId = presentationId(u, p);
+                Timestamp createdAt = new Timestamp(base.getTime() + p * 60_000L);
+                presentations.add(new Object[] { presentationId, userId(u), "Demo " + p, createdAt, createdAt });
+                for (int l = 0; l < LINKS_PER_PRESENTATION; l++) {
+                    links.add(new Object[] { presentationId + "-l" + l, presentationId, "Link " + l,
+                            "https://example.com/" + l, LINKS_PER_PRESENTATION - l });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, username, email, email_verification_token, created_at) "
+                + "values (?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into presentations (id, user_id, name, source_type, created_at, updated_at) "
+                + "values (?, ?, ?, 'UPLOAD', ?, ?)", presentations);
+        jdbcTemplate.batchUpdate("insert into quick_links (id, presentation_id, title, url, display_order) "
+                + "values (?, ?, ?, ?, ?)", links);
+        jdbcTemplate.execute("analyze");
+    }
+
+    // ── Planes ────────────────────────────────────────────────────────────────
+
+    @Test
+    void presentationListUsesUserIndex() {
+        String sql = CapturedSql.of(() -> presentationRepository.findSummariesByUserId(userId(7)));
+
+        assertThat(explain(sql, userId(7)))
+                .contains("idx_presentations_user_created")
+                .doesNotContain("presentations.tableScan");
+    }
+
+    @Test
+    void keysetFirstPageUsesUserIndex() {
+        String sql = CapturedSql.of(() -> presentationRepository.findSummaryPage(userId(7), "%",
+                Limit.of(PAGE_SIZE)));
+
+        assertThat(explain(sql, userId(7), "%"))
+                .contains("idx_presentations_user_created")
+                .doesNotContain("presentations.tableScan");
+    }
+
+    @Test
+    void keysetNextPageUsesUserIndex() {
+        PresentationSummary last = presentationRepository.findSummaryPage(userId(7), "%", Limit.of(PAGE_SIZE))
+                .getLast();
+        String sql = CapturedSql.of(() -> presentationRepository.findSummaryPageAfter(userId(7), "%",
+                last.createdAt(), last.id(), Limit.of(PAGE_SIZE)));
+
+        Timestamp createdAt = Timestamp.valueOf(last.createdAt());
+        assertThat(explain(sql, userId(7), "%", createdAt, createdAt, last.id()))
+                .contains("idx_presentations_user_created")
+                .doesNotContain("presentations.tableScan");
+    }
+
+    @Test
+    void quickLinksUsePresentationIndex() {
+        String sql = CapturedSql.of(() -> quickLinkRepository.findByPresentationIdOrderByDisplayOrderAsc(
+                presentationId(7, 3)));
+
+        assertThat(explain(sql, presentationId(7, 3)))
+                .contains("idx_quick_links_presentation")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void verificationTokenLookupUsesIndex() {
+        String sql = CapturedSql.of(() -> userRepository.findByEmailVerificationToken(token(7)));
+
+        assertThat(explain(sql, token(7)))
+                .contains("idx_users_email_verification_token")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void requestPathQueriesReturnExpectedRows() {
+        assertThat(presentationRepository.findSummariesByUserId(userId(7)))
+                .hasSize(PRESENTATIONS_PER_USER)
+                .extracting(PresentationSummary::createdAt)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(quickLinkRepository.findByPresentationIdOrderByDisplayOrderAsc(presentationId(7, 3)))
+                .extracting(QuickLink::getDisplayOrder)
+                .containsExactly(1, 2, 3);
+        assertThat(userRepository.findByEmailVerificationToken(token(7))).map(User::getId)
+                .isEqualTo(Optional.of(userId(7)));
+    }
+
+    // ── Latencia ──────────────────────────────────────────────────────────────
+
+    @Test
+    @Tag("benchmark")
+    void requestPathQueriesStayWithinBudget() {
+        double presentations = averageMillis(() -> presentationRepository.findSummariesByUserId(userId(7)));
+        double page = averageMillis(() -> presentationRepository.findSummaryPage(userId(7), "%",
+                Limit.of(PAGE_SIZE)));
+        double links = averageMillis(() -> quickLinkRepository.findByPresentationIdOrderByDisplayOrderAsc(
+                presentationId(7, 3)));
+        double token = averageMillis(() -> userRepository.findByEmailVerificationToken(token(7)));
+
+        assertThat(presentations).isLessThan(BUDGET_MILLIS);
+        assertThat(page).isLessThan(BUDGET_MILLIS);
+        assertThat(links).isLessThan(BUDGET_MILLIS);
+        assertThat(token).isLessThan(BUDGET_MILLIS);
+    }
+
+    /**
+     * EXPLAIN del SQL capturado. {@code parameters} son los del método, en el
+     * orden en que aparecen; los marcadores restantes son los de Limit.
+     */
+    private String explain(String sql, Object... parameters) {
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        Object[] values = new Object[(int) placeholders];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < parameters.length ? parameters[i] : PAGE_SIZE;
+        }
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, values));
+    }
+
+    private static double averageMillis(Supplier<?> query) {
+        query.get(); // calentamiento
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            query.get();
+        }
+        return (System.nanoTime() - start) / 1e6 / ROUNDS;
+    }
+
+    private static String userId(int user) {
+        return "u-%05d".formatted(user);
+    }
+
+    private static String presentationId(int user, int presentation) {
+        return userId(user) + "-p" + presentation;
+    }
+
+    private static String token(int user) {
+        return "t-%05d".formatted(user);
+    }
+
+    /**
+     * StatementInspector de Hibernate que guarda el SQL de cada sentencia
+     * (hibernate.session_factory.statement_inspector).
+     */
+    public static final class CapturedSql implements StatementInspector {
+
+        private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        /** SQL de la única consulta que ejecuta {@code query}. */
+        static String of(Supplier<?> query) {
+            statements.clear();
+            query.get();
+            assertThat(statements).hasSize(1);
+            return statements.getFirst();
+        }
+    }
+}
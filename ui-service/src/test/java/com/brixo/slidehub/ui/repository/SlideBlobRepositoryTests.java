@@ -0,0 +1,88 @@
+package com.brixo.slidehub.ui.repository;
+
+import com.brixo.slidehub.ui.model.SlideBlob;
+import com.brixo.slidehub.ui.service.SlideBlobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reservas de blobs contra H2: entre la reutilización de un blob y el commit
+ * de los slides que lo usan tiene 0 referencias, y la purga de otra
+ * importación no debe borrarlo.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK)
+@TestPropertySource(properties = {
+        "slidehub.state-service.url=http://localhost:8081",
+        "slidehub.ai-service.url=http://localhost:8083",
+        "slidehub.storage.backend=local",
+        "slidehub.storage.local.root=${java.io.tmpdir}/slidehub-blob-tests",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class SlideBlobRepositoryTests {
+
+    @Autowired
+    private SlideBlobService slideBlobService;
+
+    @Autowired
+    private SlideBlobRepository slideBlobRepository;
+
+    @Test
+    void leasedBlobSurvivesPurgeUntilReleased() {
+        SlideBlob blob = slideBlobService.register(newBlob());
+        // Otra importación reutiliza el mismo hash antes de persistir sus slides
+        assertThat(slideBlobService.lease(blob.getHash())).isPresent();
+
+        // La primera falla: libera su reserva y purga lo que subió
+        slideBlobService.abandon(Map.of(blob.getHash(), 1));
+        assertThat(slideBlobService.purgeIfUnreferenced(blob.getHash())).isFalse();
+
+        slideBlobService.abandon(Map.of(blob.getHash(), 1));
+        assertThat(slideBlobService.purgeIfUnreferenced(blob.getHash())).isTrue();
+        assertThat(slideBlobRepository.existsById(blob.getHash())).isFalse();
+    }
+
+    @Test
+    void expiredLeasesDoNotPinBlobsForever() {
+        SlideBlob blob = newBlob();
+        blob.setPendingRefs(1);
+        blob.setLeasedUntil(LocalDateTime.now().minusMinutes(1));
+        slideBlobRepository.save(blob);
+
+        assertThat(slideBlobService.purgeIfUnreferenced(blob.getHash())).isTrue();
+    }
+
+    @Test
+    void losingRegistrationReturnsTheExistingBlob() {
+        SlideBlob first = slideBlobService.register(newBlob());
+        SlideBlob second = newBlob(first.getHash());
+
+        SlideBlob registered = slideBlobService.register(second);
+
+        assertThat(registered.getFullKey()).isEqualTo(first.getFullKey());
+        assertThat(slideBlobRepository.findById(first.getHash()).orElseThrow().getPendingRefs()).isEqualTo(2);
+    }
+
+    private static SlideBlob newBlob() {
+        return newBlob(UUID.randomUUID().toString().replace("-", "") + "00000000000000000000000000000000");
+    }
+
+    private static SlideBlob newBlob(String hash) {
+        SlideBlob blob = new SlideBlob();
+        blob.setHash(hash);
+        blob.setContentType("image/png");
+        blob.setContentLength(4);
+        blob.setFullKey("blobs/" + hash.substring(0, 2) + "/" + hash + "-" + UUID.randomUUID() + ".png");
+        blob.setCreatedAt(LocalDateTime.now());
+        return blob;
+    }
+}
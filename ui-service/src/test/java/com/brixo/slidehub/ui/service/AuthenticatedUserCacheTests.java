@@ -0,0 +1,71 @@
+package com.brixo.slidehub.ui.service;
+
+import com.brixo.slidehub.ui.model.User;
+import com.brixo.slidehub.ui.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Resolución principal → id de usuario: una sola consulta mientras dure el
+ * TTL, y de nuevo tras {@link AuthenticatedUserCache#evict}.
+ */
+class AuthenticatedUserCacheTests {
+
+    private static final String EMAIL = "ana@slidehub.test";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final Authentication authentication = new TestingAuthenticationToken(EMAIL, null);
+
+    @Test
+    void repeatedRequestsHitTheDatabaseOnce() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user("u-1")));
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(userRepository, Duration.ofMinutes(5), 100);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.userId(authentication)).isEqualTo("u-1");
+        }
+
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void evictForcesANewLookup() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user("u-1")));
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(userRepository, Duration.ofMinutes(5), 100);
+
+        cache.userId(authentication);
+        cache.evict(EMAIL);
+        cache.userId(authentication);
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void unknownPrincipalIsNotCached() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(userRepository, Duration.ofMinutes(5), 100);
+
+        assertThatThrownBy(() -> cache.userId(authentication)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> cache.userId(authentication)).isInstanceOf(IllegalStateException.class);
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    private static User user(String id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(EMAIL);
+        return user;
+    }
+}
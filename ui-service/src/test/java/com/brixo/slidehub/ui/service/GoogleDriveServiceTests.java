@@ -0,0 +1,68 @@
+package com.brixo.slidehub.ui.service;
+
+import com.brixo.slidehub.ui.model.DriveFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * files.list paginado contra un Drive simulado: se recorren todas las páginas
+ * siguiendo nextPageToken, con el pageSize máximo y solo los campos pedidos.
+ */
+class GoogleDriveServiceTests {
+
+    private static final int PAGE = 1000;
+
+    @Test
+    void listImagesFollowsNextPageToken() {
+        List<URI> requests = new CopyOnWriteArrayList<>();
+        GoogleDriveService drive = new GoogleDriveService(WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request.url());
+                    Map<String, String> params = UriComponentsBuilder.fromUri(request.url()).build()
+                            .getQueryParams().toSingleValueMap();
+                    int page = params.containsKey("pageToken") ? Integer.parseInt(params.get("pageToken")) : 0;
+                    return Mono.just(page(page, page < 2 ? PAGE : 10));
+                }));
+
+        List<DriveFile> images = drive.listImagesInFolder("folder", "token");
+
+        assertThat(images).hasSize(2 * PAGE + 10);
+        assertThat(images.get(PAGE).id()).isEqualTo("file-1-0");
+        assertThat(images.get(0).md5Checksum()).isEqualTo("md5-0-0");
+        assertThat(requests).hasSize(3);
+        assertThat(requests.get(0).getQuery())
+                .contains("pageSize=" + PAGE)
+                .contains("fields=nextPageToken,files(id,name,mimeType,md5Checksum,modifiedTime)")
+                .doesNotContain("pageToken=");
+        assertThat(requests.get(2).getQuery()).contains("pageToken=2");
+    }
+
+    /** Página {@code page} con {@code size} archivos; las dos primeras tienen siguiente. */
+    private static ClientResponse page(int page, int size) {
+        String files = String.join(",", IntStream.range(0, size)
+                .mapToObj(i -> """
+                        {"id":"file-%1$d-%2$d","name":"%1$d-%2$d.png","mimeType":"image/png",\
+                        "md5Checksum":"md5-%1$d-%2$d","modifiedTime":"2025-01-01T00:00:00.000Z"}"""
+                        .formatted(page, i))
+                .toList());
+        String next = page < 2 ? "\"nextPageToken\":\"" + (page + 1) + "\"," : "";
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{" + next + "\"files\":[" + files + "]}")
+                .build();
+    }
+}
@@ -0,0 +1,344 @@
+package com.brixo.slidehub.ui.service;
+
+import com.brixo.slidehub.ui.model.DriveFile;
+import com.brixo.slidehub.ui.model.Presentation;
+import com.brixo.slidehub.ui.model.Slide;
+import com.brixo.slidehub.ui.model.SlideBlob;
+import com.brixo.slidehub.ui.model.User;
+import com.brixo.slidehub.ui.repository.PresentationRepository;
+import com.brixo.slidehub.ui.repository.SlideBlobRepository;
+import com.brixo.slidehub.ui.storage.SlideStorage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Importación desde Drive contra stand-ins locales de Drive y S3 con latencia
+ * fija por operación: el pipeline paralelo debe ser varias veces más rápido
+ * que el secuencial (tag benchmark, {@code mvn test -Pbenchmark}), conservar el
+ * orden de los slides y persistir una sola vez.
+ * Re-importar la misma carpeta no vuelve a subir ninguna imagen, y un re-sync
+ * solo transfiere las que cambiaron.
+ */
+class PresentationImportPipelineTests {
+
+    private static final int SLIDES = 16;
+    private static final Duration DOWNLOAD_LATENCY = Duration.ofMillis(60);
+    private static final Duration UPLOAD_LATENCY = Duration.ofMillis(60);
+    // Los "slides" de FakeDrive no son imágenes: aquí solo se mide la transferencia
+    private static final SlideImageProcessor NO_RENDITIONS = new SlideImageProcessor(false, 0.82f, 1);
+
+    @Test
+    @Tag("benchmark")
+    void parallelPipelineOutperformsSequentialImport() {
+        long sequential = timeImport(1, 1);
+        long parallel = timeImport(4, 4);
+
+        // Secuencial ≈ 16 × 120 ms; con 4+4 hilos ≈ 4 × 60 ms + 60 ms
+        assertThat(parallel).isLessThan(sequential / 3);
+    }
+
+    @Test
+    void slidesKeepDriveOrderAndArePersistedOnce() {
+        // Los primeros slides tardan más en descargarse: terminan los últimos
+        FakeDrive drive = new FakeDrive(n -> Duration.ofMillis((SLIDES - n) * 10L));
+        FakeS3 s3 = new FakeS3();
+        PresentationRepository repository = savingRepository();
+        FakeBlobs blobs = new FakeBlobs(s3);
+        SlideTransferPipeline pipeline = new SlideTransferPipeline(s3, NO_RENDITIONS, blobs, 4, 4, 0);
+        try {
+            Presentation presentation = presentationService(repository, drive, pipeline, blobs)
+                    .createFromDrive(new User(), "Demo", null, "folder", "Folder", null, "token");
+
+            List<Slide> slides = presentation.getSlides();
+            assertThat(slides).extracting(Slide::getNumber)
+                    .containsExactlyElementsOf(IntStream.rangeClosed(1, SLIDES).boxed().toList());
+            assertThat(slides).allSatisfy(slide -> {
+                assertThat(slide.getDriveFileId()).isEqualTo("file-" + slide.getNumber());
+                assertThat(slide.getS3Url()).contains("/blobs/", slide.getContentHash()).endsWith(".png");
+            });
+            assertThat(s3.objects).hasSize(SLIDES);
+            verify(repository, times(1)).save(any(Presentation.class));
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void emptyDownloadsAreSkipped() {
+        FakeDrive drive = new FakeDrive(n -> Duration.ZERO);
+        drive.emptyFiles.add("file-3");
+        FakeS3 s3 = new FakeS3();
+        FakeBlobs blobs = new FakeBlobs(s3);
+        SlideTransferPipeline pipeline = new SlideTransferPipeline(s3, NO_RENDITIONS, blobs, 2, 2, 0);
+        try {
+            Presentation presentation = presentationService(savingRepository(), drive, pipeline, blobs)
+                    .createFromDrive(new User(), "Demo", null, "folder", "Folder", null, "token");
+
+            assertThat(presentation.getSlides()).extracting(Slide::getNumber)
+                    .hasSize(SLIDES - 1)
+                    .doesNotContain(3);
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void reimportReusesStoredBlobs() {
+        FakeDrive drive = new FakeDrive(n -> Duration.ZERO);
+        FakeS3 s3 = new FakeS3();
+        FakeBlobs blobs = new FakeBlobs(s3);
+        SlideTransferPipeline pipeline = new SlideTransferPipeline(s3, NO_RENDITIONS, blobs, 4, 4, 0);
+        try {
+            PresentationService service = presentationService(savingRepository(), drive, pipeline, blobs);
+            Presentation first = service.createFromDrive(new User(), "Demo", null, "folder", "Folder", null,
+                    "token");
+            int putsAfterFirstImport = s3.puts.get();
+
+            Presentation second = service.createFromDrive(new User(), "Demo", null, "folder", "Folder", null,
+                    "token");
+
+            assertThat(s3.puts.get()).isEqualTo(putsAfterFirstImport).isEqualTo(SLIDES);
+            assertThat(second.getSlides()).extracting(Slide::getFullKey)
+                    .containsExactlyElementsOf(first.getSlides().stream().map(Slide::getFullKey).toList());
+            assertThat(blobs.blobs.values()).hasSize(SLIDES)
+                    .allSatisfy(blob -> assertThat(blob.getRefCount()).isEqualTo(2));
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void resyncTransfersOnlyAddedAndModifiedImages() {
+        FakeDrive drive = new FakeDrive(n -> Duration.ZERO);
+        FakeS3 s3 = new FakeS3();
+        FakeBlobs blobs = new FakeBlobs(s3);
+        PresentationRepository repository = savingRepository();
+        SlideTransferPipeline pipeline = new SlideTransferPipeline(s3, NO_RENDITIONS, blobs, 4, 4, 0);
+        try {
+            PresentationService service = presentationService(repository, drive, pipeline, blobs);
+            User user = new User();
+            user.setId("user-1");
+            Presentation presentation = service.createFromDrive(user, "Demo", null, "folder", "Folder", null,
+                    "token");
+            when(repository.findByIdAndUserId(presentation.getId(), user.getId()))
+                    .thenReturn(Optional.of(presentation));
+            when(repository.findById(presentation.getId())).thenReturn(Optional.of(presentation));
+            String replacedHash = presentation.getSlides().get(1).getContentHash();
+            int putsAfterImport = s3.puts.get();
+
+            drive.files.remove("file-5");
+            drive.versions.put("file-2", "v2");
+            drive.files.add("file-99");
+            Presentation resynced = service.resyncFromDrive(user, presentation.getId(), "token",
+                    PresentationService.ImportProgress.NONE);
+
+            assertThat(s3.puts.get() - putsAfterImport).isEqualTo(2);
+            assertThat(resynced.getSlides()).extracting(Slide::getNumber)
+                    .containsExactlyElementsOf(IntStream.rangeClosed(1, SLIDES).boxed().toList());
+            assertThat(resynced.getSlides()).extracting(Slide::getDriveFileId)
+                    .doesNotContain("file-5")
+                    .endsWith("file-99");
+            assertThat(resynced.getSlides().get(1).getContentHash()).isNotEqualTo(replacedHash);
+            assertThat(blobs.blobs).doesNotContainKey(replacedHash).hasSize(SLIDES);
+            assertThat(blobs.blobs.values()).allSatisfy(blob -> assertThat(blob.getRefCount()).isEqualTo(1));
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    private long timeImport(int downloadParallelism, int uploadParallelism) {
+        FakeS3 s3 = new FakeS3();
+        FakeBlobs blobs = new FakeBlobs(s3);
+        SlideTransferPipeline pipeline = new SlideTransferPipeline(s3, NO_RENDITIONS, blobs, downloadParallelism,
+                uploadParallelism, 0);
+        try {
+            PresentationService service = presentationService(savingRepository(),
+                    new FakeDrive(n -> DOWNLOAD_LATENCY), pipeline, blobs);
+            long start = System.nanoTime();
+            Presentation presentation = service.createFromDrive(new User(), "Demo", null, "folder", "Folder",
+                    null, "token");
+            long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            assertThat(presentation.getSlides()).hasSize(SLIDES);
+            return elapsed;
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    private static PresentationService presentationService(PresentationRepository repository,
+            GoogleDriveService drive, SlideTransferPipeline pipeline, SlideBlobService blobs) {
+        return new PresentationService(repository, drive, new DriveListingCache(Duration.ofMinutes(1), 100),
+                pipeline, blobs, new FakeS3(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    private static PresentationRepository savingRepository() {
+        PresentationRepository repository = mock(PresentationRepository.class);
+        when(repository.save(any(Presentation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        return repository;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Drive con SLIDES imágenes y latencia de descarga por número de slide. El
+     * contenido (y su md5) cambia con la versión de cada archivo.
+     */
+    private static final class FakeDrive extends GoogleDriveService {
+
+        private final IntFunction<Duration> latency;
+        private final List<String> files = new CopyOnWriteArrayList<>(IntStream.rangeClosed(1, SLIDES)
+                .mapToObj(n -> "file-" + n)
+                .toList());
+        private final Map<String, String> versions = new ConcurrentHashMap<>();
+        private final List<String> emptyFiles = new CopyOnWriteArrayList<>();
+
+        private FakeDrive(IntFunction<Duration> latency) {
+            super(WebClient.builder());
+            this.latency = latency;
+        }
+
+        @Override
+        public List<DriveFile> listImagesInFolder(String folderId, String accessToken) {
+            return files.stream()
+                    .map(id -> new DriveFile(id, id + ".png", "image/png", content(id), null))
+                    .toList();
+        }
+
+        @Override
+        public byte[] downloadImage(String fileId, String accessToken) {
+            sleep(latency.apply(Integer.parseInt(fileId.substring("file-".length()))));
+            return emptyFiles.contains(fileId) ? new byte[0] : content(fileId).getBytes();
+        }
+
+        private String content(String fileId) {
+            return fileId + "@" + versions.getOrDefault(fileId, "v1");
+        }
+    }
+
+    /** S3 en memoria con latencia fija por PUT. */
+    private static final class FakeS3 implements SlideStorage {
+
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private final AtomicInteger puts = new AtomicInteger();
+
+        @Override
+        public String store(String key, InputStream content, long contentLength, String contentType) {
+            sleep(UPLOAD_LATENCY);
+            puts.incrementAndGet();
+            try {
+                objects.put(key, content.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return "https://slidehub-test.s3.local/" + key;
+        }
+
+        @Override
+        public ByteBuffer read(String key) {
+            return ByteBuffer.wrap(objects.get(key));
+        }
+
+        @Override
+        public Optional<StoredObject> stat(String key) {
+            return Optional.ofNullable(objects.get(key))
+                    .map(bytes -> new StoredObject(bytes.length, Instant.EPOCH, Integer.toHexString(bytes.hashCode())));
+        }
+
+        @Override
+        public void delete(String key) {
+            objects.remove(key);
+        }
+
+        @Override
+        public int deleteAll(String prefix) {
+            int before = objects.size();
+            objects.keySet().removeIf(key -> key.startsWith(prefix));
+            return before - objects.size();
+        }
+    }
+
+    /** Registro de blobs en memoria (sin BD). */
+    private static final class FakeBlobs extends SlideBlobService {
+
+        private final Map<String, SlideBlob> blobs = new ConcurrentHashMap<>();
+
+        private FakeBlobs(SlideStorage storage) {
+            super(mock(SlideBlobRepository.class), storage, Duration.ofHours(1));
+        }
+
+        @Override
+        public Optional<SlideBlob> find(String hash) {
+            return Optional.ofNullable(blobs.get(hash));
+        }
+
+        @Override
+        public Optional<SlideBlob> lease(String hash) {
+            return find(hash);
+        }
+
+        @Override
+        public SlideBlob register(SlideBlob blob) {
+            SlideBlob existing = blobs.putIfAbsent(blob.getHash(), blob);
+            return existing != null ? existing : blob;
+        }
+
+        @Override
+        public void abandon(Map<String, Integer> leases) {
+        }
+
+        @Override
+        public void acquire(Map<String, Integer> references) {
+            references.forEach((hash, count) -> {
+                SlideBlob blob = blobs.get(hash);
+                blob.setRefCount(blob.getRefCount() + count);
+            });
+        }
+
+        @Override
+        public List<String> release(Map<String, Integer> references) {
+            references.forEach((hash, count) -> {
+                SlideBlob blob = blobs.get(hash);
+                blob.setRefCount(blob.getRefCount() - count);
+            });
+            return List.copyOf(references.keySet());
+        }
+
+        @Override
+        public boolean purgeIfUnreferenced(String hash) {
+            return blobs.computeIfPresent(hash, (key, blob) -> blob.getRefCount() > 0 ? blob : null) == null;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.brixo.slidehub.ui.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Benchmark de formatos para una presentación de ejemplo (8 slides Full HD):
+ * bytes totales y tiempo medio de decodificación de PNG (original), JPEG
+ * (renditions) y WebP (SlideTranscoder). Registra la tabla en el log y
+ * comprueba que WebP ocupa menos que el PNG original.
+ *
+ * La parte WebP se omite si la plataforma no tiene el plugin ImageIO de WebP.
+ * Fuera del build por defecto: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SlideFormatBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(SlideFormatBenchmarkTests.class);
+
+    private static final int SLIDES = 8;
+    private static final int DECODE_ROUNDS = 5;
+
+    @Test
+    void webpIsSmallerThanOriginalPng() throws IOException {
+        assumeTrue(SlideTranscoder.isWebpSupported(), "Sin encoder ImageIO de WebP");
+
+        Map<String, Result> results = benchmark(List.of("image/png", "image/jpeg", "image/webp"));
+
+        assertThat(results.get("image/webp").bytes()).isLessThan(results.get("image/png").bytes());
+    }
+
+    @Test
+    void jpegIsSmallerThanOriginalPng() throws IOException {
+        Map<String, Result> results = benchmark(List.of("image/png", "image/jpeg"));
+
+        assertThat(results.get("image/jpeg").bytes()).isLessThan(results.get("image/png").bytes());
+    }
+
+    private record Result(long bytes, double decodeMillisPerSlide) {
+    }
+
+    private static Map<String, Result> benchmark(List<String> mimeTypes) throws IOException {
+        List<BufferedImage> deck = new ArrayList<>(SLIDES);
+        for (int i = 1; i <= SLIDES; i++) {
+            deck.add(slide(1920, 1080, i));
+        }
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String mimeType : mimeTypes) {
+            List<byte[]> encoded = new ArrayList<>(SLIDES);
+            for (BufferedImage image : deck) {
+                encoded.add(encode(image, mimeType));
+            }
+            long bytes = encoded.stream().mapToLong(data -> data.length).sum();
+
+            decodeAll(encoded); // calentamiento
+            long start = System.nanoTime();
+            for (int round = 0; round < DECODE_ROUNDS; round++) {
+                decodeAll(encoded);
+            }
+            double millis = (System.nanoTime() - start) / 1e6 / (DECODE_ROUNDS * SLIDES);
+            results.put(mimeType, new Result(bytes, millis));
+        }
+
+        results.forEach((mimeType, result) -> log.info("{}: {} bytes ({} slides), {} ms/slide al decodificar",
+                mimeType, result.bytes(), SLIDES, String.format("%.2f", result.decodeMillisPerSlide())));
+        return results;
+    }
+
+    private static byte[] encode(BufferedImage image, String mimeType) throws IOException {
+        return switch (mimeType) {
+            case "image/png" -> {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(image, "png", out);
+                yield out.toByteArray();
+            }
+            case "image/jpeg" -> SlideTranscoder.encode(image, mimeType, 0.82f);
+            default -> SlideTranscoder.encode(image, mimeType, 0.8f);
+        };
+    }
+
+    private static void decodeAll(List<byte[]> encoded) throws IOException {
+        for (byte[] data : encoded) {
+            assertThat(ImageIO.read(new ByteArrayInputStream(data))).isNotNull();
+        }
+    }
+
+    /** Slide sintético RGB: degradado, título, viñetas y un bloque de color. */
+    private static BufferedImage slide(int width, int height, int number) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(0x0f172a), width, height, new Color(0x1d4ed8 + number * 0x10)));
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.WHITE);
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, height / 12));
+        g.drawString("Slide " + number, width / 12, height / 4);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, height / 30));
+        for (int line = 0; line < 6 + number % 3; line++) {
+            g.drawString("• Punto " + (line + 1) + " del slide " + number, width / 12,
+                    height / 3 + line * height / 16);
+        }
+        g.setColor(new Color(0xf59e0b));
+        g.fillRoundRect(width * 2 / 3, height / 3, width / 4, height / 2, 40, 40);
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,96 @@
+package com.brixo.slidehub.ui.service;
+
+import com.brixo.slidehub.ui.model.SlideRendition;
+import com.brixo.slidehub.ui.service.SlideImageProcessor.RenderedSlide;
+import com.brixo.slidehub.ui.service.SlideImageProcessor.Rendition;
+import com.brixo.slidehub.ui.storage.SlideContent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Renditions de un slide Full HD: dimensiones, formato y ahorro de bytes
+ * frente al PNG original.
+ */
+class SlideImageProcessorTests {
+
+    private final SlideImageProcessor processor = new SlideImageProcessor(true, 0.82f, 1);
+
+    @AfterEach
+    void shutdown() {
+        processor.shutdown();
+    }
+
+    @Test
+    void fullHdSlideProducesThumbnailAndMobileJpegs() throws IOException {
+        byte[] original = slidePng(1920, 1080);
+
+        RenderedSlide rendered = processor.render(SlideContent.of(original));
+
+        assertThat(rendered.width()).isEqualTo(1920);
+        assertThat(rendered.height()).isEqualTo(1080);
+        assertThat(rendered.renditions()).extracting(Rendition::kind)
+                .containsExactly(SlideRendition.THUMBNAIL, SlideRendition.MOBILE);
+        for (Rendition rendition : rendered.renditions()) {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(rendition.content().bytes()));
+            assertThat(decoded.getWidth()).isEqualTo(rendition.kind().width());
+            assertThat(decoded.getHeight()).isEqualTo(rendition.kind().width() * 1080 / 1920);
+        }
+
+        // Medido: thumbnail ≈ 1/38 y mobile ≈ 1/7 del PNG original
+        Rendition thumbnail = rendered.renditions().get(0);
+        Rendition mobile = rendered.renditions().get(1);
+        assertThat(thumbnail.content().length()).isLessThan(original.length / 20L);
+        assertThat(mobile.content().length()).isLessThan(original.length / 5L);
+    }
+
+    @Test
+    void narrowSlideKeepsOnlyTheRenditionsItCovers() throws IOException {
+        RenderedSlide rendered = processor.render(SlideContent.of(slidePng(800, 600)));
+
+        assertThat(rendered.renditions()).extracting(Rendition::kind)
+                .containsExactly(SlideRendition.THUMBNAIL);
+    }
+
+    @Test
+    void undecodableContentHasNoRenditions() {
+        RenderedSlide rendered = processor.render(SlideContent.of("no es una imagen".getBytes()));
+
+        assertThat(rendered).isEqualTo(RenderedSlide.NONE);
+        assertThat(rendered.hasDimensions()).isFalse();
+    }
+
+    /** Slide sintético: degradado de fondo, bloques de color y texto. */
+    private static byte[] slidePng(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(0x1e3a8a), width, height, new Color(0x9333ea)));
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.WHITE);
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, height / 12));
+        g.drawString("SlideHub — renditions", width / 12, height / 4);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, height / 30));
+        for (int line = 0; line < 8; line++) {
+            g.drawString("• Punto " + (line + 1) + ": texto de ejemplo para el slide", width / 12,
+                    height / 3 + line * height / 16);
+        }
+        g.setColor(new Color(0xf59e0b));
+        g.fillRoundRect(width * 2 / 3, height / 3, width / 4, height / 2, 40, 40);
+        g.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,94 @@
+package com.brixo.slidehub.ui.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Borrados en lote contra un S3Client simulado: DeleteObjects de como mucho
+ * {@value S3SlideStorage#DELETE_BATCH_SIZE} claves, en modo quiet (la
+ * respuesta solo trae los errores, que se descuentan del total).
+ */
+class S3SlideStorageDeleteTests {
+
+    private static final int LISTED = 1500;
+    private static final int PAGE_SIZE = 1000;
+
+    private final S3Client s3 = mock(S3Client.class);
+    private final List<DeleteObjectsRequest> deleteCalls = new CopyOnWriteArrayList<>();
+    private S3SlideStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new S3SlideStorage(s3, Optional.empty());
+        ReflectionTestUtils.setField(storage, "bucket", "slidehub-test");
+        ReflectionTestUtils.setField(storage, "region", "us-east-1");
+
+        when(s3.listObjectsV2Paginator(any(ListObjectsV2Request.class)))
+                .thenAnswer(invocation -> new ListObjectsV2Iterable(s3, invocation.getArgument(0)));
+        when(s3.listObjectsV2(any(ListObjectsV2Request.class))).thenAnswer(invocation -> {
+            ListObjectsV2Request request = invocation.getArgument(0);
+            int from = request.continuationToken() == null ? 0 : Integer.parseInt(request.continuationToken());
+            int to = Math.min(from + PAGE_SIZE, LISTED);
+            return ListObjectsV2Response.builder()
+                    .contents(IntStream.range(from, to)
+                            .mapToObj(i -> S3Object.builder().key(request.prefix() + i + ".png").build())
+                            .toList())
+                    .isTruncated(to < LISTED)
+                    .nextContinuationToken(to < LISTED ? String.valueOf(to) : null)
+                    .build();
+        });
+        // El primer lote falla en dos claves
+        when(s3.deleteObjects(any(DeleteObjectsRequest.class))).thenAnswer(invocation -> {
+            DeleteObjectsRequest request = invocation.getArgument(0);
+            deleteCalls.add(request);
+            List<S3Error> errors = deleteCalls.size() > 1 ? List.of() : request.delete().objects().stream()
+                    .limit(2)
+                    .map(object -> S3Error.builder().key(object.key()).code("AccessDenied").build())
+                    .toList();
+            return DeleteObjectsResponse.builder().errors(errors).build();
+        });
+    }
+
+    @Test
+    void prefixDeleteSplitsListedKeysIntoBatchesAndCountsQuietErrors() {
+        int deleted = storage.deleteAll("slides/p-1/");
+
+        assertThat(deleteCalls).hasSize(2);
+        assertThat(deleteCalls).allSatisfy(request -> assertThat(request.delete().quiet()).isTrue());
+        assertThat(deleteCalls.get(0).delete().objects()).hasSize(S3SlideStorage.DELETE_BATCH_SIZE);
+        assertThat(deleteCalls.get(1).delete().objects()).hasSize(LISTED - S3SlideStorage.DELETE_BATCH_SIZE);
+        assertThat(deleted).isEqualTo(LISTED - 2);
+    }
+
+    @Test
+    void keyListDeleteUsesTheSameBatches() {
+        List<String> keys = IntStream.range(0, 1001).mapToObj(i -> "blobs/ab/" + i + ".png").toList();
+
+        int deleted = storage.deleteKeys(keys);
+
+        assertThat(deleteCalls).hasSize(2);
+        assertThat(deleteCalls.get(1).delete().objects()).extracting(ObjectIdentifier::key)
+                .containsExactly("blobs/ab/1000.png");
+        assertThat(deleted).isEqualTo(keys.size() - 2);
+    }
+}
@@ -0,0 +1,173 @@
+package com.brixo.slidehub.ui.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Subida de archivos grandes a un S3 simulado que consume el body en
+ * streaming: los bytes asignados en heap por el hilo que sube deben quedar
+ * muy por debajo del tamaño del archivo (un buffer de parte, no el archivo
+ * entero), y el contenido recibido por S3 debe ser idéntico al original.
+ */
+class S3SlideStorageStreamingTests {
+
+    private static final DataSize PART_SIZE = DataSize.ofMegabytes(5);
+    private static final DataSize THRESHOLD = DataSize.ofMegabytes(8);
+
+    @TempDir
+    Path tempDir;
+
+    private final S3Client s3 = mock(S3Client.class);
+    private final MessageDigest received = sha256();
+    private final AtomicInteger parts = new AtomicInteger();
+    private S3SlideStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new S3SlideStorage(s3, Optional.empty());
+        ReflectionTestUtils.setField(storage, "bucket", "slidehub-test");
+        ReflectionTestUtils.setField(storage, "region", "us-east-1");
+        ReflectionTestUtils.setField(storage, "multipartThreshold", THRESHOLD);
+        ReflectionTestUtils.setField(storage, "partSize", PART_SIZE);
+
+        when(s3.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            consume(invocation.getArgument(1));
+            return PutObjectResponse.builder().build();
+        });
+        when(s3.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            consume(invocation.getArgument(1));
+            return UploadPartResponse.builder().eTag("etag-" + parts.incrementAndGet()).build();
+        });
+        when(s3.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().build());
+    }
+
+    @Test
+    void largeFileIsUploadedInPartsWithBoundedHeap() throws Exception {
+        long size = DataSize.ofMegabytes(64).toBytes();
+        Path file = randomFile(size);
+        byte[] expected = digest(file);
+
+        long allocated = allocatedDuring(() -> {
+            try (InputStream in = Files.newInputStream(file)) {
+                storage.store("slides/p/1.png", in, size, "image/png");
+            }
+        });
+
+        assertThat(received.digest()).isEqualTo(expected);
+        assertThat(parts.get()).isEqualTo((int) Math.ceil((double) size / PART_SIZE.toBytes()));
+        verify(s3, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        // Un buffer de parte (5 MB) más ruido; leer el archivo entero serían 64 MB
+        assertThat(allocated).isLessThan(size / 4);
+    }
+
+    @Test
+    void smallFileIsStreamedInSinglePut() throws Exception {
+        long size = DataSize.ofMegabytes(6).toBytes();
+        Path file = randomFile(size);
+        byte[] expected = digest(file);
+
+        long allocated = allocatedDuring(() -> {
+            try (InputStream in = Files.newInputStream(file)) {
+                storage.store("slides/p/2.png", in, size, "image/png");
+            }
+        });
+
+        assertThat(received.digest()).isEqualTo(expected);
+        verify(s3, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+        assertThat(allocated).isLessThan(size / 2);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    /** Lee el body como lo haría el cliente HTTP del SDK: en bloques de 8 KB. */
+    private void consume(RequestBody body) throws IOException {
+        byte[] chunk = new byte[8192];
+        try (InputStream in = body.contentStreamProvider().newStream()) {
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                received.update(chunk, 0, read);
+            }
+        }
+    }
+
+    private interface Upload {
+        void run() throws Exception;
+    }
+
+    /** Bytes asignados en heap por el hilo actual durante {@code upload}. */
+    private static long allocatedDuring(Upload upload) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        upload.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private Path randomFile(long size) throws IOException {
+        Path file = Files.createTempFile(tempDir, "slide", ".png");
+        Random random = new Random(42);
+        byte[] chunk = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long written = 0; written < size; written += chunk.length) {
+                random.nextBytes(chunk);
+                out.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+            }
+        }
+        return file;
+    }
+
+    private static byte[] digest(Path file) throws IOException {
+        MessageDigest sha256 = sha256();
+        byte[] chunk = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                sha256.update(chunk, 0, read);
+            }
+        }
+        return sha256.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}